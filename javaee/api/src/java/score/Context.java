@@ -345,6 +345,19 @@ public final class Context {
         return null;
     }
 
+    /**
+     * Returns a new hasher computing the hash value of a message given in
+     * parts. The hash value is the same as the one returned by
+     * {@link #hash(String, byte[])} for the concatenation of the parts.
+     * @param alg hash algorithm. One of sha-256, sha3-256, keccak-256, xxhash-128,
+     *            blake2b-128 and blake2b-256.
+     * @return hasher
+     * @throws IllegalArgumentException if the algorithm is unsupported.
+     */
+    public static Hasher newHasher(String alg) {
+        return null;
+    }
+
     /**
      * Returns {@code true} if the given signature for the given message by
      * the given public key is correct.
@@ -361,6 +374,29 @@ public final class Context {
         return false;
     }
 
+    /**
+     * Returns whether each of the given signatures is correct. The result
+     * and the step cost are the same as calling {@link #verifySignature} for
+     * each signature in order, but the signatures may be verified in
+     * parallel. If an exception is thrown for a signature, steps are
+     * charged for the signatures up to and including it. No steps are
+     * charged if the arrays have different lengths.
+     * @param alg signature algorithm. One of ed25519, ecdsa-secp256k1 and
+     *            bls12-381-g2
+     * @param msgs messages. Each element is a byte array, so a
+     *             {@code byte[][]} may be given.
+     * @param sigs signatures, one for each message.
+     * @param pubKeys public keys, one for each message.
+     * @return an array whose i-th element is {@code true} if {@code sigs[i]}
+     * for {@code msgs[i]} by {@code pubKeys[i]} is correct.
+     * @throws IllegalArgumentException if the algorithm is unsupported, the
+     *          arrays have different lengths or an element is not a byte
+     *          array or is invalid for the algorithm.
+     */
+    public static boolean[] verifySignatures(String alg, Object[] msgs, Object[] sigs, Object[] pubKeys) {
+        return null;
+    }
+
     /**
      * Recovers the public key from the message and the recoverable signature.
      * @param alg signature algorithm. ecdsa-secp256k1 is supported.
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package score;
+
+/**
+ * Computes the hash of a message given in parts, so that the message doesn't
+ * have to be concatenated into one byte array first.
+ * @see Context#newHasher(String)
+ */
+public interface Hasher {
+    /**
+     * Appends the given bytes to the message.
+     * @param data bytes to append
+     */
+    void update(byte[] data);
+
+    /**
+     * Appends {@code len} bytes of the given array from {@code off} to the
+     * message.
+     * @param data byte array
+     * @param off offset of the first byte to append
+     * @param len number of bytes to append
+     * @throws IndexOutOfBoundsException if the range is out of the array.
+     */
+    void update(byte[] data, int off, int len);
+
+    /**
+     * Returns the hash value of the message and resets the hasher for a new
+     * message.
+     * @return hash value
+     */
+    byte[] digest();
+}
@@ -14,22 +14,71 @@
  * limitations under the License.
  */
 
+import foundation.icon.ee.ipc.ChannelClient;
 import foundation.icon.ee.ipc.Client;
+import foundation.icon.ee.ipc.Connector;
 import foundation.icon.ee.ipc.ExecutorManager;
+import foundation.icon.ee.score.Loader;
 import foundation.icon.ee.score.TransactionExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Launcher {
+    private static final String CONNECTOR_KEY = "foundation.icon.ee.ipc.connector";
+    private static final String CONNECTOR_CHANNEL = "channel";
+    private static final String PRELOAD_KEY = "foundation.icon.ee.score.preload";
+    private static final String DAPP_CACHE_BYTES_KEY = "foundation.icon.ee.score.dappCacheBytes";
+    private static final String LAZY_GRAPH_KEY = "foundation.icon.ee.score.lazyGraph";
+
+    private static Connector getConnector(Logger logger) {
+        if (CONNECTOR_CHANNEL.equals(System.getProperty(CONNECTOR_KEY))) {
+            if (ChannelClient.isSupported()) {
+                return ChannelClient.connector;
+            }
+            logger.warn("UNIX domain SocketChannel is not supported. Use native client");
+        }
+        return Client.connector;
+    }
+
+    private static Loader getLoader(Logger logger) {
+        long maxBytes = Long.getLong(DAPP_CACHE_BYTES_KEY, 0);
+        if (maxBytes > 0) {
+            logger.info("Use DApp cache bytes={}", maxBytes);
+        }
+        boolean lazyGraph = Boolean.getBoolean(LAZY_GRAPH_KEY);
+        if (lazyGraph) {
+            logger.info("Use lazy object graph loading");
+        }
+        return new Loader(maxBytes, lazyGraph);
+    }
+
+    private static List<String> getPreloadCodes() {
+        String codes = System.getProperty(PRELOAD_KEY, "");
+        List<String> res = new ArrayList<>();
+        for (String code : codes.split(",")) {
+            code = code.trim();
+            if (!code.isEmpty()) {
+                res.add(code);
+            }
+        }
+        return res;
+    }
+
     public static void main(String[] args) throws IOException {
         Logger logger = LoggerFactory.getLogger(Launcher.class);
         if (args.length == 2) {
-            TransactionExecutor executor = TransactionExecutor.newInstance(Client.connect(args[0]), args[1]);
+            Connector connector = getConnector(logger);
+            TransactionExecutor executor = TransactionExecutor.newInstance(
+                    connector.connect(args[0]), args[1], null, null, null);
             executor.connectAndRunLoop();
         } else if (args.length == 1) {
-            ExecutorManager executorManager = new ExecutorManager(args[0]);
+            ExecutorManager executorManager = new ExecutorManager(args[0],
+                    getConnector(logger), getLoader(logger));
+            executorManager.prewarm(getPreloadCodes());
             executorManager.run();
         } else {
             logger.info("Usage: Launcher <socket addr> (<uuid>)");
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee;
+
+import foundation.icon.ee.logger.EELogger;
+import foundation.icon.ee.score.TransactionExecutor;
+import foundation.icon.ee.test.ContractAddress;
+import foundation.icon.ee.test.Pipe;
+import foundation.icon.ee.test.ServiceManager;
+import i.InstrumentationCarrier;
+import org.aion.avm.core.AvmConfiguration;
+import score.annotation.External;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * Runs a BigInteger heavy SCORE loop on an executor thread which reaches the instrumentation through the ThreadLocal
+ * (plain thread) and on one which carries it in a field (InstrumentationCarrier).
+ *
+ * Usage: InstrumentationBenchmark [loops] [calls]
+ */
+public class InstrumentationBenchmark {
+    public static class Score {
+        private static final BigInteger P = new BigInteger("115792089237316195423570985008687907853269984665640564039457584007908834671663");
+        private static final BigInteger G = BigInteger.valueOf(7);
+
+        @External(readonly = true)
+        public BigInteger loop(int n) {
+            BigInteger a = BigInteger.ONE;
+            BigInteger sum = BigInteger.ZERO;
+            for (int i = 0; i < n; i++) {
+                a = a.multiply(G).add(BigInteger.valueOf(i)).mod(P);
+                sum = sum.xor(a).shiftRight(1);
+            }
+            return sum;
+        }
+    }
+
+    private static ServiceManager start(boolean carrier) {
+        var pipes = Pipe.createPair();
+        var sm = new ServiceManager(pipes[0], false);
+        Runnable r = () -> {
+            try {
+                var conf = new AvmConfiguration();
+                var te = TransactionExecutor.newInstance(pipes[1], "",
+                        null, sm.getFileIO(), conf);
+                te.connectAndRunLoop(sm);
+            } catch (IOException e) {
+                System.out.println(e);
+            }
+        };
+        var th = carrier ? new InstrumentationCarrier(r, "executor") : new Thread(r, "executor");
+        th.start();
+        return sm;
+    }
+
+    private static void run(String label, ContractAddress score, int loops, int calls) {
+        Object ret = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            ret = score.query("loop", loops).getRet();
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-12s %10.3f ms/call (%s)%n", label, nanos / 1e6 / calls, ret);
+    }
+
+    public static void main(String[] args) {
+        int loops = (args.length > 0) ? Integer.parseInt(args[0]) : 20_000;
+        int calls = (args.length > 1) ? Integer.parseInt(args[1]) : 50;
+        EELogger.setLogLevel(0);
+        var threadLocal = start(false);
+        var carrier = start(true);
+        var tlScore = threadLocal.mustDeploy(Score.class);
+        var cScore = carrier.mustDeploy(Score.class);
+        // warm up
+        run("threadlocal", tlScore, loops, calls);
+        run("carrier", cScore, loops, calls);
+        for (int round = 0; round < 3; round++) {
+            run("threadlocal", tlScore, loops, calls);
+            run("carrier", cScore, loops, calls);
+        }
+        threadLocal.close();
+        carrier.close();
+        // The executor threads are not daemons.
+        System.exit(0);
+    }
+}
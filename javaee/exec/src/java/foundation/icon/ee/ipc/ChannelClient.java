@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.ipc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/*
+ * UNIX domain socket implementation based on SocketChannel.
+ * Unlike Client, it doesn't need the native library, and messages are
+ * copied into pooled direct buffers instead of being passed through JNI.
+ * UNIX domain SocketChannel is supported since Java 16.
+ */
+public class ChannelClient implements Connection {
+    private static final MethodHandle newUnixAddress = findUnixAddress();
+
+    private final SocketChannel channel;
+    private ByteBuffer readBuf;
+    private ByteBuffer writeBuf;
+    private final ChannelInputStream in;
+
+    ChannelClient(SocketChannel channel) {
+        this.channel = channel;
+        this.readBuf = DirectBufferPool.acquire();
+        this.readBuf.flip();
+        this.writeBuf = DirectBufferPool.acquire();
+        this.in = new ChannelInputStream();
+    }
+
+    /**
+     * Attach to the target
+     *
+     * @param path  the UNIX domain socket address for connection
+     */
+    public static ChannelClient connect(String path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("path cannot be null");
+        }
+        File f = new File(path);
+        if (!f.exists()) {
+            throw new IOException("Unable to open socket file(" + path + ")");
+        }
+        SocketChannel ch = SocketChannel.open(unixAddress(path));
+        try {
+            ch.configureBlocking(true);
+            return new ChannelClient(ch);
+        } catch (Throwable t) {
+            try {
+                ch.close();
+            } catch (IOException e) {
+                t.addSuppressed(e);
+            }
+            throw t;
+        }
+    }
+
+    public static boolean isSupported() {
+        return newUnixAddress != null;
+    }
+
+    private static MethodHandle findUnixAddress() {
+        try {
+            Class<?> cls = Class.forName("java.net.UnixDomainSocketAddress");
+            return MethodHandles.publicLookup().findStatic(cls, "of",
+                    MethodType.methodType(cls, String.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static SocketAddress unixAddress(String path) throws IOException {
+        if (newUnixAddress == null) {
+            throw new IOException("UNIX domain SocketChannel is not supported");
+        }
+        try {
+            return (SocketAddress) newUnixAddress.invoke(path);
+        } catch (Throwable t) {
+            throw new IOException("Invalid socket path(" + path + ")", t);
+        }
+    }
+
+    /**
+     * Detach from the target
+     */
+    public void close() throws IOException {
+        channel.close();
+        synchronized (this) {
+            DirectBufferPool.release(writeBuf);
+            writeBuf = null;
+        }
+        synchronized (in) {
+            DirectBufferPool.release(readBuf);
+            readBuf = null;
+        }
+    }
+
+    public synchronized void send(byte[] b) throws IOException {
+        ensureOpen(writeBuf);
+        put(b);
+        flushWriteBuffer();
+    }
+
+    public synchronized void sendAll(byte[][] data) throws IOException {
+        ensureOpen(writeBuf);
+        for (byte[] b : data) {
+            put(b);
+        }
+        flushWriteBuffer();
+    }
+
+    // Copies b into the write buffer. If b doesn't fit, buffered data and b
+    // are written at once with a gathering write.
+    private void put(byte[] b) throws IOException {
+        if (b.length <= writeBuf.remaining()) {
+            writeBuf.put(b);
+            return;
+        }
+        writeBuf.flip();
+        ByteBuffer[] srcs = new ByteBuffer[]{writeBuf, ByteBuffer.wrap(b)};
+        while (srcs[1].hasRemaining()) {
+            channel.write(srcs);
+        }
+        writeBuf.clear();
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        writeBuf.flip();
+        while (writeBuf.hasRemaining()) {
+            channel.write(writeBuf);
+        }
+        writeBuf.clear();
+    }
+
+    private static void ensureOpen(ByteBuffer bb) throws IOException {
+        if (bb == null) {
+            throw new IOException("connection closed");
+        }
+    }
+
+    public InputStream getInputStream() {
+        return in;
+    }
+
+    /*
+     * InputStream reading through the pooled read buffer.
+     */
+    private class ChannelInputStream extends InputStream {
+        // returns false on EOF
+        private boolean fill() throws IOException {
+            ensureOpen(readBuf);
+            if (readBuf.hasRemaining()) {
+                return true;
+            }
+            readBuf.clear();
+            int n;
+            do {
+                n = channel.read(readBuf);
+            } while (n == 0);
+            readBuf.flip();
+            return n > 0;
+        }
+
+        public synchronized int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return readBuf.get() & 0xff;
+        }
+
+        public synchronized int read(byte[] bs, int off, int len) throws IOException {
+            if ((off < 0) || (off > bs.length) || (len < 0) ||
+                ((off + len) > bs.length) || ((off + len) < 0)) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0)
+                return 0;
+
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, readBuf.remaining());
+            readBuf.get(bs, off, n);
+            return n;
+        }
+
+        public synchronized int available() throws IOException {
+            return readBuf != null ? readBuf.remaining() : 0;
+        }
+
+        // The connection is closed by ChannelClient.close().
+        public void close() {
+        }
+    }
+
+    static public Connector connector = ChannelClient::connect;
+}
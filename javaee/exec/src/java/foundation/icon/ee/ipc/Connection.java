@@ -7,4 +7,17 @@ public interface Connection {
     InputStream getInputStream();
     void close() throws IOException;
     void send(byte[] data) throws IOException;
+
+    /**
+     * Sends the given chunks in order as if they were sent by consecutive
+     * calls of {@link #send(byte[])}. Implementations may write them with
+     * fewer system calls.
+     *
+     * @param data  chunks to send
+     */
+    default void sendAll(byte[][] data) throws IOException {
+        for (byte[] d : data) {
+            send(d);
+        }
+    }
 }
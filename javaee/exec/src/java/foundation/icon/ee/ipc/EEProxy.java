@@ -24,9 +24,7 @@ import foundation.icon.ee.types.Result;
 import foundation.icon.ee.types.Status;
 import i.RuntimeAssertionError;
 import org.aion.avm.core.IExternalState;
-import org.msgpack.core.MessageTypeCastException;
-import org.msgpack.value.ArrayValue;
-import org.msgpack.value.Value;
+import org.msgpack.core.MessageTypeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +71,7 @@ public class EEProxy extends Proxy {
         public static final int GETOBJGRAPH = 13;
         public static final int SETOBJGRAPH = 14;
         public static final int SETFEEPCT = 15;
+        public static final int GETVALUES = 17;
     }
 
     public static class SetValueFlag {
@@ -93,6 +92,10 @@ public class EEProxy extends Proxy {
         public static final String REVISION = "Revision";
     }
 
+    static {
+        ProxyStats.getInstance().registerTypes(MsgType.class, "");
+    }
+
     public EEProxy(Connection client) {
         super(client);
         threadLocal.set(this);
@@ -114,55 +117,116 @@ public class EEProxy extends Proxy {
         doHandleMessages();
     }
 
-    private Value doHandleMessages() throws IOException {
+    private Result doHandleMessages() throws IOException {
+        var unpacker = getUnpacker();
         while (true) {
-            Message msg = getNextMessage();
-            switch (msg.type) {
+            int type = getNextMessageType();
+            switch (type) {
                 case MsgType.GETAPI:
-                    String path = msg.value.asStringValue().asString();
+                    String path = unpacker.unpackString();
                     logger.trace("[GETAPI] path={}", path);
                     handleGetApi(path);
                     break;
                 case MsgType.INVOKE:
                     logger.trace("[INVOKE]");
-                    handleInvoke(msg.value);
+                    handleInvoke();
                     break;
                 case MsgType.RESULT:
                     logger.trace("[RESULT]");
-                    return msg.value;
+                    return readCallResult();
                 case MsgType.CLOSE:
                     // TODO: unwind stack
                     logger.trace("[CLOSE]");
+                    unpacker.skipValue();
                     return null; // exit loop
+                default:
+                    unpacker.skipValue();
+                    break;
             }
         }
     }
 
+    private void expectMessage(int type, String name) throws IOException {
+        if (getNextMessageType() != type) {
+            throw new IOException("Invalid message: " + name + " expected.");
+        }
+    }
+
+    private int readArrayHeader(int minSize) throws IOException {
+        int size = getUnpacker().unpackArrayHeader();
+        if (size < minSize) {
+            throw new IOException("Invalid message: too short array");
+        }
+        return size;
+    }
+
+    private void skipValues(int n) throws IOException {
+        var unpacker = getUnpacker();
+        for (int i = 0; i < n; i++) {
+            unpacker.skipValue();
+        }
+    }
+
+    private byte[] readByteArray() throws IOException {
+        return TypedObj.unpackRaw(getUnpacker());
+    }
+
+    private BigInteger readBigInteger() throws IOException {
+        return new BigInteger(readByteArray());
+    }
+
+    private Address readAddress() throws IOException {
+        if (getUnpacker().tryUnpackNil()) {
+            return null;
+        }
+        return new Address(readByteArray());
+    }
+
     public BigInteger getBalance(Address addr) throws IOException {
+        long start = System.nanoTime();
         sendMessage(MsgType.GETBALANCE, addr);
         waitForCallbacks();
-        Message msg = getNextMessage();
-        if (msg.type != MsgType.GETBALANCE) {
-            throw new IOException("Invalid message: GETBALANCE expected.");
-        }
-        BigInteger balance = new BigInteger(getValueAsByteArray(msg.value));
+        expectMessage(MsgType.GETBALANCE, "GETBALANCE");
+        recordRoundTrip(MsgType.GETBALANCE, start);
+        BigInteger balance = readBigInteger();
         logger.trace("[GETBALANCE] {}", balance);
         return balance;
     }
 
     public byte[] getValue(byte[] key) throws IOException {
+        long start = System.nanoTime();
         sendMessage(MsgType.GETVALUE, (Object) key);
         waitForCallbacks();
-        Message msg = getNextMessage();
-        if (msg.type != MsgType.GETVALUE) {
-            throw new IOException("Invalid message: GETVALUE expected.");
+        expectMessage(MsgType.GETVALUE, "GETVALUE");
+        recordRoundTrip(MsgType.GETVALUE, start);
+        int size = readArrayHeader(1);
+        byte[] value = null;
+        if (getUnpacker().unpackBoolean()) {
+            value = readByteArray();
+            size--;
         }
-        ArrayValue data = msg.value.asArrayValue();
-        if (data.get(0).asBooleanValue().getBoolean()) {
-            return getValueAsByteArray(data.get(1));
-        } else {
-            return null;
+        skipValues(size - 1);
+        return value;
+    }
+
+    public byte[][] getValues(byte[][] keys) throws IOException {
+        long start = System.nanoTime();
+        sendMessage(MsgType.GETVALUES, (Object) keys);
+        waitForCallbacks();
+        expectMessage(MsgType.GETVALUES, "GETVALUES");
+        recordRoundTrip(MsgType.GETVALUES, start);
+        int size = readArrayHeader(keys.length);
+        byte[][] values = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            int n = readArrayHeader(1);
+            if (getUnpacker().unpackBoolean()) {
+                values[i] = readByteArray();
+                n--;
+            }
+            skipValues(n - 1);
         }
+        skipValues(size - keys.length);
+        return values;
     }
 
     public void setValue(byte[] key, byte[] value, IntConsumer prevSizeCB) throws IOException {
@@ -174,19 +238,16 @@ public class EEProxy extends Proxy {
             flag |= SetValueFlag.OLDVALUE;
             mPrevSizeCBs.add(prevSizeCB);
         }
-        sendMessage(MsgType.SETVALUE, key, flag, value);
+        postMessage(MsgType.SETVALUE, key, flag, value);
     }
 
     public boolean waitForCallback() throws IOException {
         if (mPrevSizeCBs.isEmpty()) {
             return false;
         }
-        Message msg = getNextMessage();
-        if (msg.type != MsgType.SETVALUE) {
-            throw new IOException("Invalid message: SETVALUE expected.");
-        }
+        expectMessage(MsgType.SETVALUE, "SETVALUE");
         logger.trace("[SETVALUE]");
-        handleSetValue(msg.value);
+        handleSetValue();
         return true;
     }
 
@@ -206,16 +267,20 @@ public class EEProxy extends Proxy {
     }
 
     public ObjectGraph getObjGraph(boolean flag) throws IOException {
+        long start = System.nanoTime();
         sendMessage(MsgType.GETOBJGRAPH, flag ? 1 : 0);
         waitForCallbacks();
-        Message msg = getNextMessage();
-        if (msg.type != MsgType.GETOBJGRAPH) {
-            throw new IOException("Invalid message: GETOBJGRAPH expected.");
+        expectMessage(MsgType.GETOBJGRAPH, "GETOBJGRAPH");
+        recordRoundTrip(MsgType.GETOBJGRAPH, start);
+        int size = readArrayHeader(flag ? 3 : 2);
+        int nextHash = getUnpacker().unpackInt();
+        byte[] graphHash = readByteArray();
+        byte[] graphData = null;
+        if (flag) {
+            graphData = readByteArray();
+            size--;
         }
-        ArrayValue data = msg.value.asArrayValue();
-        int nextHash = data.get(0).asIntegerValue().asInt();
-        byte[] graphHash = getValueAsByteArray(data.get(1));
-        byte[] graphData = flag ? getValueAsByteArray(data.get(2)) : null;
+        skipValues(size - 2);
         ObjectGraph objGraph = new ObjectGraph(nextHash, graphHash, graphData);
         logger.trace("[GETOBJGRAPH] {}", objGraph);
         return objGraph;
@@ -230,17 +295,17 @@ public class EEProxy extends Proxy {
     }
 
     public void log(int level, int flag, String msg) throws IOException {
-        sendMessage(MsgType.LOG, level, flag, msg);
+        postMessage(MsgType.LOG, level, flag, msg);
     }
 
     public void event(byte[][]indexed, byte[][] data) throws IOException {
         logger.trace("[LOGEVENT] {}, {}", indexed, data);
-        sendMessage(MsgType.EVENT, indexed, data);
+        postMessage(MsgType.EVENT, indexed, data);
     }
 
     public void setFeeSharingProportion(int proportion) throws IOException {
         logger.trace("[SETFEEPCT] {}", proportion);
-        sendMessage(MsgType.SETFEEPCT, proportion);
+        postMessage(MsgType.SETFEEPCT, proportion);
     }
 
     public interface OnGetApiListener {
@@ -281,97 +346,121 @@ public class EEProxy extends Proxy {
         mOnInvokeListener = listener;
     }
 
-    private byte[] getValueAsByteArray(Value value) {
-        return value.asRawValue().asByteArray();
-    }
-
-    private Address getValueAsAddress(Value value) {
-        if (!value.isNilValue()) {
-            return new Address(getValueAsByteArray(value));
-        }
-        return null;
-    }
-
-    private void handleInvoke(Value raw) throws IOException {
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readInfo() throws IOException {
+        return (Map<String, Object>) TypedObj.decodeAny(getUnpacker());
+    }
+
+    private void handleInvoke() throws IOException {
+        long start = System.nanoTime();
+        String code;
+        int option;
+        Address from, to;
+        BigInteger value, limit;
+        String method;
+        Object[] params;
+        Map<String, Object> info;
+        byte[] contractID;
+        int eid;
+        int nextHash = 0;
+        byte[] graphHash = null;
+        int prevEID = 0;
         try {
-            ArrayValue data = raw.asArrayValue();
-            String code = data.get(0).asStringValue().asString();
-            int option = data.get(1).asIntegerValue().asInt();
-            Address from = getValueAsAddress(data.get(2));
-            Address to = getValueAsAddress(data.get(3));
-            BigInteger value = new BigInteger(getValueAsByteArray(data.get(4)));
-            BigInteger limit = new BigInteger(getValueAsByteArray(data.get(5)));
-            String method = data.get(6).asStringValue().asString();
-            Object[] params = (Object[]) TypedObj.decodeAny(data.get(7));
-            @SuppressWarnings("unchecked")
-            var info = (Map<String, Object>) TypedObj.decodeAny(data.get(8));
-            var contractID = getValueAsByteArray(data.get(9));
-            int eid = data.get(10).asIntegerValue().asInt();
-            int nextHash = 0;
-            byte[] graphHash = null;
-            int prevEID = 0;
-            Value state_ = data.get(11);
-            if (state_.isArrayValue()) {
-                var state = state_.asArrayValue();
-                nextHash = state.get(0).asIntegerValue().asInt();
-                graphHash = state.get(1).asRawValue().asByteArray();
-                prevEID = state.get(2).asIntegerValue().asInt();
-            }
-
-            if (mOnInvokeListener != null) {
-                boolean oldIsTrace = isTrace;
-                isTrace = (option & IExternalState.OPTION_TRACE) != 0;
-                InvokeResult result = mOnInvokeListener.onInvoke(
-                        code, option, from, to, value, limit, method, params,
-                        info, contractID, eid, nextHash, graphHash, prevEID);
-                sendMessage(MsgType.RESULT, result.getStatus(), result.getStepUsed(), result.getResult());
-                isTrace = oldIsTrace;
-            } else {
-                throw new IOException("no invoke handler");
+            var unpacker = getUnpacker();
+            int size = readArrayHeader(12);
+            code = unpacker.unpackString();
+            option = unpacker.unpackInt();
+            from = readAddress();
+            to = readAddress();
+            value = readBigInteger();
+            limit = readBigInteger();
+            method = unpacker.unpackString();
+            params = (Object[]) TypedObj.decodeAny(unpacker);
+            info = readInfo();
+            contractID = readByteArray();
+            eid = unpacker.unpackInt();
+            if (!unpacker.tryUnpackNil()) {
+                int stateSize = readArrayHeader(3);
+                nextHash = unpacker.unpackInt();
+                graphHash = readByteArray();
+                prevEID = unpacker.unpackInt();
+                skipValues(stateSize - 3);
             }
-        } catch (MessageTypeCastException e) {
+            skipValues(size - 12);
+        } catch (MessageTypeException e) {
+            // the rest of the stream can't be decoded any more
             String errMsg = "MessagePack casting error";
             logger.warn(errMsg, e);
-            sendMessage(MsgType.RESULT, Status.UnknownFailure, BigInteger.ZERO, TypedObj.encodeAny(errMsg));
+            throw new IOException(errMsg, e);
+        }
+
+        if (mOnInvokeListener != null) {
+            boolean oldIsTrace = isTrace;
+            isTrace = (option & IExternalState.OPTION_TRACE) != 0;
+            long decoded = System.nanoTime();
+            long oldWaitNanos = getWaitNanos();
+            InvokeResult result = mOnInvokeListener.onInvoke(
+                    code, option, from, to, value, limit, method, params,
+                    info, contractID, eid, nextHash, graphHash, prevEID);
+            long executed = System.nanoTime();
+            long wait = getWaitNanos() - oldWaitNanos;
+            sendMessage(MsgType.RESULT, result.getStatus(), result.getStepUsed(), result.getResult());
+            isTrace = oldIsTrace;
+            getStats().getInvokeStats().record(decoded - start,
+                    executed - decoded - wait, wait,
+                    System.nanoTime() - executed);
+            getStats().reportIfDue();
+        } else {
+            throw new IOException("no invoke handler");
         }
     }
 
     public Result call(Address addr, BigInteger value, long stepLimit,
                        String dataType, Object dataObj) throws IOException {
         // send message first
+        long start = System.nanoTime();
         var limit = BigInteger.valueOf(stepLimit);
         var typedObj = TypedObj.encodeAny(dataObj);
         sendMessage(MsgType.CALL, addr, value, limit, dataType, typedObj);
 
         // handle result
-        Value raw = doHandleMessages();
-        if (raw==null) {
+        Result res = doHandleMessages();
+        recordRoundTrip(MsgType.CALL, start);
+        if (res==null) {
             throw new IOException("close message");
         }
-        ArrayValue data = raw.asArrayValue();
-        int status = data.get(0).asIntegerValue().asInt();
-        BigInteger stepUsed = new BigInteger(getValueAsByteArray(data.get(1)));
-        Object res = TypedObj.decodeAny(data.get(2));
-        int eid = data.get(3).asIntegerValue().asInt();
-        int prevEID = data.get(4).asIntegerValue().asInt();
+        return res;
+    }
+
+    private Result readCallResult() throws IOException {
+        var unpacker = getUnpacker();
+        int size = readArrayHeader(5);
+        int status = unpacker.unpackInt();
+        BigInteger stepUsed = readBigInteger();
+        Object res = TypedObj.decodeAny(unpacker);
+        int eid = unpacker.unpackInt();
+        int prevEID = unpacker.unpackInt();
+        skipValues(size - 5);
         return new Result(status, stepUsed, res, eid, prevEID);
     }
 
-    private void handleSetValue(Value raw) throws IOException {
+    private void handleSetValue() throws IOException {
         try {
-            ArrayValue data = raw.asArrayValue();
-            boolean hasOld = data.get(0).asBooleanValue().getBoolean();
-            int prevSize = data.get(1).asIntegerValue().asInt();
+            var unpacker = getUnpacker();
+            int size = readArrayHeader(2);
+            boolean hasOld = unpacker.unpackBoolean();
+            int prevSize = unpacker.unpackInt();
+            skipValues(size - 2);
             var cb = mPrevSizeCBs.remove(0);
             if (!hasOld) {
                 cb.accept(-1);
             } else {
                 cb.accept(prevSize);
             }
-        } catch (MessageTypeCastException e) {
+        } catch (MessageTypeException e) {
             String errMsg = "MessagePack casting error";
             logger.warn(errMsg, e);
-            throw new IOException("no invoke handler");
+            throw new IOException(errMsg, e);
         }
     }
 
@@ -16,29 +16,59 @@
 
 package foundation.icon.ee.ipc;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import foundation.icon.ee.score.ExternalState;
 import foundation.icon.ee.score.Loader;
 import foundation.icon.ee.score.TransactionExecutor;
+import foundation.icon.ee.util.Crypto;
+import i.InstrumentationCarrier;
+import org.aion.avm.core.AvmConfiguration;
+import org.aion.avm.core.CommonAvmFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ExecutorManager {
     private static final Logger logger = LoggerFactory.getLogger(ExecutorManager.class);
-    private final Map<String, TransactionExecutor> execMap;
+    private final ConcurrentHashMap<String, Worker> execMap;
+    private final ExecutorService workers;
     private final ManagerProxy proxy;
     private final String execSockAddr;
     private final Connector connector;
-    private final Loader loader = new Loader();
+    private final Loader loader;
 
     public ExecutorManager(String sockAddr, Connector c) throws IOException {
+        this(sockAddr, c, new Loader());
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param loader loader shared by executors.
+     */
+    public ExecutorManager(String sockAddr, Connector c,
+                           Loader loader) throws IOException {
         Connection client = c.connect(sockAddr);
         proxy = new ManagerProxy(client);
         execSockAddr = sockAddr;
-        execMap = new HashMap<>();
+        execMap = new ConcurrentHashMap<>();
+        workers = Executors.newCachedThreadPool(new WorkerThreadFactory());
         connector = c;
+        this.loader = loader;
+        registerMBean(loader, "foundation.icon.ee:type=Loader");
+        registerMBean(Crypto.getRecoveredKeyCache(),
+                "foundation.icon.ee:type=RecoveredKeyCache");
 
         proxy.setOnRunListener(this::runExecutor);
         proxy.setOnKillListener(this::killExecutor);
@@ -48,20 +78,48 @@ public class ExecutorManager {
         this(sockAddr, Client.connector);
     }
 
-    private void killExecutor(String uuid) throws IOException {
-        TransactionExecutor executor = execMap.get(uuid);
-        if (executor != null) {
-            logger.trace("disconnect executor uuid={}", uuid);
-            executor.disconnect();
+    private static void registerMBean(Object mbean, String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean,
+                    new ObjectName(name));
+        } catch (JMException | RuntimeException e) {
+            logger.debug("fail to register MBean {} : {}", name, e.toString());
         }
     }
 
-    private void runExecutor(String uuid) {
-        if (execMap.get(uuid) != null) {
-            logger.info(uuid + " already exists");
-            return;
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new InstrumentationCarrier(r, "executor-" + count.incrementAndGet());
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final String uuid;
+        private TransactionExecutor executor;
+        private boolean killed;
+
+        Worker(String uuid) {
+            this.uuid = uuid;
+        }
+
+        synchronized void kill() throws IOException {
+            killed = true;
+            if (executor != null) {
+                logger.trace("disconnect executor uuid={}", uuid);
+                executor.disconnect();
+            }
         }
-        Thread th = new Thread(() -> {
+
+        private synchronized boolean setExecutor(TransactionExecutor exec) {
+            executor = exec;
+            return !killed;
+        }
+
+        @Override
+        public void run() {
             try {
                 TransactionExecutor exec = TransactionExecutor.newInstance(
                         connector.connect(execSockAddr),
@@ -69,13 +127,16 @@ public class ExecutorManager {
                         loader,
                         null,
                         null);
-                execMap.put(uuid, exec);
-                exec.connectAndRunLoop();
+                if (setExecutor(exec)) {
+                    exec.connectAndRunLoop();
+                } else {
+                    exec.disconnect();
+                }
             } catch (Exception e) {
                 System.err.println("Executor terminated: " + e);
                 e.printStackTrace();
             } finally {
-                if (execMap.remove(uuid) != null) {
+                if (execMap.remove(uuid, this)) {
                     try {
                         proxy.end(uuid);
                     }
@@ -84,13 +145,60 @@ public class ExecutorManager {
                     }
                 }
             }
-        });
-        th.start();
+        }
+    }
+
+    private void killExecutor(String uuid) throws IOException {
+        Worker worker = execMap.get(uuid);
+        if (worker != null) {
+            worker.kill();
+        }
+    }
+
+    private void runExecutor(String uuid) {
+        Worker worker = new Worker(uuid);
+        if (execMap.putIfAbsent(uuid, worker) != null) {
+            logger.info(uuid + " already exists");
+            return;
+        }
+        workers.execute(worker);
+    }
+
+    /**
+     * Prepares the environment and loads codes before executors are
+     * requested. It shall be called before {@link #run()}.
+     *
+     * @param codePaths paths of code directories to be loaded. Codes are
+     *                  loaded only if they are already transformed.
+     */
+    public void prewarm(Collection<String> codePaths) {
+        long start = System.nanoTime();
+        CommonAvmFactory.warmUp();
+        var conf = new AvmConfiguration();
+        int loaded = 0;
+        for (var codePath : codePaths) {
+            var path = Path.of(codePath);
+            try {
+                var code = Files.readAllBytes(
+                        path.resolve(ExternalState.TRANSFORMED_JAR));
+                if (loader.preload(path.getFileName().toString(), code, conf)) {
+                    loaded++;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.info("fail to preload {} : {}", codePath, e.toString());
+            }
+        }
+        logger.info("prewarm done codes={} elapsed={}ms", loaded,
+                (System.nanoTime() - start) / 1_000_000);
     }
 
     public void run() throws IOException{
         proxy.connect();
-        proxy.handleMessages();
-        proxy.close();
+        try {
+            proxy.handleMessages();
+        } finally {
+            workers.shutdown();
+            proxy.close();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.ipc;
+
+public class InvokeStats implements InvokeStatsMBean {
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram decode = new LatencyHistogram();
+    private final LatencyHistogram run = new LatencyHistogram();
+    private final LatencyHistogram wait = new LatencyHistogram();
+    private final LatencyHistogram reply = new LatencyHistogram();
+
+    void record(long decodeNanos, long runNanos, long waitNanos,
+                long replyNanos) {
+        decode.record(decodeNanos);
+        run.record(runNanos);
+        wait.record(waitNanos);
+        reply.record(replyNanos);
+        total.record(decodeNanos + runNanos + waitNanos + replyNanos);
+    }
+
+    public long getCount() {
+        return total.getCount();
+    }
+
+    public double getTotalMeanMicros() {
+        return total.getMeanMicros();
+    }
+
+    public long getTotalP99Micros() {
+        return total.getPercentileMicros(99);
+    }
+
+    public long[] getTotalHistogram() {
+        return total.getBuckets();
+    }
+
+    public double getDecodeMeanMicros() {
+        return decode.getMeanMicros();
+    }
+
+    public double getRunMeanMicros() {
+        return run.getMeanMicros();
+    }
+
+    public long getRunP99Micros() {
+        return run.getPercentileMicros(99);
+    }
+
+    public long[] getRunHistogram() {
+        return run.getBuckets();
+    }
+
+    public double getWaitMeanMicros() {
+        return wait.getMeanMicros();
+    }
+
+    public long getWaitP99Micros() {
+        return wait.getPercentileMicros(99);
+    }
+
+    public long[] getWaitHistogram() {
+        return wait.getBuckets();
+    }
+
+    public double getReplyMeanMicros() {
+        return reply.getMeanMicros();
+    }
+
+    public void reset() {
+        total.reset();
+        decode.reset();
+        run.reset();
+        wait.reset();
+        reply.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "INVOKE count=" + getCount()
+                + " total=" + total
+                + " decode=" + decode
+                + " run=" + run
+                + " wait=" + wait
+                + " reply=" + reply;
+    }
+}
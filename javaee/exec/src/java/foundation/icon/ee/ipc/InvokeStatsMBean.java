@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.ipc;
+
+/**
+ * Statistics of phases of INVOKE handling. Times of a frame include times
+ * of nested frames handled by the same executor.
+ */
+public interface InvokeStatsMBean {
+    long getCount();
+
+    double getTotalMeanMicros();
+    long getTotalP99Micros();
+    long[] getTotalHistogram();
+
+    /**
+     * Returns mean time for decoding INVOKE message.
+     */
+    double getDecodeMeanMicros();
+
+    /**
+     * Returns mean time for running the frame excluding the time blocked
+     * for messages from the service manager.
+     */
+    double getRunMeanMicros();
+    long getRunP99Micros();
+    long[] getRunHistogram();
+
+    /**
+     * Returns mean time blocked for messages from the service manager
+     * while running the frame.
+     */
+    double getWaitMeanMicros();
+    long getWaitP99Micros();
+    long[] getWaitHistogram();
+
+    /**
+     * Returns mean time for sending RESULT message.
+     */
+    double getReplyMeanMicros();
+
+    void reset();
+}
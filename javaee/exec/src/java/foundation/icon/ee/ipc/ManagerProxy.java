@@ -35,6 +35,10 @@ public class ManagerProxy extends Proxy {
         static final int END = 103;
     }
 
+    static {
+        ProxyStats.getInstance().registerTypes(MsgType.class, "MANAGER_");
+    }
+
     public ManagerProxy(Connection client) {
         super(client);
     }
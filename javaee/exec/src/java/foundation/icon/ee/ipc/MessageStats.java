@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.ipc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class MessageStats implements MessageStatsMBean {
+    private final String name;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    private final LatencyHistogram wait = new LatencyHistogram();
+
+    MessageStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void onSend(long bytes) {
+        sent.increment();
+        bytesSent.add(bytes);
+    }
+
+    void onReceive(long waitNanos) {
+        received.increment();
+        wait.record(waitNanos);
+    }
+
+    void addBytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    void onRoundTrip(long nanos) {
+        roundTrip.record(nanos);
+    }
+
+    boolean isUsed() {
+        return sent.sum() != 0 || received.sum() != 0;
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    public long getRoundTrips() {
+        return roundTrip.getCount();
+    }
+
+    public double getRoundTripMeanMicros() {
+        return roundTrip.getMeanMicros();
+    }
+
+    public long getRoundTripP99Micros() {
+        return roundTrip.getPercentileMicros(99);
+    }
+
+    public long getRoundTripMaxMicros() {
+        return roundTrip.getMaxMicros();
+    }
+
+    public long[] getRoundTripHistogram() {
+        return roundTrip.getBuckets();
+    }
+
+    public long getWaitMicros() {
+        return wait.getSumMicros();
+    }
+
+    public double getWaitMeanMicros() {
+        return wait.getMeanMicros();
+    }
+
+    public long getWaitP99Micros() {
+        return wait.getPercentileMicros(99);
+    }
+
+    public long[] getWaitHistogram() {
+        return wait.getBuckets();
+    }
+
+    public void reset() {
+        sent.reset();
+        received.reset();
+        bytesSent.reset();
+        bytesReceived.reset();
+        roundTrip.reset();
+        wait.reset();
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder(name);
+        sb.append(" sent=").append(getSent()).append('/').append(getBytesSent()).append('B');
+        sb.append(" recv=").append(getReceived()).append('/').append(getBytesReceived()).append('B');
+        if (roundTrip.getCount() != 0) {
+            sb.append(" rtt=").append(roundTrip);
+        }
+        if (wait.getCount() != 0) {
+            sb.append(" wait=").append(wait);
+        }
+        return sb.toString();
+    }
+}
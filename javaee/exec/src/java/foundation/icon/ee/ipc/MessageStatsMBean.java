@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.ipc;
+
+/**
+ * Statistics of a message type.
+ */
+public interface MessageStatsMBean {
+    long getSent();
+    long getReceived();
+    long getBytesSent();
+    long getBytesReceived();
+
+    /**
+     * Returns number of requests which got the reply.
+     */
+    long getRoundTrips();
+    double getRoundTripMeanMicros();
+    long getRoundTripP99Micros();
+    long getRoundTripMaxMicros();
+    long[] getRoundTripHistogram();
+
+    /**
+     * Returns total time blocked for receiving messages of the type.
+     */
+    long getWaitMicros();
+    double getWaitMeanMicros();
+    long getWaitP99Micros();
+    long[] getWaitHistogram();
+
+    void reset();
+}
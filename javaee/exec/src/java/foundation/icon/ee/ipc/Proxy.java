@@ -21,8 +21,8 @@ import foundation.icon.ee.types.Method;
 import foundation.icon.ee.util.MethodPacker;
 import org.msgpack.core.MessageBufferPacker;
 import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessageTypeException;
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.ArrayValue;
 import org.msgpack.value.Value;
 
 import java.io.IOException;
@@ -30,13 +30,20 @@ import java.math.BigInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static org.msgpack.value.ValueType.ARRAY;
-
 public abstract class Proxy {
     private final Connection client;
     private static final Logger logger = LoggerFactory.getLogger(Proxy.class);
     private final MessageUnpacker unpacker;
 
+    private static final int MAX_PENDING_MESSAGES = 1024;
+    private MessageBufferPacker pendingPacker;
+    private int pendingMessages;
+
+    private final ProxyStats stats = ProxyStats.getInstance();
+    private long waitNanos;
+    private int lastType = -1;
+    private long lastReadBytes;
+
     public static class Message {
         public final int type;
         public final Value value;
@@ -57,31 +64,126 @@ public abstract class Proxy {
     }
 
     public Message getNextMessage() throws IOException {
-        Value v = unpacker.unpackValue();
-        if (v.getValueType() != ARRAY) {
-            throw new IOException("should be array type");
-        }
-        ArrayValue a = v.asArrayValue();
-        int type = a.get(0).asIntegerValue().toInt();
-        Value value = a.get(1);
+        int type = getNextMessageType();
+        Value value = unpacker.unpackValue();
         return new Message(type, value);
     }
 
+    /**
+     * Reads the header of the next message and returns its type. The value
+     * of the message shall be consumed from {@link #getUnpacker()} before
+     * reading the next message.
+     */
+    protected int getNextMessageType() throws IOException {
+        flush();
+        // The previous message has been consumed.
+        long readBytes = unpacker.getTotalReadBytes();
+        if (lastType >= 0) {
+            stats.addBytesReceived(lastType, readBytes - lastReadBytes);
+        }
+        lastReadBytes = readBytes;
+        long start = System.nanoTime();
+        int type;
+        try {
+            if (unpacker.unpackArrayHeader() != 2) {
+                throw new IOException("should be array type");
+            }
+            type = unpacker.unpackInt();
+        } catch (MessageTypeException e) {
+            throw new IOException("should be array type", e);
+        }
+        long elapsed = System.nanoTime() - start;
+        waitNanos += elapsed;
+        lastType = type;
+        stats.onReceive(type, elapsed);
+        return type;
+    }
+
+    /**
+     * Returns total time blocked for incoming messages.
+     */
+    protected long getWaitNanos() {
+        return waitNanos;
+    }
+
+    protected ProxyStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Records round trip time of the request.
+     *
+     * @param msgType message type of the request
+     * @param start   {@link System#nanoTime()} before sending the request
+     */
+    protected void recordRoundTrip(int msgType, long start) {
+        stats.onRoundTrip(msgType, System.nanoTime() - start);
+    }
+
+    protected MessageUnpacker getUnpacker() {
+        return unpacker;
+    }
+
     public void sendMessage(int msgType, Object... args) throws IOException {
         MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
         try (packer) {
-            packer.packArrayHeader(2);
-            packer.packInt(msgType);
-            if (args.length == 1) {
-                packObject(args[0], packer);
-            } else {
-                packer.packArrayHeader(args.length);
-                for (Object obj : args) {
-                    packObject(obj, packer);
-                }
+            packMessage(msgType, args, packer);
+        }
+        byte[] msg = packer.toByteArray();
+        stats.onSend(msgType, msg.length);
+        if (pendingMessages > 0) {
+            byte[] pending = takePending();
+            client.sendAll(new byte[][]{pending, msg});
+        } else {
+            client.send(msg);
+        }
+    }
+
+    /**
+     * Queues a message which doesn't need a reply. Queued messages are sent
+     * in order with the next message sent by {@link #sendMessage} or before
+     * blocking for the next incoming message.
+     */
+    protected void postMessage(int msgType, Object... args) throws IOException {
+        if (pendingPacker == null) {
+            pendingPacker = MessagePack.newDefaultBufferPacker();
+        }
+        long written = pendingPacker.getTotalWrittenBytes();
+        packMessage(msgType, args, pendingPacker);
+        stats.onSend(msgType, pendingPacker.getTotalWrittenBytes() - written);
+        pendingMessages++;
+        if (pendingMessages >= MAX_PENDING_MESSAGES) {
+            flush();
+        }
+    }
+
+    /**
+     * Sends queued messages.
+     */
+    public void flush() throws IOException {
+        if (pendingMessages > 0) {
+            client.send(takePending());
+        }
+    }
+
+    private byte[] takePending() {
+        byte[] pending = pendingPacker.toByteArray();
+        pendingPacker.clear();
+        pendingMessages = 0;
+        return pending;
+    }
+
+    private void packMessage(int msgType, Object[] args, MessageBufferPacker packer) throws IOException {
+        packer.packArrayHeader(2);
+        packer.packInt(msgType);
+        if (args.length == 1) {
+            packObject(args[0], packer);
+        } else {
+            packer.packArrayHeader(args.length);
+            for (Object obj : args) {
+                packObject(obj, packer);
             }
         }
-        client.send(packer.toByteArray());
     }
 
     private void packObject(Object obj, MessageBufferPacker packer) throws IOException {
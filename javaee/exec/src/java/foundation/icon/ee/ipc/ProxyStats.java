@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.ipc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * IPC statistics of all proxies in the process.
+ *
+ * Statistics are exposed as MBeans under {@code foundation.icon.ee} domain.
+ * A summary is logged periodically if
+ * {@code foundation.icon.ee.ipc.statsInterval} is set to the interval in
+ * seconds. The summary is logged by executor threads on completion of
+ * invocations, so it's logged through the executor connection like other
+ * logs of the executor.
+ */
+public class ProxyStats {
+    private static final Logger logger = LoggerFactory.getLogger(ProxyStats.class);
+    private static final String DOMAIN = "foundation.icon.ee";
+    private static final String INTERVAL_KEY = "foundation.icon.ee.ipc.statsInterval";
+    private static final int MAX_TYPE = 256;
+
+    private static final ProxyStats instance = new ProxyStats();
+
+    private final AtomicReferenceArray<MessageStats> messages =
+            new AtomicReferenceArray<>(MAX_TYPE);
+    private final InvokeStats invoke = new InvokeStats();
+    private final long intervalNanos;
+    private final AtomicLong nextReport;
+
+    private ProxyStats() {
+        intervalNanos = TimeUnit.SECONDS.toNanos(Long.getLong(INTERVAL_KEY, 0));
+        nextReport = new AtomicLong(System.nanoTime() + intervalNanos);
+        register(invoke, "type=Invoke");
+    }
+
+    public static ProxyStats getInstance() {
+        return instance;
+    }
+
+    private static void register(Object mbean, String properties) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean,
+                    new ObjectName(DOMAIN + ":" + properties));
+        } catch (JMException | RuntimeException e) {
+            logger.debug("[ProxyStats] fail to register MBean {} : {}",
+                    properties, e.toString());
+        }
+    }
+
+    /**
+     * Registers names of message types. Static int fields of the class are
+     * used as names of message types.
+     */
+    void registerTypes(Class<?> msgTypes, String prefix) {
+        for (Field f : msgTypes.getDeclaredFields()) {
+            int mod = f.getModifiers();
+            if (!Modifier.isStatic(mod) || f.getType() != int.class) {
+                continue;
+            }
+            try {
+                f.setAccessible(true);
+                getMessageStats(f.getInt(null), prefix + f.getName());
+            } catch (IllegalAccessException | RuntimeException e) {
+                logger.debug("[ProxyStats] fail to get type {} : {}",
+                        f.getName(), e.toString());
+            }
+        }
+    }
+
+    private MessageStats getMessageStats(int type, String name) {
+        if (type < 0 || type >= MAX_TYPE) {
+            return null;
+        }
+        var ms = messages.get(type);
+        if (ms == null) {
+            if (name == null) {
+                name = "MSG" + type;
+            }
+            ms = new MessageStats(name);
+            if (messages.compareAndSet(type, null, ms)) {
+                register(ms, "type=IPC,name=" + name);
+            } else {
+                ms = messages.get(type);
+            }
+        }
+        return ms;
+    }
+
+    public MessageStats getMessageStats(int type) {
+        return getMessageStats(type, null);
+    }
+
+    public InvokeStats getInvokeStats() {
+        return invoke;
+    }
+
+    void onSend(int type, long bytes) {
+        var ms = getMessageStats(type);
+        if (ms != null) {
+            ms.onSend(bytes);
+        }
+    }
+
+    void onReceive(int type, long waitNanos) {
+        var ms = getMessageStats(type);
+        if (ms != null) {
+            ms.onReceive(waitNanos);
+        }
+    }
+
+    void addBytesReceived(int type, long bytes) {
+        var ms = getMessageStats(type);
+        if (ms != null) {
+            ms.addBytesReceived(bytes);
+        }
+    }
+
+    void onRoundTrip(int type, long nanos) {
+        var ms = getMessageStats(type);
+        if (ms != null) {
+            ms.onRoundTrip(nanos);
+        }
+    }
+
+    /**
+     * Logs summary if the interval is elapsed since the last summary.
+     */
+    void reportIfDue() {
+        if (intervalNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long next = nextReport.get();
+        if (now - next < 0 || !nextReport.compareAndSet(next, now + intervalNanos)) {
+            return;
+        }
+        logger.info("[ProxyStats] {}", this);
+    }
+
+    public void reset() {
+        invoke.reset();
+        for (int i = 0; i < MAX_TYPE; i++) {
+            var ms = messages.get(i);
+            if (ms != null) {
+                ms.reset();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder(invoke.toString());
+        for (int i = 0; i < MAX_TYPE; i++) {
+            var ms = messages.get(i);
+            if (ms != null && ms.isUsed()) {
+                sb.append(" | ").append(ms);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -18,7 +18,8 @@ package foundation.icon.ee.ipc;
 
 import foundation.icon.ee.types.Address;
 import foundation.icon.ee.types.Bytes;
-import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePacker;
+import org.msgpack.core.MessageUnpacker;
 import org.msgpack.value.ArrayValue;
 import org.msgpack.value.Value;
 
@@ -39,11 +40,12 @@ public class TypedObj {
     private static final int ADDRESS = CUSTOM;
     private static final int INT = CUSTOM + 1;
 
-    private final int type;
+    private static final byte[] TRUE = new byte[]{1};
+    private static final byte[] FALSE = new byte[]{0};
+
     private final Object obj;
 
-    private TypedObj(int type, Object value) {
-        this.type = type;
+    private TypedObj(Object value) {
         this.obj = value;
     }
 
@@ -87,113 +89,202 @@ public class TypedObj {
         }
     }
 
+    /**
+     * Decodes a typed object directly from the unpacker without building
+     * an intermediate value tree.
+     */
+    public static Object decodeAny(MessageUnpacker unpacker) throws IOException {
+        if (unpacker.unpackArrayHeader() != 2) {
+            throw new IOException("invalid typed object");
+        }
+        int tag = unpacker.unpackInt();
+        if (tag == NIL) {
+            unpacker.skipValue();
+            return null;
+        } else if (tag == DICT) {
+            int n = unpacker.unpackMapHeader();
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                String key = unpacker.unpackString();
+                map.put(key, decodeAny(unpacker));
+            }
+            return map;
+        } else if (tag == LIST) {
+            int n = unpacker.unpackArrayHeader();
+            Object[] list = new Object[n];
+            for (int i = 0; i < n; i++) {
+                list[i] = decodeAny(unpacker);
+            }
+            return list;
+        } else if (tag == BYTES) {
+            if (unpacker.tryUnpackNil()) {
+                return null;
+            }
+            return unpackRaw(unpacker);
+        } else if (tag == STRING) {
+            return unpacker.unpackString();
+        } else if (tag == BOOL) {
+            byte[] ba = unpackRaw(unpacker);
+            return ba[0] != 0;
+        } else if (tag == ADDRESS) {
+            return new Address(unpackRaw(unpacker));
+        } else if (tag == INT) {
+            return new BigInteger(unpackRaw(unpacker));
+        } else {
+            throw new IOException("not supported tag: " + tag);
+        }
+    }
+
+    static byte[] unpackRaw(MessageUnpacker unpacker) throws IOException {
+        int len = unpacker.unpackBinaryHeader();
+        return unpacker.readPayload(len);
+    }
+
+    /**
+     * Returns a typed object for the value. Unsupported types are reported
+     * here instead of while a message is half written. The value is not
+     * copied, so it must not be changed until the typed object is written.
+     */
     public static TypedObj encodeAny(Object obj) throws IOException {
-        if (obj == null) {
-            return new TypedObj(NIL, null);
+        validate(obj);
+        return new TypedObj(obj);
+    }
+
+    private static void validate(Object obj) throws IOException {
+        if (obj == null || obj instanceof String || obj instanceof Boolean
+                || obj instanceof Address || obj instanceof BigInteger
+                || obj instanceof Byte || obj instanceof Short
+                || obj instanceof Integer || obj instanceof Long
+                || obj instanceof Character || obj instanceof byte[]) {
+            return;
         } else if (obj instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> map = (Map<String, Object>) obj;
-            Map<String, Object> typedMap = new LinkedHashMap<>();
-            for (Map.Entry<String, Object> pair : map.entrySet()) {
-                typedMap.put(pair.getKey(), encodeAny(pair.getValue()));
+            for (Map.Entry<?, ?> pair : ((Map<?, ?>) obj).entrySet()) {
+                if (!(pair.getKey() instanceof String)) {
+                    throw new IOException("not supported key: " + pair.getKey());
+                }
+                validate(pair.getValue());
             }
-            return new TypedObj(DICT, typedMap);
+            return;
         } else if (obj instanceof Object[]) {
-            Object[] arr = (Object[]) obj;
-            Object[] list = new Object[arr.length];
-            int i = 0;
-            for (Object o : arr) {
-                list[i++] = encodeAny(o);
+            for (Object o : (Object[]) obj) {
+                validate(o);
             }
-            return new TypedObj(LIST, list);
-        } else if (obj instanceof byte[]) {
-            return new TypedObj(BYTES, obj);
-        } else if (obj instanceof String) {
-            return new TypedObj(STRING, obj);
-        } else if (obj instanceof Boolean) {
-            boolean o = (Boolean) obj;
-            return new TypedObj(BOOL, o ? new byte[]{1} : new byte[]{0});
-        } else if (obj instanceof Address) {
-            return new TypedObj(ADDRESS, ((Address)obj).toByteArray());
-        } else if (obj instanceof BigInteger) {
-            return new TypedObj(INT, ((BigInteger)obj).toByteArray());
-        } else if (obj instanceof Byte) {
-            var o  = (Byte) obj;
-            return new TypedObj(INT, BigInteger.valueOf(o).toByteArray());
-        } else if (obj instanceof Short) {
-            var o  = (Short) obj;
-            return new TypedObj(INT, BigInteger.valueOf(o).toByteArray());
-        } else if (obj instanceof Integer) {
-            var o  = (Integer) obj;
-            return new TypedObj(INT, BigInteger.valueOf(o).toByteArray());
-        } else if (obj instanceof Long) {
-            var o  = (Long) obj;
-            return new TypedObj(INT, BigInteger.valueOf(o).toByteArray());
-        } else if (obj instanceof Character) {
-            var o  = (Character) obj;
-            return new TypedObj(INT, BigInteger.valueOf(o).toByteArray());
+            return;
         }
         throw new IOException("not supported type: " + obj);
     }
 
     public String toString() {
-        if (type == NIL) {
+        return toString(obj);
+    }
+
+    private static String toString(Object obj) {
+        if (obj == null) {
             return "nil";
-        } else if (type == LIST) {
+        } else if (obj instanceof Object[]) {
             Object[] arr = (Object[]) obj;
-            if (arr.length == 0) {
-                return "[]";
-            } else {
-                StringBuilder sb = new StringBuilder();
-                sb.append("[");
-                sb.append((arr[0] != null) ? arr[0].toString() : null);
-                for (int i = 1; i < arr.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("[");
+            for (int i = 0; i < arr.length; i++) {
+                if (i > 0) {
                     sb.append(", ");
-                    sb.append((arr[i] != null) ? arr[i].toString() : null);
                 }
-                sb.append("]");
-                return sb.toString();
+                sb.append(toString(arr[i]));
             }
-        } else if (type == STRING) {
+            sb.append("]");
+            return sb.toString();
+        } else if (obj instanceof Map) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{");
+            boolean first = true;
+            for (Map.Entry<?, ?> pair : ((Map<?, ?>) obj).entrySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append(pair.getKey()).append("=").append(toString(pair.getValue()));
+            }
+            sb.append("}");
+            return sb.toString();
+        } else if (obj instanceof String) {
             return (String) obj;
-        } else {
-            return Bytes.toHexString(((byte[]) obj));
+        } else if (obj instanceof byte[]) {
+            return Bytes.toHexString((byte[]) obj);
+        } else if (obj instanceof Boolean) {
+            return ((Boolean) obj) ? "01" : "00";
+        } else if (obj instanceof Address) {
+            return Bytes.toHexString(((Address) obj).toByteArray());
+        } else if (obj instanceof BigInteger) {
+            return Bytes.toHexString(((BigInteger) obj).toByteArray());
+        } else if (obj instanceof Number || obj instanceof Character) {
+            return Bytes.toHexString(BigInteger.valueOf(toLong(obj)).toByteArray());
         }
+        return String.valueOf(obj);
     }
 
-    void writeTo(MessageBufferPacker packer) throws IOException {
-        packer.packArrayHeader(2);
-        packer.packInt(type);
-        if (type == NIL) {
+    private static long toLong(Object obj) {
+        if (obj instanceof Character) {
+            return (Character) obj;
+        }
+        return ((Number) obj).longValue();
+    }
+
+    void writeTo(MessagePacker packer) throws IOException {
+        writeAny(obj, packer);
+    }
+
+    private static void writeAny(Object obj, MessagePacker packer) throws IOException {
+        if (obj == null) {
+            packer.packArrayHeader(2);
+            packer.packInt(NIL);
             packer.packNil();
-        } else if (type == DICT) {
+        } else if (obj instanceof Map) {
             @SuppressWarnings("unchecked")
             Map<String, Object> map = (Map<String, Object>) obj;
+            packer.packArrayHeader(2);
+            packer.packInt(DICT);
             packer.packMapHeader(map.size());
             for (Map.Entry<String, Object> pair : map.entrySet()) {
                 packer.packString(pair.getKey());
-                TypedObj to = (TypedObj) pair.getValue();
-                to.writeTo(packer);
+                writeAny(pair.getValue(), packer);
             }
-        } else if (type == LIST) {
+        } else if (obj instanceof Object[]) {
             Object[] arr = (Object[]) obj;
-            if (arr.length == 0) {
-                packer.packArrayHeader(0);
-            } else {
-                packer.packArrayHeader(arr.length);
-                for (Object o : arr) {
-                    TypedObj to = (TypedObj) o;
-                    to.writeTo(packer);
-                }
+            packer.packArrayHeader(2);
+            packer.packInt(LIST);
+            packer.packArrayHeader(arr.length);
+            for (Object o : arr) {
+                writeAny(o, packer);
             }
-        } else if (type == STRING) {
+        } else if (obj instanceof byte[]) {
+            writeBytes(BYTES, (byte[]) obj, packer);
+        } else if (obj instanceof String) {
+            packer.packArrayHeader(2);
+            packer.packInt(STRING);
             packer.packString((String) obj);
-        } else if (type == BOOL || type == BYTES || type == ADDRESS || type == INT) {
-            byte[] ba = (byte[]) obj;
-            packer.packBinaryHeader(ba.length);
-            packer.writePayload(ba);
+        } else if (obj instanceof Boolean) {
+            packer.packArrayHeader(2);
+            packer.packInt(BOOL);
+            packer.packBinaryHeader(1);
+            packer.writePayload(((Boolean) obj) ? TRUE : FALSE);
+        } else if (obj instanceof Address) {
+            writeBytes(ADDRESS, ((Address) obj).toByteArray(), packer);
+        } else if (obj instanceof BigInteger) {
+            writeBytes(INT, ((BigInteger) obj).toByteArray(), packer);
+        } else if (obj instanceof Byte || obj instanceof Short
+                || obj instanceof Integer || obj instanceof Long
+                || obj instanceof Character) {
+            writeBytes(INT, BigInteger.valueOf(toLong(obj)).toByteArray(), packer);
         } else {
-            throw new IOException("not supported type: " + type);
+            // encodeAny accepts only the types above.
+            throw new IOException("not supported type: " + obj);
         }
     }
+
+    private static void writeBytes(int type, byte[] ba, MessagePacker packer) throws IOException {
+        packer.packArrayHeader(2);
+        packer.packInt(type);
+        packer.packBinaryHeader(ba.length);
+        packer.writePayload(ba);
+    }
 }
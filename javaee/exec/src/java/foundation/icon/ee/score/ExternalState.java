@@ -24,12 +24,14 @@ import foundation.icon.ee.types.Result;
 import foundation.icon.ee.types.StepCost;
 import i.RuntimeAssertionError;
 import org.aion.avm.core.IExternalState;
+import org.aion.avm.core.util.ByteArrayWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.function.IntConsumer;
 
@@ -51,6 +53,8 @@ public class ExternalState implements IExternalState {
     private final int nextHash;
     private final byte[] graphHash;
     private int feeProportion;
+    // prefetched values which are not read yet. null value means no value.
+    private final Map<ByteArrayWrapper, byte[]> prefetched = new HashMap<>();
 
     ExternalState(EEProxy proxy, int option, String codePath,
                   FileIO fileIO, byte[] contractID, BigInteger blockHeight,
@@ -145,6 +149,7 @@ public class ExternalState implements IExternalState {
     @Override
     public void putStorage(byte[] key, byte[] value, IntConsumer prevSizeCB) {
         logger.trace("[putStorage] key={} value={}", Bytes.toHexString(key), Bytes.toHexString(value));
+        prefetched.remove(new ByteArrayWrapper(key));
         try {
             proxy.setValue(key, value, prevSizeCB);
         } catch (IOException e) {
@@ -185,6 +190,14 @@ public class ExternalState implements IExternalState {
 
     @Override
     public byte[] getStorage(byte[] key) {
+        if (!prefetched.isEmpty()) {
+            var k = new ByteArrayWrapper(key);
+            if (prefetched.containsKey(k)) {
+                byte[] value = prefetched.remove(k);
+                logger.trace("[getStorage] key={} value={} prefetched", Bytes.toHexString(key), Bytes.toHexString(value));
+                return value;
+            }
+        }
         try {
             byte[] value = proxy.getValue(key);
             logger.trace("[getStorage] key={} value={}", Bytes.toHexString(key), Bytes.toHexString(value));
@@ -195,6 +208,20 @@ public class ExternalState implements IExternalState {
         }
     }
 
+    @Override
+    public void prefetchStorage(byte[][] keys) {
+        try {
+            byte[][] values = proxy.getValues(keys);
+            for (int i = 0; i < keys.length; i++) {
+                logger.trace("[prefetchStorage] key={} value={}", Bytes.toHexString(keys[i]), Bytes.toHexString(values[i]));
+                prefetched.put(new ByteArrayWrapper(keys[i]), values[i]);
+            }
+        } catch (IOException e) {
+            logger.debug("[prefetchStorage] {}", e.getMessage());
+            throw RuntimeAssertionError.unexpected(e);
+        }
+    }
+
     @Override
     public BigInteger getBalance(Address address) {
         try {
@@ -254,6 +281,8 @@ public class ExternalState implements IExternalState {
     @Override
     public Result call(Address address, BigInteger value, long stepLimit,
                        String dataType, Object dataObj) {
+        // called contract may change the storage
+        prefetched.clear();
         try {
             logger.trace("[call] target={} value={} limit={} dataType={} dataObj={} ",
                     address, value, stepLimit, dataType, dataObj);
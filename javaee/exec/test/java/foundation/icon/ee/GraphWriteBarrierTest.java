@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee;
+
+import foundation.icon.ee.score.Loader;
+import foundation.icon.ee.test.Contract;
+import foundation.icon.ee.test.ContractAddress;
+import foundation.icon.ee.test.SimpleTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import score.annotation.External;
+
+import java.util.Arrays;
+
+/**
+ * Writes through the write barriers must be stored with the graph, and a call which writes nothing must leave the stored
+ * graph and the next hash code as they are.
+ */
+public class GraphWriteBarrierTest extends SimpleTest {
+    public static class Score {
+        private static int counter;
+
+        private final int[] ints = new int[4];
+        private final String[] strings = new String[4];
+        private final StringBuilder text = new StringBuilder();
+        private final char[] chars = new char[4];
+
+        @External
+        public void setInt(int i, int v) {
+            ints[i] = v;
+        }
+
+        @External
+        public void setString(int i, String v) {
+            strings[i] = v;
+        }
+
+        @External
+        public void append(String s) {
+            text.append(s);
+        }
+
+        @External
+        public void copyChars(String s, int dstBegin) {
+            s.getChars(0, s.length(), chars, dstBegin);
+        }
+
+        @External
+        public void increment() {
+            counter++;
+        }
+
+        @External
+        public void readOnly() {
+            // Objects are allocated, but the graph isn't written.
+            var sb = new StringBuilder();
+            for (int i : ints) {
+                sb.append(i);
+            }
+            for (String s : strings) {
+                sb.append(s);
+            }
+            sb.append(text).append(counter);
+        }
+
+        @External(readonly = true)
+        public String get() {
+            var sb = new StringBuilder();
+            for (int i : ints) {
+                sb.append(i).append(',');
+            }
+            for (String s : strings) {
+                sb.append(s).append(',');
+            }
+            return sb.append(text).append(',').append(counter).toString();
+        }
+
+        @External(readonly = true)
+        public String getChars() {
+            return new String(chars).replace('\0', '_');
+        }
+    }
+
+    private ContractAddress score;
+
+    // The contract is evicted after each call, so each call loads the graph stored by the previous one.
+    @Override
+    public Loader newLoader() {
+        return new Loader(1);
+    }
+
+    @BeforeEach
+    void deploy() {
+        score = sm.mustDeploy(Score.class);
+    }
+
+    private Contract contract() {
+        return sm.getState().getAccount(score.getAddress()).getContract();
+    }
+
+    private void assertWritten(String expected, String method, Object... params) {
+        var hash = contract().getObjectGraphHash();
+        score.invoke(method, params);
+        Assertions.assertFalse(Arrays.equals(hash, contract().getObjectGraphHash()), method);
+        Assertions.assertEquals(expected, score.query("get").getRet());
+    }
+
+    @Test
+    void writesArePersisted() {
+        assertWritten("0,7,0,0,null,null,null,null,,0", "setInt", 1, 7);
+        assertWritten("0,7,0,0,null,null,s,null,,0", "setString", 2, "s");
+        assertWritten("0,7,0,0,null,null,s,null,ab,0", "append", "ab");
+        assertWritten("0,7,0,0,null,null,s,null,abc,0", "append", "c");
+        assertWritten("0,7,0,0,null,null,s,null,abc,1", "increment");
+        assertWritten("0,7,0,0,null,null,s,null,abc,2", "increment");
+    }
+
+    @Test
+    void writeThroughGetCharsIsPersisted() {
+        var hash = contract().getObjectGraphHash();
+        score.invoke("copyChars", "ab", 1);
+        Assertions.assertFalse(Arrays.equals(hash, contract().getObjectGraphHash()));
+        Assertions.assertEquals("_ab_", score.query("getChars").getRet());
+        score.invoke("copyChars", "c", 3);
+        Assertions.assertEquals("_abc", score.query("getChars").getRet());
+    }
+
+    @Test
+    void readOnlyCallKeepsGraph() {
+        score.invoke("append", "ab");
+        var hash = contract().getObjectGraphHash();
+        int nextHash = contract().getNextHash();
+        score.invoke("readOnly");
+        Assertions.assertArrayEquals(hash, contract().getObjectGraphHash());
+        Assertions.assertEquals(nextHash, contract().getNextHash());
+        Assertions.assertEquals("0,0,0,0,null,null,null,null,ab,0", score.query("get").getRet());
+    }
+}
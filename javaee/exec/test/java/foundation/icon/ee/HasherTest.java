@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee;
+
+import foundation.icon.ee.test.SimpleTest;
+import foundation.icon.ee.test.TransactionException;
+import foundation.icon.ee.types.Status;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import score.Context;
+import score.Hasher;
+import score.annotation.External;
+
+import java.util.Arrays;
+
+public class HasherTest extends SimpleTest {
+    public static class Score {
+        private Hasher h;
+
+        // Hashes msg in parts of the given size, twice to check the reset.
+        @External(readonly = true)
+        public boolean sameHash(String alg, byte[] msg, int part) {
+            var expected = Context.hash(alg, msg);
+            var hasher = Context.newHasher(alg);
+            for (int i = 0; i < 2; i++) {
+                for (int off = 0; off < msg.length; off += part) {
+                    hasher.update(msg, off, Math.min(part, msg.length - off));
+                }
+                if (!Arrays.equals(expected, hasher.digest())) {
+                    return false;
+                }
+            }
+            hasher.update(msg);
+            return Arrays.equals(expected, hasher.digest());
+        }
+
+        @External(readonly = true)
+        public byte[] badRange(byte[] msg, int off, int len) {
+            var hasher = Context.newHasher("sha3-256");
+            hasher.update(msg, off, len);
+            return hasher.digest();
+        }
+
+        @External
+        public void memberHasherBeforeReturn() {
+            h = Context.newHasher("sha3-256");
+        }
+    }
+
+    private static final String[] ALGS = {
+            "sha-256", "sha3-256", "keccak-256", "xxhash-128",
+            "blake2b-128", "blake2b-256"
+    };
+
+    @Test
+    void sameHashAsContextHash() {
+        var score = sm.mustDeploy(Score.class);
+        var msg = new byte[100];
+        for (int i = 0; i < msg.length; i++) {
+            msg[i] = (byte) (i * 7);
+        }
+        for (var alg : ALGS) {
+            for (int part : new int[]{1, 7, 100}) {
+                Assertions.assertEquals(true,
+                        score.query("sameHash", alg, msg, part).getRet());
+            }
+            Assertions.assertEquals(true,
+                    score.query("sameHash", alg, new byte[0], 1).getRet());
+        }
+    }
+
+    @Test
+    void unsupportedAndBadRange() {
+        var score = sm.mustDeploy(Score.class);
+        var e = Assertions.assertThrows(TransactionException.class,
+                () -> score.query("sameHash", "md5", new byte[1], 1));
+        Assertions.assertEquals(Status.UnknownFailure, e.getResult().getStatus());
+        e = Assertions.assertThrows(TransactionException.class,
+                () -> score.query("badRange", new byte[4], 2, 3));
+        Assertions.assertEquals(Status.UnknownFailure, e.getResult().getStatus());
+    }
+
+    @Test
+    void memberHasher() {
+        var score = sm.mustDeploy(Score.class);
+        var e = Assertions.assertThrows(TransactionException.class,
+                () -> score.invoke("memberHasherBeforeReturn"));
+        Assertions.assertEquals(Status.IllegalObjectGraph, e.getResult().getStatus());
+    }
+}
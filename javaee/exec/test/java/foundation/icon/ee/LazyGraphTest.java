@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee;
+
+import foundation.icon.ee.score.Loader;
+import foundation.icon.ee.test.ContractAddress;
+import foundation.icon.ee.test.SimpleTest;
+import foundation.icon.ee.types.Status;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import score.Context;
+import score.annotation.External;
+
+import java.math.BigInteger;
+
+public class LazyGraphTest extends SimpleTest {
+    public static class Score {
+        static class Node {
+            int value;
+            Node next;
+
+            Node(int value, Node next) {
+                this.value = value;
+                this.next = next;
+            }
+        }
+
+        static class Counted extends Node {
+            String label;
+
+            Counted(int value, Node next, String label) {
+                super(value, next);
+                this.label = label;
+            }
+        }
+
+        private Node head;
+        private int size;
+
+        @External
+        public void push(int value) {
+            head = (size % 2 == 0)
+                    ? new Node(value, head)
+                    : new Counted(value, head, "n" + value);
+            size++;
+        }
+
+        @External
+        public void set(int index, int value) {
+            Node n = head;
+            for (int i = 0; i < index; i++) {
+                n = n.next;
+            }
+            n.value = value;
+        }
+
+        @External
+        public void setAndRevert(int index, int value) {
+            set(index, value);
+            Context.revert();
+        }
+
+        @External(readonly = true)
+        public int sum() {
+            int sum = 0;
+            for (Node n = head; n != null; n = n.next) {
+                sum += n.value;
+            }
+            return sum;
+        }
+
+        @External(readonly = true)
+        public int size() {
+            return size;
+        }
+
+        @External(readonly = true)
+        public String label(int index) {
+            Node n = head;
+            for (int i = 0; i < index; i++) {
+                n = n.next;
+            }
+            return (n instanceof Counted) ? ((Counted) n).label : null;
+        }
+    }
+
+    private ContractAddress score;
+
+    @Override
+    public Loader newLoader() {
+        return new Loader(0, true);
+    }
+
+    @BeforeEach
+    void deploy() {
+        score = sm.mustDeploy(Score.class);
+        for (int i = 1; i <= 10; i++) {
+            score.invoke("push", i);
+        }
+    }
+
+    private int query(String method, Object... params) {
+        return ((BigInteger) score.query(method, params).getRet()).intValue();
+    }
+
+    @Test
+    void partialAccess() {
+        Assertions.assertEquals(10, query("size"));
+        Assertions.assertEquals(55, query("sum"));
+        Assertions.assertEquals("n10", score.query("label", 0).getRet());
+        Assertions.assertNull(score.query("label", 1).getRet());
+    }
+
+    @Test
+    void reloadAfterRevert() {
+        score.invoke("set", 3, 100);
+        // The reverted call leaves the loaded graph dirty, so it's loaded again from the stored graph.
+        var res = score.tryInvoke("setAndRevert", 5, 1000);
+        Assertions.assertEquals(Status.UserReversionStart, res.getStatus());
+        Assertions.assertEquals(10, query("size"));
+        Assertions.assertEquals(55 - 7 + 100, query("sum"));
+        score.invoke("set", 9, 0);
+        Assertions.assertEquals(55 - 7 + 100 - 1, query("sum"));
+        Assertions.assertEquals("n8", score.query("label", 2).getRet());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee;
+
+import foundation.icon.ee.test.ContractAddress;
+import foundation.icon.ee.test.SimpleTest;
+import foundation.icon.ee.types.Status;
+import org.aion.avm.core.IExternalState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import score.annotation.External;
+
+/**
+ * Private leaf methods are accounted for by their callers, public ones enter their own frame.  Both must hit the stack
+ * limits at the same recursion depth, also without the revision which elides the leaves.
+ */
+public class LeafMethodTest extends SimpleTest {
+    public static class Score {
+        private static int privateLeaf(int a) {
+            return a * 3 + 1;
+        }
+
+        public static int publicLeaf(int a) {
+            return a * 3 + 1;
+        }
+
+        private static long privateWideLeaf(long a) {
+            long b = a + 1;
+            long c = b * 2;
+            long d = c ^ a;
+            long e = d + b;
+            long f = e * c;
+            long g = f - a;
+            long h = g | d;
+            return h + e;
+        }
+
+        public static long publicWideLeaf(long a) {
+            long b = a + 1;
+            long c = b * 2;
+            long d = c ^ a;
+            long e = d + b;
+            long f = e * c;
+            long g = f - a;
+            long h = g | d;
+            return h + e;
+        }
+
+        // Depth bound
+        private static int deepPrivate(int n) {
+            if (n == 0) {
+                return privateLeaf(0);
+            }
+            return deepPrivate(n - 1) + privateLeaf(n);
+        }
+
+        private static int deepPublic(int n) {
+            if (n == 0) {
+                return publicLeaf(0);
+            }
+            return deepPublic(n - 1) + publicLeaf(n);
+        }
+
+        // Size bound, with a leaf frame larger than the frame of the recursion
+        private static long widePrivate(int n, long a, long b, long c) {
+            if (n == 0) {
+                return privateWideLeaf(a);
+            }
+            return widePrivate(n - 1, b, c, a) + privateWideLeaf(c);
+        }
+
+        private static long widePublic(int n, long a, long b, long c) {
+            if (n == 0) {
+                return publicWideLeaf(a);
+            }
+            return widePublic(n - 1, b, c, a) + publicWideLeaf(c);
+        }
+
+        @External(readonly = true)
+        public int deep(boolean leaf, int n) {
+            return leaf ? deepPrivate(n) : deepPublic(n);
+        }
+
+        @External(readonly = true)
+        public long wide(boolean leaf, int n) {
+            return leaf ? widePrivate(n, 1, 2, 3) : widePublic(n, 1, 2, 3);
+        }
+    }
+
+    private ContractAddress score;
+
+    @BeforeEach
+    void deploy() {
+        score = sm.mustDeploy(Score.class);
+    }
+
+    // Finds the largest n for which the method succeeds.
+    private int maxDepth(String method, boolean leaf) {
+        int lo = 0;
+        int hi = 2000;
+        Assertions.assertEquals(Status.Success, score.tryInvoke(method, leaf, lo).getStatus());
+        Assertions.assertEquals(Status.StackOverflow, score.tryInvoke(method, leaf, hi).getStatus());
+        while (hi - lo > 1) {
+            int mid = (lo + hi) / 2;
+            if (Status.Success == score.tryInvoke(method, leaf, mid).getStatus()) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        Assertions.assertEquals(Status.StackOverflow, score.tryInvoke(method, leaf, hi).getStatus());
+        return lo;
+    }
+
+    @Test
+    void sameDepthLimit() {
+        Assertions.assertEquals(maxDepth("deep", false), maxDepth("deep", true));
+    }
+
+    @Test
+    void sameSizeLimit() {
+        Assertions.assertEquals(maxDepth("wide", false), maxDepth("wide", true));
+    }
+
+    @Test
+    void sameLimitsWithoutCompactInstrumentation() {
+        sm.unsetRevisionFlag(IExternalState.REVISION_COMPACT_INSTRUMENTATION);
+        score = sm.mustDeploy(Score.class);
+        Assertions.assertEquals(maxDepth("deep", false), maxDepth("deep", true));
+        Assertions.assertEquals(maxDepth("wide", false), maxDepth("wide", true));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee;
+
+import foundation.icon.ee.test.ContractAddress;
+import foundation.icon.ee.test.SimpleTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import score.Address;
+import score.Context;
+import score.RevertedException;
+import score.annotation.External;
+
+import java.math.BigInteger;
+
+public class ReentrantSnapshotTest extends SimpleTest {
+    public static class Router {
+        static class Holder {
+            int count;
+        }
+
+        private int value;
+        private final Holder holder = new Holder();
+
+        @External
+        public void route(Address pool, int n) {
+            for (int i = 0; i < n; i++) {
+                Context.call(pool, "swap");
+            }
+        }
+
+        @External
+        public void routeWithCallback(Address pool) {
+            Context.call(pool, "swap");
+            Context.call(pool, "callback");
+            Context.call(pool, "swap");
+        }
+
+        @External
+        public void routeWithFailedCallback(Address pool) {
+            holder.count += 10;
+            try {
+                Context.call(pool, "failedCallback");
+            } catch (RevertedException e) {
+                // ignore
+            }
+            Context.call(pool, "swap");
+        }
+
+        @External
+        public void inc() {
+            value++;
+            holder.count++;
+        }
+
+        @External
+        public void incAndRevert() {
+            inc();
+            Context.revert();
+        }
+
+        @External(readonly = true)
+        public int get() {
+            return value * 1000 + holder.count;
+        }
+    }
+
+    public static class Pool {
+        private int swaps;
+
+        @External
+        public void swap() {
+            swaps++;
+        }
+
+        @External
+        public void callback() {
+            Context.call(Context.getCaller(), "inc");
+        }
+
+        @External
+        public void failedCallback() {
+            Context.call(Context.getCaller(), "incAndRevert");
+        }
+
+        @External(readonly = true)
+        public int getSwaps() {
+            return swaps;
+        }
+    }
+
+    private ContractAddress router;
+    private ContractAddress pool;
+
+    @BeforeEach
+    void deploy() {
+        router = sm.mustDeploy(Router.class);
+        pool = sm.mustDeploy(Pool.class);
+    }
+
+    private int query(ContractAddress score, String method) {
+        return ((BigInteger) score.query(method).getRet()).intValue();
+    }
+
+    @Test
+    void unchangedCaller() {
+        router.invoke("route", pool.getAddress(), 3);
+        Assertions.assertEquals(3, query(pool, "getSwaps"));
+        Assertions.assertEquals(0, query(router, "get"));
+    }
+
+    @Test
+    void callbackChangesCaller() {
+        router.invoke("routeWithCallback", pool.getAddress());
+        Assertions.assertEquals(2, query(pool, "getSwaps"));
+        Assertions.assertEquals(1001, query(router, "get"));
+        router.invoke("routeWithCallback", pool.getAddress());
+        Assertions.assertEquals(2002, query(router, "get"));
+    }
+
+    @Test
+    void failedCallbackIsRolledBack() {
+        router.invoke("routeWithFailedCallback", pool.getAddress());
+        Assertions.assertEquals(1, query(pool, "getSwaps"));
+        Assertions.assertEquals(10, query(router, "get"));
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee;
+
+import foundation.icon.ee.test.ContractAddress;
+import foundation.icon.ee.test.SimpleTest;
+import foundation.icon.ee.types.Status;
+import foundation.icon.ee.util.Crypto;
+import org.aion.avm.RuntimeMethodFeeSchedule;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import score.Context;
+import score.annotation.External;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+public class VerifySignaturesTest extends SimpleTest {
+    public static class Score {
+        // Returns the results of verifySignatures, followed by whether they
+        // are the same as the ones of verifySignature.
+        @External(readonly = true)
+        public boolean[] verify(String alg, byte[][] msgs, byte[][] sigs,
+                byte[][] pubKeys) {
+            var res = Context.verifySignatures(alg, msgs, sigs, pubKeys);
+            var ret = new boolean[res.length + 1];
+            ret[res.length] = res.length == msgs.length;
+            for (int i = 0; i < res.length; i++) {
+                ret[i] = res[i];
+                if (res[i] != Context.verifySignature(alg, msgs[i], sigs[i], pubKeys[i])) {
+                    ret[res.length] = false;
+                }
+            }
+            return ret;
+        }
+
+        private static boolean fails(String alg, Object[] msgs, Object[] sigs,
+                Object[] pubKeys) {
+            try {
+                Context.verifySignatures(alg, msgs, sigs, pubKeys);
+            } catch (IllegalArgumentException e) {
+                return true;
+            }
+            return false;
+        }
+
+        @External(readonly = true)
+        public boolean failsFor(String alg, byte[][] msgs, byte[][] sigs,
+                byte[][] pubKeys) {
+            return fails(alg, msgs, sigs, pubKeys);
+        }
+
+        @External
+        public void tryVerify(String alg, byte[][] msgs, byte[][] sigs,
+                byte[][] pubKeys) {
+            fails(alg, msgs, sigs, pubKeys);
+        }
+
+        @External
+        public void tryVerifyWithNonByteArray(int index, byte[][] msgs,
+                byte[][] sigs, byte[][] pubKeys) {
+            var objs = new Object[msgs.length];
+            for (int i = 0; i < msgs.length; i++) {
+                objs[i] = msgs[i];
+            }
+            objs[index] = "not bytes";
+            fails("ed25519", objs, sigs, pubKeys);
+        }
+
+        @External(readonly = true)
+        public boolean failsForNonByteArray(byte[] msg, byte[] sig, byte[] pubKey) {
+            return fails("ed25519", new Object[]{msg, "not bytes"},
+                    new Object[]{sig, sig}, new Object[]{pubKey, pubKey});
+        }
+    }
+
+    private static final int N = 20;
+    private static final X9ECParameters SECP256K1 =
+            CustomNamedCurves.getByName("secp256k1");
+
+    private final Random random = new Random(1);
+
+    private byte[] randomBytes(int len) {
+        var b = new byte[len];
+        random.nextBytes(b);
+        return b;
+    }
+
+    private byte[][][] ed25519Inputs() {
+        var msgs = new byte[N][];
+        var sigs = new byte[N][];
+        var pks = new byte[N][];
+        for (int i = 0; i < N; i++) {
+            var sk = randomBytes(Ed25519.SECRET_KEY_SIZE);
+            pks[i] = new byte[Ed25519.PUBLIC_KEY_SIZE];
+            Ed25519.generatePublicKey(sk, 0, pks[i], 0);
+            msgs[i] = randomBytes(i * 3);
+            sigs[i] = new byte[Ed25519.SIGNATURE_SIZE];
+            Ed25519.sign(sk, 0, msgs[i], 0, msgs[i].length, sigs[i], 0);
+        }
+        return new byte[][][]{msgs, sigs, pks};
+    }
+
+    private byte[][][] secp256k1Inputs() {
+        var domain = new ECDomainParameters(SECP256K1.getCurve(),
+                SECP256K1.getG(), SECP256K1.getN(), SECP256K1.getH());
+        var msgs = new byte[N][];
+        var sigs = new byte[N][];
+        var pks = new byte[N][];
+        for (int i = 0; i < N; i++) {
+            var d = new BigInteger(1, randomBytes(32)).mod(SECP256K1.getN());
+            pks[i] = SECP256K1.getG().multiply(d).getEncoded(i % 2 == 0);
+            msgs[i] = randomBytes(32);
+            var signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+            signer.init(true, new ECPrivateKeyParameters(d, domain));
+            var rs = signer.generateSignature(msgs[i]);
+            var sig = new byte[65];
+            BigIntegers.asUnsignedByteArray(rs[0], sig, 0, 32);
+            BigIntegers.asUnsignedByteArray(rs[1], sig, 32, 32);
+            for (byte recId = 0; recId < 4; recId++) {
+                sig[64] = recId;
+                if (Arrays.equals(pks[i], Crypto.recoverKey(msgs[i], sig, i % 2 == 0))) {
+                    break;
+                }
+            }
+            sigs[i] = sig;
+        }
+        return new byte[][][]{msgs, sigs, pks};
+    }
+
+    private void verify(String alg, byte[][][] in) {
+        var score = sm.mustDeploy(Score.class);
+        // break some of them
+        in[0][3] = in[0][4];
+        in[2][7] = in[2][9];
+        in[2][11] = in[2][13];
+        var expected = new boolean[N + 1];
+        Arrays.fill(expected, true);
+        expected[3] = expected[7] = expected[11] = false;
+        var ret = (Object[]) score.query("verify", alg, in[0], in[1], in[2]).getRet();
+        Assertions.assertEquals(expected.length, ret.length);
+        for (int i = 0; i < ret.length; i++) {
+            Assertions.assertEquals(expected[i], ret[i], "index " + i);
+        }
+    }
+
+    @Test
+    void ed25519() {
+        verify("ed25519", ed25519Inputs());
+    }
+
+    @Test
+    void secp256k1() {
+        verify("ecdsa-secp256k1", secp256k1Inputs());
+    }
+
+    @Test
+    void invalidArguments() {
+        var score = sm.mustDeploy(Score.class);
+        var in = ed25519Inputs();
+        Assertions.assertEquals(false,
+                score.query("failsFor", "ed25519", in[0], in[1], in[2]).getRet());
+        Assertions.assertEquals(true,
+                score.query("failsFor", "md5", in[0], in[1], in[2]).getRet());
+        Assertions.assertEquals(true,
+                score.query("failsFor", "ed25519", in[0], in[1], new byte[][]{in[2][0]}).getRet());
+        in[1][9] = new byte[10];
+        Assertions.assertEquals(true,
+                score.query("failsFor", "ed25519", in[0], in[1], in[2]).getRet());
+        Assertions.assertEquals(true,
+                score.query("failsForNonByteArray", in[0][0], in[1][0], in[2][0]).getRet());
+    }
+
+    @Test
+    void stepsAreChargedUpToFailure() {
+        var score = sm.mustDeploy(Score.class);
+        var in = ed25519Inputs();
+        var sig5 = in[1][5];
+        in[1][5] = new byte[10];
+        var res5 = score.invoke("tryVerify", "ed25519", in[0], in[1], in[2]);
+        in[1][5] = sig5;
+        in[1][10] = new byte[10];
+        var res10 = score.invoke("tryVerify", "ed25519", in[0], in[1], in[2]);
+        long expected = 0;
+        for (int i = 6; i <= 10; i++) {
+            expected += RuntimeMethodFeeSchedule.BlockchainRuntime_avm_verifySignature
+                    + RuntimeMethodFeeSchedule.BlockchainRuntime_avm_verifySignature_per_bytes
+                    * in[0][i].length;
+        }
+        Assertions.assertEquals(expected,
+                res10.getStepUsed().subtract(res5.getStepUsed()).longValue());
+    }
+
+    private void assertStepsPayUpToFailure(ContractAddress score, String method,
+            Object... params) {
+        // The steps pay for the signatures up to the failing one, so the
+        // failure is thrown although the later ones can't be paid for.
+        var stepUsed = score.invoke(method, params).getStepUsed();
+        var res = score.invoke(BigInteger.ZERO, stepUsed, method, params);
+        Assertions.assertEquals(stepUsed, res.getStepUsed());
+        res = score.tryInvoke(BigInteger.ZERO, stepUsed.subtract(BigInteger.ONE),
+                method, params);
+        Assertions.assertEquals(Status.OutOfStep, res.getStatus());
+    }
+
+    @Test
+    void failureInPartiallyChargedBatch() {
+        var score = sm.mustDeploy(Score.class);
+        var in = ed25519Inputs();
+        assertStepsPayUpToFailure(score, "tryVerifyWithNonByteArray", 5,
+                in[0], in[1], in[2]);
+        in[1][5] = new byte[10];
+        assertStepsPayUpToFailure(score, "tryVerify", "ed25519",
+                in[0], in[1], in[2]);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.ipc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+// ChannelClient only needs a connected SocketChannel, so a loopback TCP
+// pair stands in for the UNIX domain socket.
+public class ChannelClientTest {
+    private ChannelClient client;
+    private SocketChannel peer;
+
+    @BeforeEach
+    void connect() throws IOException {
+        try (var server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            var ch = SocketChannel.open(server.getLocalAddress());
+            peer = server.accept();
+            client = new ChannelClient(ch);
+        }
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        client.close();
+        peer.close();
+    }
+
+    private static byte[] bytes(int len, int seed) {
+        var b = new byte[len];
+        for (int i = 0; i < len; i++) {
+            b[i] = (byte) (i * 31 + seed);
+        }
+        return b;
+    }
+
+    private byte[] readFromPeer(int len) throws IOException {
+        var bb = ByteBuffer.allocate(len);
+        while (bb.hasRemaining()) {
+            Assertions.assertTrue(peer.read(bb) >= 0, "unexpected EOF");
+        }
+        return bb.array();
+    }
+
+    private static byte[] readFully(InputStream in, int len, int chunk)
+            throws IOException {
+        var b = new byte[len];
+        int off = 0;
+        while (off < len) {
+            int n = in.read(b, off, Math.min(chunk, len - off));
+            Assertions.assertTrue(n > 0, "unexpected EOF");
+            off += n;
+        }
+        return b;
+    }
+
+    @Test
+    void sendSmallAndLarge() throws IOException {
+        var small = bytes(100, 1);
+        // larger than the write buffer, so it's written with the buffered
+        // data in a gathering write
+        var large = bytes(3 * DirectBufferPool.BUFFER_SIZE + 17, 2);
+        client.send(small);
+        Assertions.assertArrayEquals(small, readFromPeer(small.length));
+
+        var writer = new Thread(() -> {
+            try {
+                client.sendAll(new byte[][]{small, large, small});
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        Assertions.assertArrayEquals(small, readFromPeer(small.length));
+        Assertions.assertArrayEquals(large, readFromPeer(large.length));
+        Assertions.assertArrayEquals(small, readFromPeer(small.length));
+        Assertions.assertDoesNotThrow(() -> writer.join());
+    }
+
+    @Test
+    void receivePartialWrites() throws Exception {
+        var data = bytes(2 * DirectBufferPool.BUFFER_SIZE + 5, 3);
+        var writer = new Thread(() -> {
+            try {
+                // dribble the data in uneven pieces
+                int off = 0;
+                int piece = 1;
+                while (off < data.length) {
+                    int n = Math.min(piece, data.length - off);
+                    peer.write(ByteBuffer.wrap(data, off, n));
+                    off += n;
+                    piece = piece * 3 + 1;
+                    Thread.sleep(1);
+                }
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+        var in = client.getInputStream();
+        Assertions.assertEquals(data[0] & 0xff, in.read());
+        var rest = readFully(in, data.length - 1, 4000);
+        Assertions.assertArrayEquals(Arrays.copyOfRange(data, 1, data.length), rest);
+        writer.join();
+    }
+
+    @Test
+    void eof() throws IOException {
+        var data = bytes(10, 4);
+        peer.write(ByteBuffer.wrap(data));
+        peer.shutdownOutput();
+        var in = client.getInputStream();
+        Assertions.assertArrayEquals(data, readFully(in, data.length, 3));
+        Assertions.assertEquals(-1, in.read());
+        Assertions.assertEquals(-1, in.read(new byte[4], 0, 4));
+    }
+
+    @Test
+    void closed() throws IOException {
+        client.close();
+        Assertions.assertThrows(IOException.class, () -> client.send(new byte[1]));
+        Assertions.assertThrows(IOException.class,
+                () -> client.getInputStream().read());
+        // closing again is harmless
+        client.close();
+    }
+}
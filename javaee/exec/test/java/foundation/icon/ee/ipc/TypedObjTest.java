@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.ipc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TypedObjTest {
+    private static Object roundTrip(TypedObj to) throws IOException {
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        to.writeTo(packer);
+        packer.close();
+        return TypedObj.decodeAny(
+                MessagePack.newDefaultUnpacker(packer.toByteArray()));
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("int", BigInteger.valueOf(-300));
+        map.put("str", "hello");
+        map.put("list", new Object[]{true, null, new byte[]{1, 2}});
+        var res = roundTrip(TypedObj.encodeAny(map));
+        Assertions.assertEquals(TypedObj.encodeAny(map).toString(),
+                TypedObj.encodeAny(res).toString());
+    }
+
+    @Test
+    void unsupportedTypeIsRejected() {
+        Assertions.assertThrows(IOException.class,
+                () -> TypedObj.encodeAny(new Object[]{1, 1.5}));
+        Map<Object, Object> map = new HashMap<>();
+        map.put(1, "one");
+        Assertions.assertThrows(IOException.class,
+                () -> TypedObj.encodeAny(map));
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("list", new Object[]{"a", new Object[]{new int[]{1}}});
+        Assertions.assertThrows(IOException.class,
+                () -> TypedObj.encodeAny(nested));
+    }
+}
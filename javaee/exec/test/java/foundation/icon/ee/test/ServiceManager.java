@@ -70,7 +70,8 @@ public class ServiceManager implements Agent {
         ));
         info.put(Info.STEP_COSTS, stepCosts);
         long revision = IExternalState.REVISION_PURGE_ENUM_CACHE |
-                IExternalState.REVISION_FIX_MAP_VALUES;
+                IExternalState.REVISION_FIX_MAP_VALUES |
+                IExternalState.REVISION_COMPACT_INSTRUMENTATION;
         info.put(Info.REVISION, revision);
         stepCost = new StepCost(stepCosts);
     }
@@ -287,6 +288,18 @@ public class ServiceManager implements Agent {
                     proxy.sendMessage(EEProxy.MsgType.GETVALUE, value!=null, value);
                     break;
                 }
+                case EEProxy.MsgType.GETVALUES: {
+                    var keys = msg.value.asArrayValue();
+                    var values = new Object[keys.size()];
+                    for (int i = 0; i < keys.size(); i++) {
+                        var key = keys.get(i).asRawValue().asByteArray();
+                        var value = context.getStorage(key);
+                        printf("RECV getValue %s => %s%n", key, value);
+                        values[i] = new Object[]{value!=null, value};
+                    }
+                    proxy.sendMessage(EEProxy.MsgType.GETVALUES, (Object) values);
+                    break;
+                }
                 case EEProxy.MsgType.SETVALUE: {
                     var data = msg.value.asArrayValue();
                     var key = data.get(0).asRawValue().asByteArray();
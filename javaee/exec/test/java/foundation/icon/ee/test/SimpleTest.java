@@ -2,8 +2,10 @@ package foundation.icon.ee.test;
 
 import foundation.icon.ee.ipc.Connection;
 import foundation.icon.ee.logger.EELogger;
+import foundation.icon.ee.score.Loader;
 import foundation.icon.ee.score.TransactionExecutor;
 import foundation.icon.ee.tooling.deploy.OptimizedJarBuilder;
+import i.InstrumentationCarrier;
 import org.aion.avm.core.AvmConfiguration;
 import org.aion.avm.utilities.JarBuilder;
 import org.junit.jupiter.api.AfterAll;
@@ -19,6 +21,7 @@ import java.nio.file.Paths;
 
 public class SimpleTest {
     protected ServiceManager sm;
+    protected Loader loader;
 
     private static int prevLogLevel;
 
@@ -31,19 +34,20 @@ public class SimpleTest {
     public void setUp() {
         var pipes = Pipe.createPair();
         sm = newServiceManager(pipes[0]);
-        Thread th = new Thread(() -> {
+        loader = newLoader();
+        Thread th = new InstrumentationCarrier(() -> {
             try {
                 var conf = newAvmConfiguration();
                 var te = TransactionExecutor.newInstance(pipes[1],
                         "",
-                        null,
+                        loader,
                         sm.getFileIO(),
                         conf);
                 te.connectAndRunLoop(sm);
             } catch (IOException e) {
                 System.out.println(e);
             }
-        });
+        }, "executor");
         th.start();
     }
 
@@ -51,6 +55,10 @@ public class SimpleTest {
         return new ServiceManager(conn, false);
     }
 
+    public Loader newLoader() {
+        return null;
+    }
+
     public AvmConfiguration newAvmConfiguration() {
         var conf = new AvmConfiguration();
         conf.testMode = true;
@@ -61,19 +69,19 @@ public class SimpleTest {
     public void createAndAcceptNewJAVAEE() {
         var pipes = Pipe.createPair();
         sm.accept(pipes[0]);
-        Thread th = new Thread(() -> {
+        Thread th = new InstrumentationCarrier(() -> {
             try {
                 var conf = newAvmConfiguration();
                 var te = TransactionExecutor.newInstance(pipes[1],
                         "",
-                        null,
+                        loader,
                         sm.getFileIO(),
                         conf);
                 te.connectAndRunLoop(sm);
             } catch (IOException e) {
                 System.out.println(e);
             }
-        });
+        }, "executor");
         th.start();
     }
 
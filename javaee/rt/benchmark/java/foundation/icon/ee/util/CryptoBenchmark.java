@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.util;
+
+import foundation.icon.ee.util.xxhash.XxHash;
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.bouncycastle.jcajce.provider.digest.Keccak;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Measures {@link Crypto#hash} for each supported algorithm at 32B, 1KB and
+ * 64KB inputs, with the pooled engines (array, offset and direct buffer
+ * input) and with an engine created for each hash.
+ *
+ * Usage: CryptoBenchmark [milliseconds per run]
+ */
+public class CryptoBenchmark {
+    private static final String[] ALGS = {
+            "sha-256", "sha3-256", "keccak-256", "xxhash-128",
+            "blake2b-128", "blake2b-256"
+    };
+    private static final int[] SIZES = {32, 1024, 64 * 1024};
+
+    private interface Hasher {
+        byte[] hash(String alg);
+    }
+
+    // Creates the engine for each hash, as Crypto did before pooling.
+    private static byte[] hashWithNewEngine(String alg, byte[] msg)
+            throws NoSuchAlgorithmException {
+        switch (alg) {
+            case "sha-256":
+                return MessageDigest.getInstance("SHA-256").digest(msg);
+            case "sha3-256":
+                return MessageDigest.getInstance("SHA3-256").digest(msg);
+            case "keccak-256":
+                return new Keccak.Digest256().digest(msg);
+            case "xxhash-128":
+                return XxHash.hash128(msg);
+            case "blake2b-128":
+            case "blake2b-256": {
+                int bits = alg.endsWith("128") ? 128 : 256;
+                var digest = new Blake2bDigest(bits);
+                digest.update(msg, 0, msg.length);
+                var res = new byte[bits / 8];
+                digest.doFinal(res, 0);
+                return res;
+            }
+        }
+        throw new IllegalArgumentException(alg);
+    }
+
+    private static int sink;
+
+    private static double run(String alg, Hasher h, long millis) {
+        long n = 0;
+        long start = System.nanoTime();
+        long deadline = start + millis * 1_000_000;
+        long now;
+        do {
+            for (int i = 0; i < 64; i++) {
+                sink += h.hash(alg)[0];
+            }
+            n += 64;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return (now - start) / (double) n;
+    }
+
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        System.out.printf("%-12s %7s %12s %12s %12s %12s%n", "alg", "size",
+                "new engine", "array", "offset", "direct");
+        for (var alg : ALGS) {
+            for (int size : SIZES) {
+                var msg = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    msg[i] = (byte) (i * 31 + 7);
+                }
+                var padded = new byte[size + 16];
+                System.arraycopy(msg, 0, padded, 8, size);
+                var direct = ByteBuffer.allocateDirect(size);
+                direct.put(msg).flip();
+
+                Hasher newEngine = a -> {
+                    try {
+                        return hashWithNewEngine(a, msg);
+                    } catch (NoSuchAlgorithmException e) {
+                        throw new AssertionError(e);
+                    }
+                };
+                Hasher array = a -> Crypto.hash(a, msg);
+                Hasher offset = a -> Crypto.hash(a, padded, 8, size);
+                Hasher buffer = a -> Crypto.hash(a, direct.rewind());
+                // warm up
+                for (var h : new Hasher[]{newEngine, array, offset, buffer}) {
+                    run(alg, h, millis / 2);
+                }
+                System.out.printf("%-12s %7d %9.1f ns %9.1f ns %9.1f ns %9.1f ns%n",
+                        alg, size,
+                        run(alg, newEngine, millis), run(alg, array, millis),
+                        run(alg, offset, millis), run(alg, buffer, millis));
+            }
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
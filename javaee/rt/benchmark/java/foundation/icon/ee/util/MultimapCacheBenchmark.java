@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures contention of {@link MultimapCache} when executor threads take
+ * and return DApps as {@code Loader} does.
+ *
+ * Usage: MultimapCacheBenchmark [seconds per run]
+ *
+ * Run it on a machine with enough cores to see the contention.
+ */
+public class MultimapCacheBenchmark {
+    private static final int CAP = 256;
+    private static final int CODES = 128;
+
+    private static double run(int threads, int stripes, long millis)
+            throws InterruptedException {
+        var cache = MultimapCache.<String, Object>newSoftCache(CAP, stripes);
+        var codes = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            codes[i] = String.format("cx%040x", i * 0x9e3779b97f4a7c15L);
+            cache.put(codes[i], new Object());
+        }
+        var ops = new LongAdder();
+        var start = new CountDownLatch(1);
+        var workers = new Thread[threads];
+        var deadline = new long[1];
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int i = seed * 31;
+                long n = 0;
+                while ((n & 0xff) != 0 || System.nanoTime() < deadline[0]) {
+                    var code = codes[(i++ * 7) % CODES];
+                    var dapp = cache.remove(code, o -> true);
+                    cache.put(code, dapp != null ? dapp : new Object());
+                    n++;
+                }
+                ops.add(n);
+            });
+            workers[t].start();
+        }
+        deadline[0] = System.nanoTime() + millis * 1_000_000;
+        start.countDown();
+        for (var w : workers) {
+            w.join();
+        }
+        return ops.sum() / (double) millis;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = (args.length > 0 ? Long.parseLong(args[0]) : 2) * 1000;
+        // warm up
+        run(4, 1, millis / 2);
+        run(4, 16, millis / 2);
+        System.out.printf("%8s %14s %14s%n", "threads", "1 stripe", "16 stripes");
+        for (int threads : new int[]{1, 8, 16, 32}) {
+            double single = run(threads, 1, millis);
+            double striped = run(threads, 16, millis);
+            System.out.printf("%8d %10.0f/ms %10.0f/ms%n", threads, single,
+                    striped);
+        }
+        // reference queue of the cache uses a non-daemon thread
+        System.exit(0);
+    }
+}
@@ -0,0 +1,187 @@
+package org.aion.avm.core.persistence;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import i.IObjectDeserializer;
+import i.IObjectSerializer;
+
+
+/**
+ * Compares the accessors generated by {@link ClassAccessorGenerator} with the reflective path of {@link Serializer}
+ * and {@link Deserializer} on large graphs.
+ *
+ * The target classes are loaded twice, once with the generated accessors and once as they are.
+ * Note that the targets are not shadow objects, so serializeSelf is invoked reflectively in both cases and only the
+ * instance fields, the statics and the instance construction differ.
+ *
+ * Usage: PersistenceBenchmark [objects] [iterations]
+ */
+public class PersistenceBenchmark {
+    private static final String[] TARGETS = {TargetLeaf.class.getName(), TargetRoot.class.getName()};
+
+    private static final class TargetLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        TargetLoader(Map<String, byte[]> classes) {
+            super(PersistenceBenchmark.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (null == c) {
+                    byte[] bytes = this.classes.get(name);
+                    if (null == bytes) {
+                        return super.loadClass(name, resolve);
+                    }
+                    c = defineClass(name, bytes, 0, bytes.length);
+                }
+                if (resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+    }
+
+    private static final class Resolver implements IGlobalResolver {
+        @Override
+        public String getAsInternalClassName(Object target) {
+            return null;
+        }
+
+        @Override
+        public int getAsConstant(Object target) {
+            return 0;
+        }
+
+        @Override
+        public Object getClassObjectForInternalName(String internalClassName) {
+            throw new AssertionError(internalClassName);
+        }
+
+        @Override
+        public Object getConstantForIdentifier(int constantIdentifier) {
+            throw new AssertionError(constantIdentifier);
+        }
+    }
+
+    private static final class NameMapper implements IPersistenceNameMapper {
+        @Override
+        public String getStorageClassName(String ourName) {
+            return ourName;
+        }
+
+        @Override
+        public String getInternalClassName(String storageClassName) {
+            return storageClassName;
+        }
+    }
+
+    private static final class EmptyConstantClass {
+    }
+
+    private static class Target {
+        final SortedFieldCache cache;
+        final Class<?>[] sortedRoots;
+
+        Target(boolean generated, int objects) throws Exception {
+            Map<String, byte[]> classes = new HashMap<>();
+            for (String name : TARGETS) {
+                try (InputStream in = PersistenceBenchmark.class.getClassLoader()
+                        .getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    classes.put(name, in.readAllBytes());
+                }
+            }
+            if (generated) {
+                classes = ClassAccessorGenerator.generate(classes);
+            }
+            ClassLoader loader = new TargetLoader(classes);
+            Class<?> root = loader.loadClass(TargetRoot.class.getName());
+            Class<?> leaf = loader.loadClass(TargetLeaf.class.getName());
+            Method serializeSelf = root.getMethod("serializeSelf", Class.class, IObjectSerializer.class);
+            Method deserializeSelf = root.getMethod("deserializeSelf", Class.class, IObjectDeserializer.class);
+            Field readIndex = root.getField("readIndex");
+            this.cache = new SortedFieldCache(loader, serializeSelf, deserializeSelf, readIndex);
+            this.sortedRoots = new Class<?>[] {leaf, root};
+            if (generated != (null != this.cache.getAccessor(leaf))) {
+                throw new AssertionError("unexpected accessor of " + leaf);
+            }
+
+            // Build a graph with random links, which is reachable from TargetRoot.root through the "next" chain.
+            Random random = new Random(objects);
+            Object[] nodes = new Object[objects];
+            Field counter = root.getField("counter");
+            Field next = root.getField("next");
+            Field left = leaf.getField("left");
+            Field right = leaf.getField("right");
+            for (int i = 0; i < objects; i++) {
+                nodes[i] = leaf.getConstructor().newInstance();
+                counter.setInt(nodes[i], i);
+            }
+            for (int i = 0; i < objects; i++) {
+                next.set(nodes[i], (i + 1 < objects) ? nodes[i + 1] : null);
+                left.set(nodes[i], nodes[random.nextInt(objects)]);
+                right.set(nodes[i], random.nextBoolean() ? nodes[random.nextInt(objects)] : null);
+            }
+            root.getField("root").set(null, nodes[0]);
+            leaf.getField("D").setDouble(null, 1.5);
+        }
+
+        byte[] serialize(ByteBuffer buffer) {
+            buffer.clear();
+            Serializer.serializeEntireGraph(buffer, null, null, new Resolver(), this.cache, new NameMapper(), this.sortedRoots, EmptyConstantClass.class, null);
+            byte[] result = new byte[buffer.position()];
+            System.arraycopy(buffer.array(), 0, result, 0, result.length);
+            return result;
+        }
+
+        void deserialize(byte[] bytes) {
+            Deserializer.deserializeEntireGraph(ByteBuffer.wrap(bytes), null, new Resolver(), this.cache, new NameMapper(), this.sortedRoots, EmptyConstantClass.class, null);
+        }
+    }
+
+    private static void run(String label, Target target, ByteBuffer buffer, int iterations) {
+        byte[] bytes = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = target.serialize(buffer);
+        }
+        long serializeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            target.deserialize(bytes);
+        }
+        long deserializeNanos = System.nanoTime() - start;
+        System.out.printf("%-10s %10d bytes %10.3f ms/serialize %10.3f ms/deserialize%n", label, bytes.length,
+                serializeNanos / 1e6 / iterations, deserializeNanos / 1e6 / iterations);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int objects = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        Target reflective = new Target(false, objects);
+        Target generated = new Target(true, objects);
+        ByteBuffer buffer = ByteBuffer.allocate(objects * 64 + 1024);
+
+        if (!Arrays.equals(reflective.serialize(buffer), generated.serialize(buffer))) {
+            throw new AssertionError("different graph data");
+        }
+        // warm up
+        run("reflective", reflective, buffer, iterations);
+        run("generated", generated, buffer, iterations);
+        for (int round = 0; round < 3; round++) {
+            run("reflective", reflective, buffer, iterations);
+            run("generated", generated, buffer, iterations);
+        }
+    }
+}
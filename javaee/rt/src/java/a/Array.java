@@ -36,7 +36,7 @@ public abstract class Array extends Object implements Cloneable, IArray {
      */
     static protected void chargeEnergyInitArray(int length, int perElementFee) {
         long cost = EnergyCalculator.multiply(length, perElementFee);
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(cost);
+        IInstrumentation.current().chargeEnergy(cost);
     }
 
     /**
@@ -50,6 +50,6 @@ public abstract class Array extends Object implements Cloneable, IArray {
      */
     static protected void chargeEnergyClone(int baseFee, int length) {
         long cost = EnergyCalculator.multiplyLinearValueByMethodFeeLevel2AndAddBase(baseFee, length);
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(cost);
+        IInstrumentation.current().chargeEnergy(cost);
     }
 }
@@ -43,7 +43,7 @@ public class DoubleArray extends Array {
 
     @Override
     public IObject avm_clone() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(EnergyCalculator.multiplyLinearValueByMethodFeeLevel2AndAddBase(RuntimeMethodFeeSchedule.DoubleArray_avm_clone, length()));
+        IInstrumentation.current().chargeEnergy(EnergyCalculator.multiplyLinearValueByMethodFeeLevel2AndAddBase(RuntimeMethodFeeSchedule.DoubleArray_avm_clone, length()));
         lazyLoad();
         return new DoubleArray(Arrays.copyOf(underlying, underlying.length));
     }
@@ -59,7 +59,7 @@ public class DoubleArray extends Array {
     //========================================================
 
     public DoubleArray(int c) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.DoubleArray_avm_constructor);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.DoubleArray_avm_constructor);
         this.underlying = new double[c];
     }
 
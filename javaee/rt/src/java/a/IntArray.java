@@ -43,7 +43,7 @@ public class IntArray extends Array {
 
     @Override
     public IObject avm_clone() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(EnergyCalculator.multiplyLinearValueByMethodFeeLevel2AndAddBase(RuntimeMethodFeeSchedule.IntArray_avm_clone, length()));
+        IInstrumentation.current().chargeEnergy(EnergyCalculator.multiplyLinearValueByMethodFeeLevel2AndAddBase(RuntimeMethodFeeSchedule.IntArray_avm_clone, length()));
         lazyLoad();
         return new IntArray(Arrays.copyOf(underlying, underlying.length));
     }
@@ -59,7 +59,7 @@ public class IntArray extends Array {
     //========================================================
 
     public IntArray(int c) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.IntArray_avm_constructor);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.IntArray_avm_constructor);
         this.underlying = new int[c];
     }
 
@@ -50,14 +50,14 @@ public class ObjectArray extends Array implements IObjectArray {
 
     @Override
     public IObject avm_clone() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(EnergyCalculator.multiplyLinearValueByMethodFeeLevel2AndAddBase(RuntimeMethodFeeSchedule.ObjectArray_avm_clone, length()));
+        IInstrumentation.current().chargeEnergy(EnergyCalculator.multiplyLinearValueByMethodFeeLevel2AndAddBase(RuntimeMethodFeeSchedule.ObjectArray_avm_clone, length()));
         lazyLoad();
         return new ObjectArray(Arrays.copyOf(underlying, underlying.length));
     }
 
     public static ObjectArray newWithCharge(Object[] src) {
         chargeEnergyInitArray(src.length, ArrayElement.REF.getEnergy());
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor);
         return new ObjectArray(src);
     }
 
@@ -72,12 +72,12 @@ public class ObjectArray extends Array implements IObjectArray {
     //========================================================
 
     public ObjectArray(int c) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor);
         this.underlying = new Object[c];
     }
 
     public ObjectArray(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor_1);
     };
 
     public ObjectArray(Object[] underlying) {
@@ -9,11 +9,43 @@ import org.aion.avm.core.persistence.LoadedDApp;
 
 import java.io.IOException;
 
-public class Loader {
+public class Loader implements LoaderMBean {
     private static final int CAP = 256;
+    private static final int STRIPES = 16;
 
-    private final MultimapCache<String, LoadedDApp> cache =
-            MultimapCache.newSoftCache(CAP);
+    private final MultimapCache<String, LoadedDApp> cache;
+    private final long maxBytes;
+    private final boolean lazyGraphLoading;
+
+    public Loader() {
+        this(0);
+    }
+
+    public Loader(long maxBytes) {
+        this(maxBytes, false);
+    }
+
+    /**
+     * Creates a loader.
+     *
+     * @param maxBytes maximum approximate size of cached DApps in bytes. If
+     *                 it's not positive, only the number of cached DApps is
+     *                 limited.
+     * @param lazyGraphLoading true if object graphs of loaded DApps are
+     *                         loaded lazily.
+     * @see LoadedDApp#getApproximateSize()
+     * @see LoadedDApp#setLazyGraphLoading(boolean)
+     */
+    public Loader(long maxBytes, boolean lazyGraphLoading) {
+        this.maxBytes = Math.max(maxBytes, 0);
+        this.lazyGraphLoading = lazyGraphLoading;
+        if (maxBytes > 0) {
+            cache = MultimapCache.newSoftCache(CAP, STRIPES, maxBytes,
+                    LoadedDApp::getApproximateSize);
+        } else {
+            cache = MultimapCache.newSoftCache(CAP, STRIPES);
+        }
+    }
 
     public LoadedDApp load(IExternalState es, AvmConfiguration conf) {
         var dapp = cache.remove(es.getCodeID(), da ->
@@ -39,11 +71,66 @@ public class Loader {
             } catch (IOException e) {
                 RuntimeAssertionError.unexpected(e);
             }
+            if (dapp != null) {
+                dapp.setLazyGraphLoading(lazyGraphLoading);
+            }
         }
         return dapp;
     }
 
+    /**
+     * Loads transformed code and keeps it in the cache so that following
+     * invocations of the code don't need to load classes.
+     *
+     * @param codeID code ID
+     * @param code transformed code
+     * @param conf configuration
+     * @return true if the code is loaded.
+     * @throws IOException if the code is invalid.
+     */
+    public boolean preload(String codeID, byte[] code, AvmConfiguration conf)
+            throws IOException {
+        var dapp = DAppLoader.loadFromGraph(code, conf.preserveDebuggability);
+        if (dapp == null) {
+            return false;
+        }
+        dapp.setLazyGraphLoading(lazyGraphLoading);
+        cache.put(codeID, dapp);
+        return true;
+    }
+
     public void unload(String codeID, LoadedDApp dapp) {
         cache.put(codeID, dapp);
     }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+
+    public int getEntries() {
+        return cache.size();
+    }
+
+    public long getBytes() {
+        return cache.weight();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loader{entries=%d bytes=%d/%d hits=%d misses=%d evictions=%d}",
+                getEntries(), getBytes(), maxBytes, getHits(), getMisses(),
+                getEvictions());
+    }
 }
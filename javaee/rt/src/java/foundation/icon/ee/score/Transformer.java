@@ -92,9 +92,10 @@ public class Transformer {
      * @param oldPreRenameForest The pre-rename forest of user-defined classes in the DApp (/-style).
      * @param classHierarchy The class hierarchy of all classes in the system (.-style).
      * @param preserveDebuggability Whether or not debug mode is enabled.
+     * @param compactInstrumentation Whether or not energy charges are merged and leaf methods are left without stack tracking.
      * @return the transformed classes and any generated classes (names specified in .-style)
      */
-    private static Map<String, byte[]> transformClasses(Map<String, byte[]> inputClasses, Forest<String, ClassInfo> oldPreRenameForest, ClassHierarchy classHierarchy, ClassRenamer classRenamer, boolean preserveDebuggability) {
+    private static Map<String, byte[]> transformClasses(Map<String, byte[]> inputClasses, Forest<String, ClassInfo> oldPreRenameForest, ClassHierarchy classHierarchy, ClassRenamer classRenamer, boolean preserveDebuggability, boolean compactInstrumentation) {
         // Before anything, pass the list of classes through the verifier.
         // (this will throw UncaughtException, on verification failure).
         Verifier.verifyUntrustedClasses(inputClasses);
@@ -134,13 +135,13 @@ public class Transformer {
                     parsingOptions);
             Agent agent = Agent.get();
             if (agent == null || agent.isClassMeteringEnabled()) {
-                builder.addNextVisitor(new ClassMetering(postRenameObjectSizes));
+                builder.addNextVisitor(new ClassMetering(postRenameObjectSizes, compactInstrumentation));
             }
 
             byte[] bytecode = builder.addNextVisitor(new ConstantVisitor(PackageConstants.kConstantClassName, constantClass.constantToFieldMap))
                     .addNextVisitor(new InvokedynamicShadower(PackageConstants.kShadowSlashPrefix))
                     .addNextVisitor(new ClassShadowing(PackageConstants.kShadowSlashPrefix))
-                    .addNextVisitor(new StackWatcherClassAdapter())
+                    .addNextVisitor(new StackWatcherClassAdapter(compactInstrumentation))
                     .addNextVisitor(new ExceptionWrapping(generatedClassesSink, classHierarchy))
                     .addNextVisitor(new AutomaticGraphVisitor())
                     .addNextVisitor(new StrictFPVisitor())
@@ -304,7 +305,8 @@ public class Transformer {
         // transform
         Map<String, byte[]> transformedClasses = transformClasses(
                 rawDapp.classes, dappClassesForest, rawDapp.classHierarchy,
-                rawDapp.classRenamer, conf.preserveDebuggability);
+                rawDapp.classRenamer, conf.preserveDebuggability,
+                es.compactInstrumentation());
         bootstrapModule = TransformedDappModule.fromTransformedClasses(transformedClasses, rawDapp.mainClass);
         Map<String, byte[]> immortalClasses = stripClinitFromClasses(transformedClasses);
         ImmortalDappModule immortalDapp = ImmortalDappModule.fromImmortalClasses(immortalClasses, bootstrapModule.mainClass, apisBytes);
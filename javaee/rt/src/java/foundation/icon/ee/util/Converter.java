@@ -0,0 +1,11 @@
+package foundation.icon.ee.util;
+
+/**
+ * Converts a value between its internal and shadow representations.
+ * Instances are decided from a class in advance (see Shadower.converterFor
+ * and Unshadower.converterFor) so that no type switching is needed per value.
+ */
+@FunctionalInterface
+public interface Converter {
+    Object convert(Object obj);
+}
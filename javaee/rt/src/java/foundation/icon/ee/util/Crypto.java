@@ -16,11 +16,13 @@
 
 package foundation.icon.ee.util;
 
+import foundation.icon.ee.io.ByteArrayBuilder;
 import foundation.icon.ee.util.bls12381.BLS12381;
 import foundation.icon.ee.util.xxhash.XxHash;
 import i.RuntimeAssertionError;
 import org.bouncycastle.asn1.x9.X9ECParameters;
 import org.bouncycastle.asn1.x9.X9IntegerConverter;
+import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.digests.Blake2bDigest;
 import org.bouncycastle.crypto.ec.CustomNamedCurves;
 import org.bouncycastle.crypto.params.ECDomainParameters;
@@ -32,36 +34,181 @@ import org.bouncycastle.math.ec.rfc8032.Ed25519;
 import org.bouncycastle.util.BigIntegers;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 
 public class Crypto {
     public static int BLS12381_G1_LEN = BLS12381.G1_LEN;
     public static int BLS12381_G2_LEN = BLS12381.G2_LEN;
 
-    public static byte[] sha3_256(byte[] msg) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA3-256");
-            return digest.digest(msg);
-        } catch (NoSuchAlgorithmException e) {
-            throw RuntimeAssertionError.unexpected(e);
+    /**
+     * The hash engines of a thread. An engine is created on its first use,
+     * then reset and reused by the following hashes of the thread, so it is
+     * never shared between threads. It is reset before each use, so a hash
+     * which failed halfway doesn't affect the next one.
+     */
+    private static class Engines {
+        private static final ThreadLocal<Engines> current =
+                ThreadLocal.withInitial(Engines::new);
+        private static final int CHUNK_SIZE = 4096;
+
+        private MessageDigest sha3_256;
+        private MessageDigest sha256;
+        private MessageDigest keccak256;
+        private Blake2bDigest blake2b128;
+        private Blake2bDigest blake2b256;
+        private byte[] chunk;
+
+        static Engines get() {
+            return current.get();
+        }
+
+        private static MessageDigest newMessageDigest(String alg) {
+            try {
+                return MessageDigest.getInstance(alg);
+            } catch (NoSuchAlgorithmException e) {
+                throw RuntimeAssertionError.unexpected(e);
+            }
+        }
+
+        MessageDigest sha3_256() {
+            if (sha3_256 == null) {
+                sha3_256 = newMessageDigest("SHA3-256");
+            } else {
+                sha3_256.reset();
+            }
+            return sha3_256;
+        }
+
+        MessageDigest sha256() {
+            if (sha256 == null) {
+                sha256 = newMessageDigest("SHA-256");
+            } else {
+                sha256.reset();
+            }
+            return sha256;
+        }
+
+        MessageDigest keccak256() {
+            if (keccak256 == null) {
+                keccak256 = new Keccak.Digest256();
+            } else {
+                keccak256.reset();
+            }
+            return keccak256;
+        }
+
+        Digest blake2b128() {
+            if (blake2b128 == null) {
+                blake2b128 = new Blake2bDigest(128);
+            } else {
+                blake2b128.reset();
+            }
+            return blake2b128;
+        }
+
+        Digest blake2b256() {
+            if (blake2b256 == null) {
+                blake2b256 = new Blake2bDigest(256);
+            } else {
+                blake2b256.reset();
+            }
+            return blake2b256;
+        }
+
+        // Buffer to pass the content of a direct buffer to a digest.
+        byte[] chunk() {
+            if (chunk == null) {
+                chunk = new byte[CHUNK_SIZE];
+            }
+            return chunk;
         }
     }
 
-    public static byte[] sha256(byte[] msg) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            return digest.digest(msg);
-        } catch (NoSuchAlgorithmException e) {
-            throw RuntimeAssertionError.unexpected(e);
+    private static byte[] digest(MessageDigest md, byte[] msg, int off, int len) {
+        md.update(msg, off, len);
+        return md.digest();
+    }
+
+    private static byte[] digest(MessageDigest md, ByteBuffer msg) {
+        md.update(msg);
+        return md.digest();
+    }
+
+    private static byte[] digest(Digest d, byte[] msg, int off, int len) {
+        d.update(msg, off, len);
+        var res = new byte[d.getDigestSize()];
+        d.doFinal(res, 0);
+        return res;
+    }
+
+    private static byte[] digest(Digest d, ByteBuffer msg) {
+        if (msg.hasArray()) {
+            int len = msg.remaining();
+            d.update(msg.array(), msg.arrayOffset() + msg.position(), len);
+            msg.position(msg.limit());
+        } else {
+            var chunk = Engines.get().chunk();
+            while (msg.hasRemaining()) {
+                int len = Math.min(msg.remaining(), chunk.length);
+                msg.get(chunk, 0, len);
+                d.update(chunk, 0, len);
+            }
+        }
+        var res = new byte[d.getDigestSize()];
+        d.doFinal(res, 0);
+        return res;
+    }
+
+    private static byte[] xxhash128(ByteBuffer msg) {
+        byte[] res;
+        if (msg.hasArray()) {
+            res = XxHash.hash128(msg.array(),
+                    msg.arrayOffset() + msg.position(), msg.remaining());
+            msg.position(msg.limit());
+        } else {
+            // xxHash reads the whole input at once.
+            var data = new byte[msg.remaining()];
+            msg.get(data);
+            res = XxHash.hash128(data);
         }
+        return res;
+    }
+
+    public static byte[] sha3_256(byte[] msg) {
+        return sha3_256(msg, 0, msg.length);
+    }
+
+    public static byte[] sha3_256(byte[] msg, int off, int len) {
+        Objects.checkFromIndexSize(off, len, msg.length);
+        return digest(Engines.get().sha3_256(), msg, off, len);
+    }
+
+    public static byte[] sha256(byte[] msg) {
+        return sha256(msg, 0, msg.length);
+    }
+
+    public static byte[] sha256(byte[] msg, int off, int len) {
+        Objects.checkFromIndexSize(off, len, msg.length);
+        return digest(Engines.get().sha256(), msg, off, len);
     }
 
     public static byte[] keccack256(byte[] msg) {
-        Keccak.DigestKeccak keccak = new Keccak.Digest256();
-        keccak.update(msg);
-        return keccak.digest();
+        return keccack256(msg, 0, msg.length);
+    }
+
+    public static byte[] keccack256(byte[] msg, int off, int len) {
+        Objects.checkFromIndexSize(off, len, msg.length);
+        return digest(Engines.get().keccak256(), msg, off, len);
     }
 
     static void require(boolean cond, String msg) {
@@ -71,29 +218,134 @@ public class Crypto {
     }
 
     public static byte[] hash(String alg, byte[] msg) {
+        return hash(alg, msg, 0, msg.length);
+    }
+
+    /**
+     * Returns the hash of len bytes of msg from off.
+     */
+    public static byte[] hash(String alg, byte[] msg, int off, int len) {
+        Objects.checkFromIndexSize(off, len, msg.length);
         switch (alg) {
             case "sha-256":
-                return sha256(msg);
+                return digest(Engines.get().sha256(), msg, off, len);
             case "sha3-256":
-                return sha3_256(msg);
+                return digest(Engines.get().sha3_256(), msg, off, len);
             case "keccak-256":
-                return keccack256(msg);
+                return digest(Engines.get().keccak256(), msg, off, len);
             case "xxhash-128":
-                return XxHash.hash128(msg);
-            case "blake2b-128": {
-                var digest = new Blake2bDigest(128);
-                digest.update(msg, 0, msg.length);
-                var res = new byte[128/8];
-                digest.doFinal(res, 0);
-                return res;
-            }
-            case "blake2b-256": {
-                var digest = new Blake2bDigest(256);
-                digest.update(msg, 0, msg.length);
-                var res = new byte[256/8];
-                digest.doFinal(res, 0);
-                return res;
-            }
+                return XxHash.hash128(msg, off, len);
+            case "blake2b-128":
+                return digest(Engines.get().blake2b128(), msg, off, len);
+            case "blake2b-256":
+                return digest(Engines.get().blake2b256(), msg, off, len);
+        }
+        throw new IllegalArgumentException("Unsupported algorithm " + alg);
+    }
+
+    /**
+     * Returns the hash of the remaining bytes of msg, whose position is
+     * advanced to its limit.
+     */
+    public static byte[] hash(String alg, ByteBuffer msg) {
+        switch (alg) {
+            case "sha-256":
+                return digest(Engines.get().sha256(), msg);
+            case "sha3-256":
+                return digest(Engines.get().sha3_256(), msg);
+            case "keccak-256":
+                return digest(Engines.get().keccak256(), msg);
+            case "xxhash-128":
+                return xxhash128(msg);
+            case "blake2b-128":
+                return digest(Engines.get().blake2b128(), msg);
+            case "blake2b-256":
+                return digest(Engines.get().blake2b256(), msg);
+        }
+        throw new IllegalArgumentException("Unsupported algorithm " + alg);
+    }
+
+    /**
+     * Hashes a message given in parts. Unlike the pooled engines, each
+     * hasher owns its engine, so several hashers can be in use at once.
+     */
+    public interface Hasher {
+        void update(byte[] msg, int off, int len);
+
+        /**
+         * Returns the hash of the parts given so far and resets the hasher.
+         */
+        byte[] digest();
+    }
+
+    private static class MessageDigestHasher implements Hasher {
+        private final MessageDigest md;
+
+        MessageDigestHasher(MessageDigest md) {
+            this.md = md;
+        }
+
+        public void update(byte[] msg, int off, int len) {
+            Objects.checkFromIndexSize(off, len, msg.length);
+            md.update(msg, off, len);
+        }
+
+        public byte[] digest() {
+            return md.digest();
+        }
+    }
+
+    private static class DigestHasher implements Hasher {
+        private final Digest d;
+
+        DigestHasher(Digest d) {
+            this.d = d;
+        }
+
+        public void update(byte[] msg, int off, int len) {
+            Objects.checkFromIndexSize(off, len, msg.length);
+            d.update(msg, off, len);
+        }
+
+        public byte[] digest() {
+            var res = new byte[d.getDigestSize()];
+            d.doFinal(res, 0);
+            return res;
+        }
+    }
+
+    // xxHash reads the whole input at once, so the parts are buffered.
+    private static class XxHashHasher implements Hasher {
+        private final ByteArrayBuilder buf = new ByteArrayBuilder();
+
+        public void update(byte[] msg, int off, int len) {
+            Objects.checkFromIndexSize(off, len, msg.length);
+            buf.write(msg, off, len);
+        }
+
+        public byte[] digest() {
+            var res = XxHash.hash128(buf.array(), 0, buf.size());
+            buf.resize(0);
+            return res;
+        }
+    }
+
+    public static Hasher newHasher(String alg) {
+        switch (alg) {
+            case "sha-256":
+                return new MessageDigestHasher(
+                        Engines.newMessageDigest("SHA-256"));
+            case "sha3-256":
+                return new MessageDigestHasher(
+                        Engines.newMessageDigest("SHA3-256"));
+            case "keccak-256":
+                return new MessageDigestHasher(new Keccak.Digest256());
+            case "xxhash-128":
+                return new XxHashHasher();
+            case "blake2b-128":
+                return new DigestHasher(new Blake2bDigest(128));
+            case "blake2b-256":
+                return new DigestHasher(new Blake2bDigest(256));
         }
         throw new IllegalArgumentException("Unsupported algorithm " + alg);
     }
@@ -121,6 +373,149 @@ public class Crypto {
         throw new IllegalArgumentException("Unsupported algorithm " + alg);
     }
 
+    /**
+     * Runs the signature verifications of a batch. A batch is split into
+     * contiguous ranges, which are run by the caller and a bounded pool of
+     * threads shared by all the batches.
+     */
+    private static class Verifiers {
+        private static final int MAX_THREADS = Math.min(
+                Runtime.getRuntime().availableProcessors(), 8);
+        // Fewer signatures per range aren't worth handing to a thread.
+        private static final int MIN_RANGE_SIZE = 2;
+        private static final ThreadPoolExecutor executor = newExecutor();
+
+        private static ThreadPoolExecutor newExecutor() {
+            var tpe = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                        var t = new Thread(r, "SignatureVerifier");
+                        t.setDaemon(true);
+                        return t;
+                    });
+            tpe.allowCoreThreadTimeOut(true);
+            return tpe;
+        }
+
+        /**
+         * Runs action for each index from 0 to n. If it throws for some
+         * indexes, the lowest of them is returned and the exception thrown
+         * for it is stored in failure[0], which is what running it in order
+         * would stop at. Otherwise, n is returned.
+         */
+        static int forEach(int n, IntConsumer action,
+                RuntimeException[] failure) {
+            int ranges = Math.min(MAX_THREADS, n / MIN_RANGE_SIZE);
+            if (ranges <= 1) {
+                for (int i = 0; i < n; i++) {
+                    try {
+                        action.accept(i);
+                    } catch (RuntimeException e) {
+                        failure[0] = e;
+                        return i;
+                    }
+                }
+                return n;
+            }
+            // The first failed index and its exception of each range.
+            var failedIndexes = new int[ranges];
+            var failures = new RuntimeException[ranges];
+            var futures = new Future<?>[ranges];
+            for (int r = 1; r < ranges; r++) {
+                int range = r;
+                futures[r] = executor.submit(() -> runRange(n, ranges, range,
+                        action, failedIndexes, failures));
+            }
+            runRange(n, ranges, 0, action, failedIndexes, failures);
+            for (int r = 1; r < ranges; r++) {
+                awaitUninterruptibly(futures[r]);
+            }
+            for (int r = 0; r < ranges; r++) {
+                if (failures[r] != null) {
+                    failure[0] = failures[r];
+                    return failedIndexes[r];
+                }
+            }
+            return n;
+        }
+
+        private static void runRange(int n, int ranges, int range,
+                IntConsumer action, int[] failedIndexes,
+                RuntimeException[] failures) {
+            int end = (int) ((long) n * (range + 1) / ranges);
+            for (int i = (int) ((long) n * range / ranges); i < end; i++) {
+                try {
+                    action.accept(i);
+                } catch (RuntimeException e) {
+                    failedIndexes[range] = i;
+                    failures[range] = e;
+                    return;
+                }
+            }
+        }
+
+        private static void awaitUninterruptibly(Future<?> future) {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        future.get();
+                        return;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        // Only errors escape runRange.
+                        if (e.getCause() instanceof Error) {
+                            throw (Error) e.getCause();
+                        }
+                        throw RuntimeAssertionError.unexpected(e.getCause());
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether each signature of msgs[i] by pks[i] is sigs[i], as
+     * verifySignature does one by one. The signatures may be verified in
+     * parallel, but neither the result nor the exception thrown depends on
+     * it: for invalid inputs, the exception is the one verifySignature
+     * throws for the first of them.
+     */
+    public static boolean[] verifySignatures(String alg, byte[][] msgs, byte[][] sigs, byte[][] pks) {
+        return verifySignatures(alg, msgs, sigs, pks, i -> {});
+    }
+
+    /**
+     * Same as {@link #verifySignatures(String, byte[][], byte[][], byte[][])}
+     * except that onVerified is called on the calling thread, in order, for
+     * each signature verifySignature would be called for one by one, that
+     * is, up to and including the first invalid input. It's called after
+     * the verification and before the result is returned or the exception
+     * is thrown, so it may throw instead.
+     */
+    public static boolean[] verifySignatures(String alg, byte[][] msgs,
+            byte[][] sigs, byte[][] pks, IntConsumer onVerified) {
+        require(msgs.length == sigs.length && msgs.length == pks.length,
+                "the numbers of messages, signatures and public keys must be the same");
+        var res = new boolean[msgs.length];
+        var failure = new RuntimeException[1];
+        int end = Verifiers.forEach(msgs.length,
+                i -> res[i] = verifySignature(alg, msgs[i], sigs[i], pks[i]),
+                failure);
+        for (int i = 0; i < end; i++) {
+            onVerified.accept(i);
+        }
+        if (failure[0] != null) {
+            onVerified.accept(end);
+            throw failure[0];
+        }
+        return res;
+    }
+
     public static byte[] recoverKey(String alg, byte[] msg, byte[] sig, boolean compressed) {
         switch (alg) {
             case "ecdsa-secp256k1": {
@@ -143,10 +538,40 @@ public class Crypto {
         throw new IllegalArgumentException("Unsupported type " + type);
     }
 
+    private static final int RECOVERED_KEY_CACHE_ENTRIES = 4096;
+    private static final int RECOVERED_KEY_CACHE_STRIPES = 8;
+    private static final RecoveredKeyCache recoveredKeys = new RecoveredKeyCache(
+            RECOVERED_KEY_CACHE_ENTRIES, RECOVERED_KEY_CACHE_STRIPES);
+
+    public static RecoveredKeyCache getRecoveredKeyCache() {
+        return recoveredKeys;
+    }
+
+    /**
+     * Returns the public key recovered from the signature of msgHash, or
+     * null if there is none. Keys are cached by the hash of msgHash, the
+     * signature and compressed, as the same signatures are often verified
+     * again (by queries and re-executions).
+     */
     public static byte[] recoverKey(byte[] msgHash, byte[] signature, boolean compressed) {
         BigInteger r = BigIntegers.fromUnsignedByteArray(signature, 0, 32);
         BigInteger s = BigIntegers.fromUnsignedByteArray(signature, 32, 32);
-        return recoverFromSignature(signature[64], r, s, msgHash, compressed);
+        int recId = signature[64];
+        var md = Engines.get().sha3_256();
+        md.update(msgHash);
+        md.update(signature, 0, 65);
+        md.update((byte) (compressed ? 1 : 0));
+        var hash = md.digest();
+        var key = recoveredKeys.get(hash);
+        if (key == null) {
+            key = recoverFromSignature(recId, r, s, msgHash, compressed);
+            if (key == null) {
+                return null;
+            }
+            recoveredKeys.put(hash, key);
+        }
+        // the cached key is shared, so the caller gets a copy.
+        return key.clone();
     }
 
     public static byte[] getAddressBytesFromKey(byte[] pubKey) {
@@ -157,7 +582,7 @@ public class Crypto {
         } else {
             uncompressed = pubKey;
         }
-        byte[] hash = sha3_256(Arrays.copyOfRange(uncompressed, 1, uncompressed.length));
+        byte[] hash = sha3_256(uncompressed, 1, uncompressed.length - 1);
         byte[] address = new byte[21];
         System.arraycopy(hash, hash.length - 20, address, 1, 20);
         return address;
@@ -166,6 +591,7 @@ public class Crypto {
     private final static X9ECParameters curveParams = CustomNamedCurves.getByName("secp256k1");
     private final static ECDomainParameters curve = new ECDomainParameters(
             curveParams.getCurve(), curveParams.getG(), curveParams.getN(), curveParams.getH());
+    private final static boolean CURVE_COFACTOR_IS_ONE = BigInteger.ONE.equals(curve.getH());
 
     private static byte[] uncompressKey(byte[] compKey) {
         ECPoint point = curve.getCurve().decodePoint(compKey);
@@ -198,7 +624,8 @@ public class Crypto {
             return null;
         }
         ECPoint ecPoint = decompressKey(x, (recId & 1) == 1);
-        if (!ecPoint.multiply(n).isInfinity()) {
+        // Every point on a curve of cofactor 1 has order n.
+        if (!CURVE_COFACTOR_IS_ONE && !ecPoint.multiply(n).isInfinity()) {
             return null;
         }
         BigInteger e = new BigInteger(1, message);
@@ -85,6 +85,32 @@ public class LinkedHashMultimap<K, V> {
         return remove(k, selector.apply(set));
     }
 
+    /**
+     * Returns the least recently put entry without removing it.
+     *
+     * @return the entry or null if the multimap is empty.
+     */
+    public Map.Entry<K, V> peekEldest() {
+        var it = lru.keySet().iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    /**
+     * Removes the least recently put entry.
+     *
+     * @return removed entry or null if the multimap is empty.
+     */
+    public Map.Entry<K, V> removeEldest() {
+        var it = lru.keySet().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        var e = it.next();
+        it.remove();
+        removeFromMultimap(e.getKey(), e.getValue());
+        return e;
+    }
+
     public void put(K k, V v) {
         var set = map.get(k);
         if (set == null) {
@@ -3,17 +3,73 @@ package foundation.icon.ee.util;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
+/**
+ * Bounded multimap cache.
+ *
+ * Entries are partitioned into stripes by key, and each stripe is guarded by
+ * its own lock. Thus threads using different keys rarely contend. The number
+ * of entries is bounded by {@code cap} over all stripes, and the least
+ * recently put entry of the cache is evicted first, regardless of the stripe
+ * holding it.
+ *
+ * If a weigher is given, the weight of a value is evaluated when it's put,
+ * and least recently put entries are also evicted while total weight of the
+ * cache exceeds {@code maxWeight}.
+ */
 public abstract class MultimapCache<K, V> {
     private interface Entry<T> extends Disposable {
         T get();
+
+        long weight();
+
+        // order of put over all stripes
+        long sequence();
     }
 
     private class EntryMap extends LinkedHashMultimap<K, Entry<V>> {
-        @Override
-        protected boolean removeEldestEntry(K key, Entry<V> value) {
-            return entryMap.size() > cap;
+        void add(K key, Entry<V> value) {
+            put(key, value);
+            size.incrementAndGet();
+            weight.addAndGet(value.weight());
+        }
+
+        Entry<V> take(K key, Function<Set<Entry<V>>, Entry<V>> selector) {
+            var e = remove(key, selector);
+            if (e != null) {
+                removed(e);
+            }
+            return e;
+        }
+
+        void drop(K key, Entry<V> value) {
+            if (remove(key, value) != null) {
+                removed(value);
+            }
+        }
+
+        long eldestSequence() {
+            var e = peekEldest();
+            return (e != null) ? e.getValue().sequence() : Long.MAX_VALUE;
+        }
+
+        void evictEldest() {
+            var e = removeEldest();
+            removed(e.getValue());
+            evictions.increment();
+        }
+
+        private void removed(Entry<V> e) {
+            size.decrementAndGet();
+            weight.addAndGet(-e.weight());
         }
     }
 
@@ -21,20 +77,96 @@ public abstract class MultimapCache<K, V> {
 
     private final DisposableReferenceQueue<V> refQueue =
             new DisposableReferenceQueue<>();
-    protected final EntryMap entryMap = new EntryMap();
+    private final EntryMap[] stripes;
     private final int cap;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong weight = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
     public MultimapCache() {
         this(DEFAULT_CAP);
     }
 
     public MultimapCache(int cap) {
+        this(cap, 1);
+    }
+
+    public MultimapCache(int cap, int stripes) {
+        this(cap, stripes, 0, null);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param cap maximum number of entries.
+     * @param stripes number of stripes. It's rounded up to a power of two.
+     * @param maxWeight maximum total weight of entries. It's ignored if
+     *                  weigher is null.
+     * @param weigher function returning weight of a value or null.
+     */
+    @SuppressWarnings("unchecked")
+    public MultimapCache(int cap, int stripes, long maxWeight,
+            ToLongFunction<V> weigher) {
+        int n = 1;
+        while (n < stripes) {
+            n <<= 1;
+        }
+        this.stripes = (EntryMap[]) Array.newInstance(EntryMap.class, n);
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new EntryMap();
+        }
         this.cap = cap;
+        this.maxWeight = (weigher != null) ? maxWeight : Long.MAX_VALUE;
+        this.weigher = weigher;
+    }
+
+    private EntryMap stripeOf(K k) {
+        int h = k.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    private boolean isOverBound() {
+        return size.get() > cap || weight.get() > maxWeight;
+    }
+
+    // Evicts the eldest entry of all stripes while the cache is over the
+    // bound. Stripes are locked one at a time, so the eldest entry is checked
+    // again under the lock of its stripe before it's evicted.
+    private void evict() {
+        while (isOverBound()) {
+            EntryMap victim = null;
+            long eldest = Long.MAX_VALUE;
+            for (var entryMap : stripes) {
+                synchronized (entryMap) {
+                    long seq = entryMap.eldestSequence();
+                    if (seq < eldest) {
+                        eldest = seq;
+                        victim = entryMap;
+                    }
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            synchronized (victim) {
+                if (victim.eldestSequence() == eldest && isOverBound()) {
+                    victim.evictEldest();
+                }
+            }
+        }
     }
 
     public V remove(K k, Predicate<V> selector) {
+        var entryMap = stripeOf(k);
+        V res;
         synchronized (entryMap) {
-            var entry = entryMap.remove(k, set-> {
+            var entry = entryMap.take(k, set-> {
                 Entry<V> any = null;
                 for (var ref : set) {
                     var da = (ref != null) ? ref.get() : null;
@@ -51,19 +183,58 @@ public abstract class MultimapCache<K, V> {
                 }
                 return any;
             });
-            return entry!=null ? entry.get() : null;
+            res = entry!=null ? entry.get() : null;
+        }
+        if (res != null) {
+            hits.increment();
+        } else {
+            misses.increment();
         }
+        return res;
     }
 
     public void put(K k, V v) {
+        long weight = (weigher != null) ? weigher.applyAsLong(v) : 0;
+        var entryMap = stripeOf(k);
         synchronized (entryMap) {
-            entryMap.put(k, newEntry(k, v, refQueue));
+            entryMap.add(k, newEntry(k, v, weight,
+                    sequence.getAndIncrement(), refQueue));
         }
+        evict();
     }
 
     public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns total weight of entries. It's zero if the cache has no
+     * weigher.
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns number of entries evicted by the capacity or the weight
+     * limit. Entries whose values are collected are not counted.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    protected void removeEntry(K k, Entry<V> entry) {
+        var entryMap = stripeOf(k);
         synchronized (entryMap) {
-            return entryMap.size();
+            entryMap.drop(k, entry);
         }
     }
 
@@ -72,54 +243,97 @@ public abstract class MultimapCache<K, V> {
         refQueue.consumeAll();
     }
 
-    protected Entry<V> newEntry(K k, V v, ReferenceQueue<V> q) {
+    protected Entry<V> newEntry(K k, V v, long weight, long sequence,
+            ReferenceQueue<V> q) {
         return null;
     }
 
     public static<K, V> MultimapCache<K, V> newWeakCache(int cap) {
-        return new MultimapCache<>(cap) {
+        return newWeakCache(cap, 1);
+    }
+
+    public static<K, V> MultimapCache<K, V> newWeakCache(int cap, int stripes) {
+        return new MultimapCache<>(cap, stripes) {
             class WeakEntry extends WeakReference<V> implements Entry<V> {
                 private final K key;
+                private final long weight;
+                private final long sequence;
 
-                public WeakEntry(V referent, ReferenceQueue<? super V> q, K key) {
+                public WeakEntry(V referent, ReferenceQueue<? super V> q, K key,
+                        long weight, long sequence) {
                     super(referent, q);
                     this.key = key;
+                    this.weight = weight;
+                    this.sequence = sequence;
+                }
+
+                public long weight() {
+                    return weight;
+                }
+
+                public long sequence() {
+                    return sequence;
                 }
 
                 public void dispose() {
-                    synchronized (entryMap) {
-                        entryMap.remove(key, this);
-                    }
+                    removeEntry(key, this);
                 }
             }
 
             @Override
-            protected Entry<V> newEntry(K k, V v, ReferenceQueue<V> q) {
-                return new WeakEntry(v, q, k);
+            protected Entry<V> newEntry(K k, V v, long weight,
+                    long sequence, ReferenceQueue<V> q) {
+                return new WeakEntry(v, q, k, weight, sequence);
             }
         };
     }
 
     public static<K, V> MultimapCache<K, V> newSoftCache(int cap) {
-        return new MultimapCache<>(cap) {
+        return newSoftCache(cap, 1);
+    }
+
+    public static<K, V> MultimapCache<K, V> newSoftCache(int cap, int stripes) {
+        return newSoftCache(cap, stripes, 0, null);
+    }
+
+    /**
+     * Returns a cache holding values with soft references.
+     *
+     * @see #MultimapCache(int, int, long, ToLongFunction)
+     */
+    public static<K, V> MultimapCache<K, V> newSoftCache(int cap, int stripes,
+            long maxWeight, ToLongFunction<V> weigher) {
+        return new MultimapCache<>(cap, stripes, maxWeight, weigher) {
             class SoftEntry extends SoftReference<V> implements Entry<V> {
                 private final K key;
+                private final long weight;
+                private final long sequence;
 
-                public SoftEntry(V referent, ReferenceQueue<? super V> q, K key) {
+                public SoftEntry(V referent, ReferenceQueue<? super V> q, K key,
+                        long weight, long sequence) {
                     super(referent, q);
                     this.key = key;
+                    this.weight = weight;
+                    this.sequence = sequence;
+                }
+
+                public long weight() {
+                    return weight;
+                }
+
+                public long sequence() {
+                    return sequence;
                 }
 
                 public void dispose() {
-                    synchronized (entryMap) {
-                        entryMap.remove(key, this);
-                    }
+                    removeEntry(key, this);
                 }
             }
 
             @Override
-            protected Entry<V> newEntry(K k, V v, ReferenceQueue<V> q) {
-                return new SoftEntry(v, q, k);
+            protected Entry<V> newEntry(K k, V v, long weight,
+                    long sequence, ReferenceQueue<V> q) {
+                return new SoftEntry(v, q, k, weight, sequence);
             }
         };
     }
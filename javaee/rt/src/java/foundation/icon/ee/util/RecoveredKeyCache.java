@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of public keys recovered from signatures, by the hash of
+ * the message, the signature and the requested encoding.
+ *
+ * Entries are partitioned into stripes by id, and each stripe is guarded by
+ * its own lock and evicts its least recently used entry independently. Each
+ * stripe can hold {@code ceil(cap / stripes)} entries. Ids are hashes, so
+ * entries are spread evenly over the stripes.
+ *
+ * Keys are held and returned as they are, so callers must not modify them.
+ */
+public class RecoveredKeyCache implements RecoveredKeyCacheMBean {
+    private static class Id {
+        private final byte[] hash;
+        private final int hashCode;
+
+        Id(byte[] hash) {
+            this.hash = hash;
+            this.hashCode = Arrays.hashCode(hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof Id) && Arrays.equals(hash, ((Id) o).hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private final LinkedHashMap<Id, byte[]>[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param cap maximum number of entries.
+     * @param stripes number of stripes. It's rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public RecoveredKeyCache(int cap, int stripes) {
+        int n = 1;
+        while (n < stripes) {
+            n <<= 1;
+        }
+        int stripeCap = (cap + n - 1) / n;
+        this.stripes = new LinkedHashMap[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Id, byte[]> eldest) {
+                    if (size() > stripeCap) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private LinkedHashMap<Id, byte[]> stripeOf(Id id) {
+        int h = id.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the key recovered for the hash, or null if it's not cached.
+     */
+    public byte[] get(byte[] hash) {
+        var id = new Id(hash);
+        var stripe = stripeOf(id);
+        byte[] key;
+        synchronized (stripe) {
+            key = stripe.get(id);
+        }
+        if (key != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return key;
+    }
+
+    public void put(byte[] hash, byte[] key) {
+        var id = new Id(hash);
+        var stripe = stripeOf(id);
+        synchronized (stripe) {
+            stripe.put(id, key);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns number of entries evicted by the capacity limit.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getEntries() {
+        int size = 0;
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+}
@@ -53,6 +53,79 @@ public class Shadower {
         return res;
     }
 
+    /**
+     * Returns a converter which shadows internal objects according to a shadow
+     * class. The converter does the same as {@link #shadow(Object, Class)}
+     * except that a null value for a primitive class is rejected.
+     *
+     * @param c shadow class
+     * @return converter
+     */
+    public static Converter converterFor(Class<?> c) {
+        if (c == boolean.class) {
+            return obj -> (Boolean) requireNonNull(obj);
+        } else if (c == char.class) {
+            return obj -> {
+                var v = (BigInteger) requireNonNull(obj);
+                requireValidCharRange(v);
+                return (char) v.intValue();
+            };
+        } else if (c == byte.class) {
+            return obj -> ((BigInteger) requireNonNull(obj)).byteValueExact();
+        } else if (c == short.class) {
+            return obj -> ((BigInteger) requireNonNull(obj)).shortValueExact();
+        } else if (c == int.class) {
+            return obj -> ((BigInteger) requireNonNull(obj)).intValueExact();
+        } else if (c == long.class) {
+            return obj -> ((BigInteger) requireNonNull(obj)).longValueExact();
+        } else if (c == s.java.math.BigInteger.class) {
+            return obj -> (obj == null) ? null
+                    : s.java.math.BigInteger.newWithCharge((BigInteger) obj);
+        } else if (c == s.java.lang.String.class) {
+            return obj -> (obj == null) ? null
+                    : s.java.lang.String.newWithCharge((String) obj);
+        } else if (c == p.score.Address.class) {
+            return obj -> (obj == null) ? null
+                    : p.score.Address.newWithCharge(((Address) obj).toByteArray());
+        } else if (c == a.ByteArray.class) {
+            return obj -> (obj == null) ? null
+                    : a.ByteArray.newWithCharge((byte[]) obj);
+        }
+        return obj -> _shadow(obj, c);
+    }
+
+    /**
+     * Shadows internal objects using converters.
+     * @param objs internal objects.
+     * @param converters converters for the objects.
+     * @return shadow objects
+     * @throws IllegalArgumentException thrown if an object does not match
+     *                                  its converter.
+     * @throws ArithmeticException if integer value is out of range.
+     */
+    public static Object[] shadowObjects(Object[] objs, Converter[] converters) {
+        if (objs.length != converters.length) {
+            throw new IllegalArgumentException();
+        }
+        var res = new Object[objs.length];
+        try {
+            for (int i = 0; i < objs.length; ++i) {
+                res[i] = converters[i].convert(objs[i]);
+            }
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return res;
+    }
+
+    private static Object requireNonNull(Object obj) {
+        if (obj == null) {
+            // same as reflective calls passing null for a primitive parameter
+            throw new IllegalArgumentException();
+        }
+        return obj;
+    }
+
     /**
      * Shadows internal objects according to shadow class for return value.
      * @param obj internal object.
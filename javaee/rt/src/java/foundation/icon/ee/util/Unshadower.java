@@ -159,6 +159,44 @@ public class Unshadower {
         }
     }
 
+    /**
+     * Returns a converter which unshadows return values of the given class.
+     * The converter does the same as {@link #unshadow(Object)}.
+     *
+     * @param c declared return class of a shadow method.
+     * @return converter
+     */
+    public static Converter converterFor(Class<?> c) {
+        if (c == void.class) {
+            return so -> null;
+        } else if (c == boolean.class) {
+            return so -> so;
+        } else if (c == char.class) {
+            return so -> BigInteger.valueOf((char) so);
+        } else if (c == byte.class) {
+            return so -> BigInteger.valueOf((byte) so);
+        } else if (c == short.class) {
+            return so -> BigInteger.valueOf((short) so);
+        } else if (c == int.class) {
+            return so -> BigInteger.valueOf((int) so);
+        } else if (c == long.class) {
+            return so -> BigInteger.valueOf((long) so);
+        } else if (c == s.java.lang.String.class) {
+            return so -> (so == null) ? null
+                    : ((s.java.lang.String) so).getUnderlying();
+        } else if (c == s.java.math.BigInteger.class) {
+            return so -> (so == null) ? null
+                    : ((s.java.math.BigInteger) so).getUnderlying();
+        } else if (c == p.score.Address.class) {
+            return so -> (so == null) ? null
+                    : new Address(((p.score.Address) so).toByteArray());
+        } else if (c == a.ByteArray.class) {
+            return so -> (so == null) ? null
+                    : ((a.ByteArray) so).getUnderlying();
+        }
+        return Unshadower::unshadow;
+    }
+
     private static final char CLASS_START = 'L';
     private static final char CLASS_END = ';';
 
@@ -20,6 +20,7 @@ package foundation.icon.ee.util.xxhash;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Objects;
 
 /**
  * Hash function producing {@code long}-valued result from byte sequences of any length and
@@ -104,4 +105,14 @@ public abstract class LongHashFunction implements Serializable {
     public long hashBytes(byte[] input) {
         return unsafeHash(input, UnsafeAccess.BYTE_BASE, input.length);
     }
+
+    /**
+     * Returns the hash code for {@code len} bytes of the given array from {@code off}.
+     *
+     * @throws IndexOutOfBoundsException if the range is out of the array bounds
+     */
+    public long hashBytes(byte[] input, int off, int len) {
+        Objects.checkFromIndexSize(off, len, input.length);
+        return unsafeHash(input, UnsafeAccess.BYTE_BASE + off, len);
+    }
 }
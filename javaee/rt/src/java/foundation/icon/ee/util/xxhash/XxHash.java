@@ -35,12 +35,16 @@ public class XxHash {
     private static final long P5 = 2870177450012600261L;
 
     public static byte[] hash128(byte[] msg) {
+        return hash128(msg, 0, msg.length);
+    }
+
+    public static byte[] hash128(byte[] msg, int off, int len) {
         var buf = ByteBuffer.allocate(16);
         ByteOrder oder = buf.order();
         buf.order(ByteOrder.LITTLE_ENDIAN);
         buf.asLongBuffer()
-                .put(LongHashFunction.xx(0).hashBytes(msg))
-                .put(LongHashFunction.xx(1).hashBytes(msg));
+                .put(LongHashFunction.xx(0).hashBytes(msg, off, len))
+                .put(LongHashFunction.xx(1).hashBytes(msg, off, len));
         buf.position(buf.position() + 16);
         buf.order(oder);
         return buf.array();
@@ -232,6 +232,14 @@ public class CommonInstrumentation implements IInstrumentation {
         }
     }
 
+    @Override
+    public boolean enterMethodAndCheckLeaves(int frameSize, int leafFrameSize) {
+        enterMethod(frameSize);
+        // A leaf at the depth and size of this method is accounted for exactly as if it entered its own frame.
+        return (null == this.currentFrame.forceExitState)
+                && this.currentFrame.stackWatcher.canEnterMethod(leafFrameSize);
+    }
+
     @Override
     public void exitMethod(int frameSize) {
         // may be redundant with class metering
@@ -4,6 +4,7 @@ import org.aion.avm.core.IExternalState;
 
 public interface FrameContext {
     IDBStorage getDBStorage();
+    StorageKeyCache getStorageKeyCache();
     IExternalState getExternalState();
     boolean waitForRefund();
     void limitPendingRefundLength();
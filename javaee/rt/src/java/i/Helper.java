@@ -14,6 +14,7 @@ public class Helper implements IRuntimeSetup {
     public static final String RUNTIME_HELPER_NAME = "H";
 
     private static IInstrumentation target;
+    private static boolean graphWritten;
 
 
     public static <T> s.java.lang.Class<T> wrapAsClass(Class<T> input) {
@@ -55,6 +56,10 @@ public class Helper implements IRuntimeSetup {
         target.enterMethod(frameSize);
     }
 
+    public static boolean enterMethodAndCheckLeaves(int frameSize, int leafFrameSize) {
+        return target.enterMethodAndCheckLeaves(frameSize, leafFrameSize);
+    }
+
     public static void exitMethod(int frameSize) {
         target.exitMethod(frameSize);
     }
@@ -63,6 +68,23 @@ public class Helper implements IRuntimeSetup {
         target.enterCatchBlock(depth, size);
     }
 
+    /**
+     * Note:  This is called by the write barriers injected when the DApp is loaded (see GraphWriteBarrier).
+     */
+    public static void markGraphWritten() {
+        graphWritten = true;
+    }
+
+    @Override
+    public boolean isGraphWritten() {
+        return graphWritten;
+    }
+
+    @Override
+    public void setGraphWritten(boolean written) {
+        graphWritten = written;
+    }
+
     @Override
     public void attach(IInstrumentation instrumentation) {
         RuntimeAssertionError.assertTrue(null == target);
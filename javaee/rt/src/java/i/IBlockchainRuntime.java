@@ -1,9 +1,11 @@
 package i;
 
+import a.BooleanArray;
 import a.ByteArray;
 import p.score.Address;
 import p.score.AnyDB;
 import p.score.ByteArrayObjectWriter;
+import p.score.Hasher;
 import p.score.ObjectReader;
 import s.java.lang.Class;
 import s.java.lang.String;
@@ -138,8 +140,11 @@ public interface IBlockchainRuntime {
     void avm_println(String message);
 
     ByteArray avm_hash(String alg, ByteArray msg);
+    Hasher avm_newHasher(String alg);
     boolean avm_verifySignature(String alg, ByteArray msg, ByteArray sig,
             ByteArray pubKey);
+    BooleanArray avm_verifySignatures(String alg, IObjectArray msgs,
+            IObjectArray sigs, IObjectArray pubKeys);
     ByteArray avm_recoverKey(String alg, ByteArray msg, ByteArray sig,
             boolean compressed);
     ByteArray avm_aggregate(String type, ByteArray prevAgg, ByteArray values);
@@ -5,5 +5,7 @@ public interface IDBStorage {
     byte[] getBytes(byte[] key);
     void setArrayLength(byte[] key, int l);
     int getArrayLength(byte[] key);
+    void prefetch(byte[]... keys);
+    void invalidateCache();
     void flush();
 }
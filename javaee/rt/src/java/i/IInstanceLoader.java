@@ -0,0 +1,16 @@
+package i;
+
+
+/**
+ * Installed on stub instances created when an object graph is loaded lazily.
+ * The stub calls it the first time it is accessed (see lazyLoad()), to populate itself from the stored graph.
+ */
+public interface IInstanceLoader {
+    /**
+     * Populates the stub instance with the data stored at the given position of the graph.
+     *
+     * @param instance The stub instance.
+     * @param position The position of the instance data (after the class name) in the graph.
+     */
+    void loadInstance(Object instance, int position);
+}
@@ -11,18 +11,32 @@ public interface IInstrumentation {
     // The instrumentation instance associated with the given thread and also installed into the Helper of the currently-running DApp.
     ThreadLocal<IInstrumentation> attachedThreadInstrumentation = new ThreadLocal<>();
 
+    /**
+     * Returns the instrumentation attached to the current thread.
+     * Prefer this to attachedThreadInstrumentation.get() since it avoids the ThreadLocal lookup on carrier threads.
+     *
+     * @return The attached instrumentation or null if none.
+     */
+    static IInstrumentation current() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof InstrumentationCarrier) {
+            return ((InstrumentationCarrier) thread).instrumentation;
+        }
+        return attachedThreadInstrumentation.get();
+    }
+
     static IInstrumentation charge(long cost) throws OutOfEnergyException {
-        IInstrumentation ins = attachedThreadInstrumentation.get();
+        IInstrumentation ins = current();
         ins.chargeEnergy(cost);
         return ins;
     }
 
     static long getEnergyLeft() {
-        return attachedThreadInstrumentation.get().energyLeft();
+        return current().energyLeft();
     }
 
     static FrameContext getCurrentFrameContext() {
-        return attachedThreadInstrumentation.get().getFrameContext();
+        return current().getFrameContext();
     }
 
     void enterNewFrame(ClassLoader contractLoader, long energyLeft, int nextHashCode, InternedClasses classWrappers, FrameContext frameContext);
@@ -49,6 +63,13 @@ public interface IInstrumentation {
     int getCurStackSize();
     int getCurStackDepth();
     void enterMethod(int frameSize);
+    /**
+     * Enters a method which calls leaf methods (see StackWatcherClassAdapter), like enterMethod(frameSize).
+     * @param frameSize The frame size of the method.
+     * @param leafFrameSize The largest frame size of the leaf methods it calls.
+     * @return true if the leaf methods can be called without accounting for their frames.
+     */
+    boolean enterMethodAndCheckLeaves(int frameSize, int leafFrameSize);
     void exitMethod(int frameSize);
     void enterCatchBlock(int depth, int size);
     
@@ -9,4 +9,10 @@ package i;
 public interface IRuntimeSetup {
     public void attach(IInstrumentation instrumentation);
     public void detach(IInstrumentation instrumentation);
+
+    /**
+     * Returns true if the DApp code may have changed the object graph since the flag was cleared.
+     */
+    public boolean isGraphWritten();
+    public void setGraphWritten(boolean written);
 }
@@ -0,0 +1,18 @@
+package i;
+
+
+/**
+ * A thread which carries the instrumentation attached to it in a field.
+ * The shadow JDK classes are shared by all the DApps, so they can't reach the instrumentation through the per-DApp
+ * Helper statics.  On a carrier thread, IInstrumentation.current() reads the field instead of looking up the
+ * ThreadLocal, which matters since nearly every shadow method charges energy through it.
+ * Any other thread still works, through IInstrumentation.attachedThreadInstrumentation.
+ */
+public class InstrumentationCarrier extends Thread {
+    // Only accessed by this thread (see InstrumentationHelpers.attachThread()).
+    IInstrumentation instrumentation;
+
+    public InstrumentationCarrier(Runnable target, String name) {
+        super(target, name);
+    }
+}
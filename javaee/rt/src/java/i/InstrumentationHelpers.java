@@ -8,15 +8,23 @@ public class InstrumentationHelpers {
     public static void attachThread(IInstrumentation instrumentation) {
         RuntimeAssertionError.assertTrue(null == IInstrumentation.attachedThreadInstrumentation.get());
         IInstrumentation.attachedThreadInstrumentation.set(instrumentation);
+        Thread thread = Thread.currentThread();
+        if (thread instanceof InstrumentationCarrier) {
+            ((InstrumentationCarrier) thread).instrumentation = instrumentation;
+        }
     }
     public static void detachThread(IInstrumentation instrumentation) {
         RuntimeAssertionError.assertTrue(instrumentation == IInstrumentation.attachedThreadInstrumentation.get());
         IInstrumentation.attachedThreadInstrumentation.remove();
+        Thread thread = Thread.currentThread();
+        if (thread instanceof InstrumentationCarrier) {
+            ((InstrumentationCarrier) thread).instrumentation = null;
+        }
     }
 
     public static void pushNewStackFrame(IRuntimeSetup runtimeSetup, ClassLoader contractLoader, long energyLeft, int nextHashCode, InternedClasses classWrappers, FrameContext frameContext) {
         // Get the instrumentation for this thread (must be attached).
-        IInstrumentation instrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation instrumentation = IInstrumentation.current();
         RuntimeAssertionError.assertTrue(null != instrumentation);
         
         // Tell the instrumentation to create the new frame for the DApp we are entering.
@@ -27,7 +35,7 @@ public class InstrumentationHelpers {
     }
     public static int popExistingStackFrame(IRuntimeSetup runtimeSetup) {
         // Get the instrumentation for this thread (must be attached).
-        IInstrumentation instrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation instrumentation = IInstrumentation.current();
         RuntimeAssertionError.assertTrue(null != instrumentation);
 
         var flag = instrumentation.getFrameContext().getStatusFlag();
@@ -42,7 +50,7 @@ public class InstrumentationHelpers {
 
     public static void temporarilyExitFrame(IRuntimeSetup runtimeSetup) {
         // Get the instrumentation for this thread (must be attached).
-        IInstrumentation instrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation instrumentation = IInstrumentation.current();
         RuntimeAssertionError.assertTrue(null != instrumentation);
         
         // We want to detach from the underlying DApp so we can re-enter it freshly, later.
@@ -50,7 +58,7 @@ public class InstrumentationHelpers {
     }
     public static void returnToExecutingFrame(IRuntimeSetup runtimeSetup) {
         // Get the instrumentation for this thread (must be attached).
-        IInstrumentation instrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation instrumentation = IInstrumentation.current();
         RuntimeAssertionError.assertTrue(null != instrumentation);
         
         // We want to re-attach to the DApp configured by this IRuntimeSetup.
@@ -1,9 +1,7 @@
 package i;
 
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
-
 import a.ByteArray;
+import foundation.icon.ee.io.ByteArrayBuilder;
 import s.java.lang.String;
 import s.java.lang.Byte;
 import s.java.lang.Short;
@@ -12,13 +10,17 @@ import s.java.lang.Long;
 import s.java.lang.Character;
 import p.score.Address;
 
-import java.math.BigInteger;
+import java.util.Arrays;
 
+/**
+ * Encodes storage keys.  Primitive and String keys are written without intermediate arrays, so a coder which is reset
+ * and reused doesn't allocate once its buffer is large enough.
+ */
 public class RLPCoder {
-    private ByteArrayOutputStream bos;
+    private final ByteArrayBuilder bos;
 
     public RLPCoder() {
-        bos = new ByteArrayOutputStream();
+        bos = new ByteArrayBuilder();
     }
 
     static final int SHORT_BASE = 0x80;
@@ -30,18 +32,31 @@ public class RLPCoder {
     }
 
     public byte[] toByteArray() {
-        return bos.toByteArray();
+        return Arrays.copyOf(bos.array(), bos.size());
+    }
+
+    /**
+     * Returns the buffer holding the encoded bytes, which are the first size() bytes.
+     */
+    public byte[] array() {
+        return bos.array();
+    }
+
+    public int size() {
+        return bos.size();
+    }
+
+    public void reset() {
+        bos.resize(0);
     }
 
     public void encode(int v) {
-        var bs = BigInteger.valueOf(v).toByteArray();
-        encode(bs);
+        encodeSigned(v);
     }
 
     public void encode(Object v) {
         if (v instanceof String) {
-            var bs = ((String) v).getUnderlying().getBytes(StandardCharsets.UTF_8);
-            encode(bs);
+            encodeUTF8(((String) v).getUnderlying());
         } else if (v instanceof ByteArray) {
             var bs = ((ByteArray) v).getUnderlying();
             encode(bs);
@@ -52,59 +67,117 @@ public class RLPCoder {
             var bs = ((s.java.math.BigInteger) v).getUnderlying().toByteArray();
             encode(bs);
         } else if (v instanceof Byte) {
-            var vv = ((Byte) v).getUnderlying();
-            var bs = BigInteger.valueOf(vv).toByteArray();
-            encode(bs);
+            encodeSigned(((Byte) v).getUnderlying());
         } else if (v instanceof Short) {
-            var vv = ((Short) v).getUnderlying();
-            var bs = BigInteger.valueOf(vv).toByteArray();
-            encode(bs);
+            encodeSigned(((Short) v).getUnderlying());
         } else if (v instanceof Integer) {
-            var vv = ((Integer) v).getUnderlying();
-            var bs = BigInteger.valueOf(vv).toByteArray();
-            encode(bs);
+            encodeSigned(((Integer) v).getUnderlying());
         } else if (v instanceof Long) {
-            var vv = ((Long) v).getUnderlying();
-            var bs = BigInteger.valueOf(vv).toByteArray();
-            encode(bs);
+            encodeSigned(((Long) v).getUnderlying());
         } else if (v instanceof Character) {
-            var vv = ((Character) v).getUnderlying();
-            var bs = BigInteger.valueOf(vv).toByteArray();
-            encode(bs);
+            encodeSigned(((Character) v).getUnderlying());
         } else {
             throw new IllegalArgumentException("bad key type :" + v.getClass());
         }
     }
 
+    // Same bytes as encoding BigInteger.valueOf(v).toByteArray().
+    private void encodeSigned(long v) {
+        int l = (java.lang.Long.SIZE - java.lang.Long.numberOfLeadingZeros(v < 0 ? ~v : v)) / 8 + 1;
+        if (l == 1 && v >= 0 && v < SHORT_BASE) {
+            bos.write((int) v);
+            return;
+        }
+        bos.write(SHORT_BASE + l);
+        for (int i = l - 1; i >= 0; i--) {
+            bos.write((int) (v >> (i * 8)));
+        }
+    }
+
+    // Same bytes as encoding s.getBytes(StandardCharsets.UTF_8), which replaces unpaired surrogates by '?'.
+    private void encodeUTF8(java.lang.String s) {
+        int n = s.length();
+        int l = 0;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                l += 1;
+            } else if (c < 0x800) {
+                l += 2;
+            } else if (java.lang.Character.isSurrogate(c)) {
+                if (java.lang.Character.isHighSurrogate(c) && i + 1 < n && java.lang.Character.isLowSurrogate(s.charAt(i + 1))) {
+                    l += 4;
+                    i++;
+                } else {
+                    l += 1;
+                }
+            } else {
+                l += 3;
+            }
+        }
+        if (l == 1) {
+            // The single byte is below SHORT_BASE, so it is its own encoding.
+            char c = s.charAt(0);
+            bos.write(c < 0x80 ? c : '?');
+            return;
+        }
+        writeLength(l);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bos.write(c);
+            } else if (c < 0x800) {
+                bos.write(0xc0 | (c >> 6));
+                bos.write(0x80 | (c & 0x3f));
+            } else if (java.lang.Character.isSurrogate(c)) {
+                if (java.lang.Character.isHighSurrogate(c) && i + 1 < n && java.lang.Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = java.lang.Character.toCodePoint(c, s.charAt(++i));
+                    bos.write(0xf0 | (cp >> 18));
+                    bos.write(0x80 | ((cp >> 12) & 0x3f));
+                    bos.write(0x80 | ((cp >> 6) & 0x3f));
+                    bos.write(0x80 | (cp & 0x3f));
+                } else {
+                    bos.write('?');
+                }
+            } else {
+                bos.write(0xe0 | (c >> 12));
+                bos.write(0x80 | ((c >> 6) & 0x3f));
+                bos.write(0x80 | (c & 0x3f));
+            }
+        }
+    }
+
     private void encode(byte[] bs) {
         int l = bs.length;
         if (l == 1 && (bs[0] & 0xFF) < SHORT_BASE) {
             bos.write(bs[0]);
-        } else if (l <= SHORT_LEN_LIMIT) {
-            bos.write(SHORT_BASE + l);
+        } else {
+            writeLength(l);
             bos.write(bs, 0, l);
+        }
+    }
+
+    private void writeLength(int l) {
+        if (l <= SHORT_LEN_LIMIT) {
+            bos.write(SHORT_BASE + l);
         } else if (l <= 0xFF) {
             bos.write(LONG_BASE + 1);
             bos.write(l);
-            bos.write(bs, 0, l);
         } else if (l <= 0xFFFF) {
             bos.write(LONG_BASE + 2);
             bos.write(l >> 8);
             bos.write(l);
-            bos.write(bs, 0, l);
         } else if (l <= 0xFFFFFF) {
             bos.write(LONG_BASE + 3);
             bos.write(l >> 16);
             bos.write(l >> 8);
             bos.write(l);
-            bos.write(bs, 0, l);
         } else {
             bos.write(LONG_BASE + 4);
             bos.write(l >> 24);
             bos.write(l >> 16);
             bos.write(l >> 8);
             bos.write(l);
-            bos.write(bs, 0, l);
         }
     }
 }
@@ -104,6 +104,21 @@ public class StackWatcher {
         }
     }
 
+    /**
+     * Checks, without changing the current depth and size, whether enterMethod(frameSize) would succeed.
+     * This is how a caller accounts for the leaf methods it calls, which don't call enterMethod and exitMethod.
+     * @param frameSize size of the frame to enter (in number of slots).
+     * @return true if the frame fits in the stack.
+     */
+    public boolean canEnterMethod(int frameSize){
+        if (checkDepth && (curDepth > maxStackDepth)){
+            return false;
+        }
+
+        frameSize += RESERVED_AVM_SLOT + RESERVED_JVM_SLOT;
+        return !(checkSize && (curSize + frameSize > maxStackSize));
+    }
+
     /**
      * This method will be inserted into every exit point of every instrumented method.
      * It will validate/shrink the depth and size of the current JVM stack.
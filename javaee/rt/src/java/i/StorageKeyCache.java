@@ -0,0 +1,114 @@
+package i;
+
+import foundation.icon.ee.util.Crypto;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * The storage keys of the items of a DApp's DBs, by the data they are hashed from (the DB prefix and the encoded key).
+ * It has the same lifecycle as the LoadedDApp, so the keys used by the transactions of a DApp are derived once.
+ * The data is built in a reused coder and looked up without copying it, so a hit doesn't allocate.
+ *
+ * Note that the returned keys are shared, so they must not be modified.
+ */
+public class StorageKeyCache {
+    // Approximate bytes taken by an entry, besides its data and key.
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final LinkedHashMap<Data, byte[]> keys;
+    private final RLPCoder coder = new RLPCoder();
+    private final Data probe = new Data(null, 0);
+    private long approximateSize;
+
+    public StorageKeyCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("invalid max entries " + maxEntries);
+        }
+        this.keys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Data, byte[]> eldest) {
+                if (size() > maxEntries) {
+                    approximateSize -= entrySize(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Starts the data of a key with the prefix, returning the coder to encode the rest of it.
+     */
+    public RLPCoder newData(byte[] prefix) {
+        this.coder.reset();
+        this.coder.write(prefix);
+        return this.coder;
+    }
+
+    /**
+     * @return The length of the data built since newData().
+     */
+    public int getDataLength() {
+        return this.coder.size();
+    }
+
+    /**
+     * @return The SHA3-256 hash of the data built since newData().
+     */
+    public byte[] getStorageKey() {
+        this.probe.set(this.coder.array(), this.coder.size());
+        byte[] key = this.keys.get(this.probe);
+        if (null == key) {
+            Data data = new Data(this.coder.toByteArray(), this.coder.size());
+            key = Crypto.sha3_256(data.bytes);
+            this.keys.put(data, key);
+            this.approximateSize += entrySize(data, key);
+        }
+        return key;
+    }
+
+    public long getApproximateSize() {
+        return this.approximateSize;
+    }
+
+    private static long entrySize(Data data, byte[] key) {
+        return ENTRY_OVERHEAD + data.length + key.length;
+    }
+
+    private static final class Data {
+        private byte[] bytes;
+        private int length;
+        private int hash;
+
+        Data(byte[] bytes, int length) {
+            set(bytes, length);
+        }
+
+        void set(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+            int h = 1;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + bytes[i];
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Data)) {
+                return false;
+            }
+            Data other = (Data) o;
+            return Arrays.equals(this.bytes, 0, this.length, other.bytes, 0, other.length);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
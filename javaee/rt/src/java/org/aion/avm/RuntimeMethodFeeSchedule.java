@@ -286,6 +286,7 @@ public class RuntimeMethodFeeSchedule {
 
     public static final long BlockchainRuntime_avm_hash_base = RT_METHOD_FEE_LEVEL_1;
     public static final long BlockchainRuntime_avm_hash_per_bytes = 50;
+    public static final int BlockchainRuntime_avm_newHasher = RT_METHOD_FEE_LEVEL_1;
     public static final long BlockchainRuntime_avm_verifySignature = RT_METHOD_FEE_LEVEL_6;
     public static final long BlockchainRuntime_avm_verifySignature_per_bytes = 50;
     public static final long BlockchainRuntime_avm_recoverKey = RT_METHOD_FEE_LEVEL_6;
@@ -5,6 +5,7 @@
 
 package org.aion.avm.core;
 
+import a.BooleanArray;
 import a.ByteArray;
 import foundation.icon.ee.io.RLPDataReader;
 import foundation.icon.ee.io.RLPDataWriter;
@@ -12,6 +13,7 @@ import foundation.icon.ee.io.RLPNDataReader;
 import foundation.icon.ee.io.RLPNDataWriter;
 import foundation.icon.ee.types.Address;
 import foundation.icon.ee.types.Bytes;
+import foundation.icon.ee.types.DAppRuntimeState;
 import foundation.icon.ee.types.ManualRevertException;
 import foundation.icon.ee.types.Status;
 import foundation.icon.ee.types.Transaction;
@@ -27,6 +29,7 @@ import i.IObject;
 import i.IObjectArray;
 import i.IRuntimeSetup;
 import i.InstrumentationHelpers;
+import i.OutOfEnergyException;
 import org.aion.avm.RuntimeMethodFeeSchedule;
 import org.aion.avm.StorageFees;
 import org.aion.avm.core.persistence.LoadedDApp;
@@ -35,11 +38,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import p.score.AnyDB;
 import pi.AnyDBImpl;
+import pi.HasherImpl;
 import pi.ObjectReaderImpl;
 import pi.ObjectWriterImpl;
 import score.RevertedException;
 import score.UserRevertedException;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 
@@ -227,10 +232,18 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
                                 Object dataObj) {
         Objects.requireNonNull(targetAddress, "Destination can't be NULL");
         externalState.waitForCallbacks();
-        IInstrumentation inst = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation inst = IInstrumentation.current();
         var hash = inst.peekNextHashCode();
         long stepLeft = inst.energyLeft();
-        var rs = dApp.saveRuntimeState(hash, StorageFees.MAX_GRAPH_SIZE);
+        var rs = dApp.getUnchangedSnapshot();
+        if (rs != null) {
+            // Nothing was written since the last snapshot, so we don't need to serialize the graph again.
+            rs = new DAppRuntimeState(rs, hash);
+            dApp.keepRuntimeState(rs);
+        } else {
+            rs = dApp.saveRuntimeState(hash, StorageFees.MAX_GRAPH_SIZE);
+        }
+        dApp.setSnapshot(rs);
         var cid = externalState.getContractID();
         var rds = task.getReentrantDAppStack();
         rds.getTop().setRuntimeState(task.getEID(), rs, cid);
@@ -267,6 +280,10 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
         assert newRS!=null;
         dApp.loadRuntimeState(newRS);
         dApp.invalidateStateCache();
+        // The objects are now in the state the callee left them (or rolled back to our snapshot if it failed).
+        dApp.setSnapshot(newRS);
+        // called contract may change the storage of this contract
+        inst.getFrameContext().getDBStorage().invalidateCache();
         inst.forceNextHashCode(newRS.getGraph().getNextHash());
         inst.chargeEnergy(res.getStepUsed().longValue());
         int s = res.getStatus();
@@ -337,6 +354,12 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
                 data.getUnderlying()));
     }
 
+    @Override
+    public p.score.Hasher avm_newHasher(s.java.lang.String alg) {
+        Objects.requireNonNull(alg, "Algorithm can't be NULL");
+        return new HasherImpl(Crypto.newHasher(alg.getUnderlying()));
+    }
+
     @Override
     public boolean avm_verifySignature(s.java.lang.String alg, ByteArray msg,
             ByteArray sig, ByteArray pubKey) {
@@ -348,6 +371,71 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
                 sig.getUnderlying(), pubKey.getUnderlying());
     }
 
+    @Override
+    public BooleanArray avm_verifySignatures(s.java.lang.String alg,
+            IObjectArray msgs, IObjectArray sigs, IObjectArray pubKeys) {
+        Objects.requireNonNull(alg, "Algorithm can't be NULL");
+        Objects.requireNonNull(msgs, "Messages can't be NULL");
+        Objects.requireNonNull(sigs, "Signatures can't be NULL");
+        Objects.requireNonNull(pubKeys, "Public keys can't be NULL");
+        int n = msgs.length();
+        if (sigs.length() != n || pubKeys.length() != n) {
+            throw new IllegalArgumentException(
+                    "the numbers of messages, signatures and public keys must be the same");
+        }
+        // Steps are charged for each signature as avm_verifySignature does,
+        // up to the first one failing. Signatures which the steps left can't
+        // pay for are not verified.
+        var costs = new long[n];
+        var msgBytes = new byte[n][];
+        var sigBytes = new byte[n][];
+        var keyBytes = new byte[n][];
+        long left = IInstrumentation.getEnergyLeft();
+        RuntimeException failure = null;
+        int end = 0;
+        for (; end < n; end++) {
+            var msg = msgs.get(end);
+            costs[end] = RuntimeMethodFeeSchedule.BlockchainRuntime_avm_verifySignature
+                    + RuntimeMethodFeeSchedule.BlockchainRuntime_avm_verifySignature_per_bytes
+                    * (msg instanceof ByteArray ? ((ByteArray) msg).length() : 0);
+            if (costs[end] > left) {
+                break;
+            }
+            left -= costs[end];
+            try {
+                msgBytes[end] = toBytes(msg, "Message");
+                sigBytes[end] = toBytes(sigs.get(end), "Signature");
+                keyBytes[end] = toBytes(pubKeys.get(end), "Public key");
+            } catch (RuntimeException e) {
+                failure = e;
+                break;
+            }
+        }
+        var ins = IInstrumentation.current();
+        var res = Crypto.verifySignatures(alg.getUnderlying(),
+                Arrays.copyOf(msgBytes, end), Arrays.copyOf(sigBytes, end),
+                Arrays.copyOf(keyBytes, end), i -> ins.chargeEnergy(costs[i]));
+        if (failure != null) {
+            // the steps left pay for the failing one as well
+            ins.chargeEnergy(costs[end]);
+            throw failure;
+        }
+        if (end < n) {
+            // the steps left can't pay for the next one
+            ins.chargeEnergyImmediately(costs[end]);
+            throw new OutOfEnergyException();
+        }
+        return new BooleanArray(res);
+    }
+
+    private static byte[] toBytes(Object e, String name) {
+        Objects.requireNonNull(e, name + " can't be NULL");
+        if (!(e instanceof ByteArray)) {
+            throw new IllegalArgumentException(name + " must be a byte array");
+        }
+        return ((ByteArray) e).getUnderlying();
+    }
+
     @Override
     public ByteArray avm_recoverKey(s.java.lang.String alg, ByteArray msg,
             ByteArray sig, boolean compressed) {
@@ -382,14 +470,14 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
             case "bls12-381-g1":
                 nPoints = dataBytes.length / Crypto.BLS12381_G1_LEN;
                 if (!compressed) nPoints /= 2;
-                IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+                IInstrumentation.current().chargeEnergy(
                         RuntimeMethodFeeSchedule.BlockchainRuntime_avm_ecAdd +
                         RuntimeMethodFeeSchedule.BlockchainRuntime_avm_ecAdd_per_points * nPoints);
                 return new ByteArray(Crypto.bls12381G1Add(dataBytes, compressed));
             case "bls12-381-g2":
                 nPoints = dataBytes.length / Crypto.BLS12381_G2_LEN;
                 if (!compressed) nPoints /= 2;
-                IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+                IInstrumentation.current().chargeEnergy(
                         RuntimeMethodFeeSchedule.BlockchainRuntime_avm_ecAdd +
                         RuntimeMethodFeeSchedule.BlockchainRuntime_avm_ecAdd_per_points * nPoints * 8);
                 return new ByteArray(Crypto.bls12381G2Add(dataBytes, compressed));
@@ -406,11 +494,11 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
         byte[] scalarBytes = scalar.getUnderlying();
         switch (curve.getUnderlying()) {
             case "bls12-381-g1":
-                IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+                IInstrumentation.current().chargeEnergy(
                         RuntimeMethodFeeSchedule.BlockchainRuntime_avm_ecScalarMul_g1);
                 return new ByteArray(Crypto.bls12381G1ScalarMul(scalarBytes, dataBytes, compressed));
             case "bls12-381-g2":
-                IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+                IInstrumentation.current().chargeEnergy(
                         RuntimeMethodFeeSchedule.BlockchainRuntime_avm_ecScalarMul_g2);
                 return new ByteArray(Crypto.bls12381G2ScalarMul(scalarBytes, dataBytes, compressed));
         }
@@ -427,7 +515,7 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
             case "bls12-381":
                 nPairs = dataBytes.length / (Crypto.BLS12381_G1_LEN + Crypto.BLS12381_G2_LEN);
                 if (!compressed) nPairs /= 2;
-                IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+                IInstrumentation.current().chargeEnergy(
                         RuntimeMethodFeeSchedule.BlockchainRuntime_avm_ecPairingCheck +
                         RuntimeMethodFeeSchedule.BlockchainRuntime_avm_ecPairingCheck_per_pairs * nPairs);
                 return Crypto.bls12381PairingCheck(dataBytes, compressed);
@@ -5,6 +5,7 @@ import foundation.icon.ee.score.Loader;
 import i.CommonInstrumentation;
 import i.IInstrumentation;
 import i.IInstrumentationFactory;
+import i.InstrumentationHelpers;
 
 
 /**
@@ -27,6 +28,19 @@ public class CommonAvmFactory {
         return executor;
     }
 
+    /**
+     * Initializes the node environment and instrumentation classes so that
+     * the first transaction doesn't pay for them.
+     */
+    public static void warmUp() {
+        NodeEnvironment.getInstance();
+        IInstrumentationFactory factory = new CommonInstrumentationFactory();
+        IInstrumentation instrumentation = factory.createInstrumentation();
+        InstrumentationHelpers.attachThread(instrumentation);
+        InstrumentationHelpers.detachThread(instrumentation);
+        factory.destroyInstrumentation(instrumentation);
+    }
+
     private static class CommonInstrumentationFactory implements IInstrumentationFactory {
         @Override
         public IInstrumentation createInstrumentation() {
@@ -63,14 +63,14 @@ public class DAppCreator {
                                                               tx,
                                                               runtimeSetup,
                                                               dapp);
-            FrameContextImpl fc = new FrameContextImpl(externalState, true);
+            FrameContextImpl fc = new FrameContextImpl(externalState, dapp.getStorageKeyCache(), true);
             InstrumentationHelpers.pushNewStackFrame(runtimeSetup, dapp.loader, tx.getLimit(), nextHashCode, dapp.getInternedClasses(), fc);
             previousRuntime = dapp.attachBlockchainRuntime(br);
 
             externalState.setTransformedCode(transformer.getTransformedCodeBytes());
 
             // Force the classes in the dapp to initialize so that the <clinit> is run (since we already saved the version without).
-            IInstrumentation threadInstrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+            IInstrumentation threadInstrumentation = IInstrumentation.current();
             result = runClinitAndCreateMainInstance(dapp, threadInstrumentation, externalState, tx);
             if (prevState != null) {
                 prevState.inherit(thisState);
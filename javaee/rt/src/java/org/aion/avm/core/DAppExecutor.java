@@ -35,7 +35,7 @@ public class DAppExecutor {
         Result result = null;
 
         // Note that the instrumentation is just a per-thread access to the state stack - we can grab it at any time as it never changes for this thread.
-        IInstrumentation threadInstrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation threadInstrumentation = IInstrumentation.current();
         
         // We need to get the interned classes before load the graph since it might need to instantiate class references.
         InternedClasses initialClassWrappers = dapp.getInternedClasses();
@@ -67,7 +67,9 @@ public class DAppExecutor {
                                                           tx,
                                                           dapp.runtimeSetup,
                                                           dapp);
-        FrameContextImpl fc = new FrameContextImpl(externalState);
+        FrameContextImpl fc = new FrameContextImpl(externalState, dapp.getStorageKeyCache());
+        // The write barriers of the DApp tell us if the graph may have changed since this snapshot (or the ones taken for calls).
+        dapp.setSnapshot(oldRS);
         InstrumentationHelpers.pushNewStackFrame(dapp.runtimeSetup, dapp.loader, tx.getLimit(), nextHashCode, initialClassWrappers, fc);
         IBlockchainRuntime previousRuntime = dapp.attachBlockchainRuntime(br);
 
@@ -87,24 +89,36 @@ public class DAppExecutor {
                 externalState.waitForCallbacks();
             }
 
-            var newRS = dapp.saveRuntimeState();
+            DAppRuntimeState newRS = dapp.getUnchangedSnapshot();
+            if (newRS == oldRS) {
+                // Nothing was written, so the graph is still the one we loaded and we don't need to serialize and hash it.
+                dapp.keepRuntimeState(oldRS);
+            } else {
+                if (null == newRS) {
+                    newRS = dapp.saveRuntimeState();
+                } else {
+                    // Nothing was written since the snapshot taken for the last call, so only the next hash code changed.
+                    newRS = new DAppRuntimeState(newRS, threadInstrumentation.peekNextHashCode());
+                    dapp.keepRuntimeState(newRS);
+                }
 
-            if (externalState.isReadOnly() && !oldRS.isAcceptableChangeInReadOnly(newRS)) {
-                throw new GenericPredefinedException(Status.AccessDenied);
-            }
+                if (externalState.isReadOnly() && !oldRS.isAcceptableChangeInReadOnly(newRS)) {
+                    throw new GenericPredefinedException(Status.AccessDenied);
+                }
 
-            if (newRS.getGraph().equalGraphData(oldRS.getGraph())) {
-                newRS = new DAppRuntimeState(newRS, oldRS.getGraph().getNextHash());
-            } else {
-                var postOG = newRS.getGraph();
-                byte[] postCallGraphData = postOG.getGraphData();
-                var effectiveLen = postCallGraphData.length;
-                var replaceOGCost = externalState.getStepCost()
-                        .setStorageReplace(rawGraphDataLength, effectiveLen);
-                threadInstrumentation.chargeEnergy(replaceOGCost);
-                if (null == stateToResume) {
-                    // Save back the state before we return.
-                    externalState.putObjectGraph(postOG);
+                if (newRS.getGraph().equalGraphData(oldRS.getGraph())) {
+                    newRS = new DAppRuntimeState(newRS, oldRS.getGraph().getNextHash());
+                } else {
+                    var postOG = newRS.getGraph();
+                    byte[] postCallGraphData = postOG.getGraphData();
+                    var effectiveLen = postCallGraphData.length;
+                    var replaceOGCost = externalState.getStepCost()
+                            .setStorageReplace(rawGraphDataLength, effectiveLen);
+                    threadInstrumentation.chargeEnergy(replaceOGCost);
+                    if (null == stateToResume) {
+                        // Save back the state before we return.
+                        externalState.putObjectGraph(postOG);
+                    }
                 }
             }
 
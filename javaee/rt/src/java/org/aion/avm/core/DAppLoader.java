@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.aion.avm.core.classloading.AvmClassLoader;
+import org.aion.avm.core.persistence.ClassAccessorGenerator;
+import org.aion.avm.core.persistence.GraphWriteBarrier;
 import org.aion.avm.core.persistence.LoadedDApp;
 import org.aion.avm.core.types.ImmortalDappModule;
 import org.aion.avm.core.types.TransformedDappModule;
@@ -36,7 +38,8 @@ public class DAppLoader {
         ImmortalDappModule app = ImmortalDappModule.readFromJar(immortalDappJar);
         
         // We now need all the classes which will loaded within the class loader for this DApp (includes Helper and userlib classes we add).
-        Map<String, byte[]> allClasses = Helpers.mapIncludingHelperBytecode(app.classes, Helpers.loadDefaultHelperBytecode());
+        // The user classes are loaded with write barriers and their generated persistence accessors.
+        Map<String, byte[]> allClasses = Helpers.mapIncludingHelperBytecode(ClassAccessorGenerator.generate(GraphWriteBarrier.instrument(app.classes)), Helpers.loadDefaultHelperBytecode());
         
         // Construct the per-contract class loader.
         AvmClassLoader classLoader = NodeEnvironment.singleton.createInvocationClassLoader(allClasses);
@@ -50,7 +53,7 @@ public class DAppLoader {
         byte[] apis = JarBuilder.getAPIsBytesFromJAR(immortalDappJar);
         if (apis == null)
             return null;
-        return new LoadedDApp(classLoader, splitClasses.sortedUserClasses, splitClasses.constantClass, app.mainClass, apis, preserveDebuggability);
+        return new LoadedDApp(classLoader, splitClasses.sortedUserClasses, splitClasses.constantClass, app.mainClass, apis, preserveDebuggability, sizeOf(allClasses));
     }
 
     /**
@@ -61,7 +64,8 @@ public class DAppLoader {
      */
     public static LoadedDApp fromTransformed(TransformedDappModule app, byte[] apis, boolean preserveDebuggability) {
         // We now need all the classes which will loaded within the class loader for this DApp (includes Helper and userlib classes we add).
-        Map<String, byte[]> allClasses = Helpers.mapIncludingHelperBytecode(app.classes, Helpers.loadDefaultHelperBytecode());
+        // The user classes are loaded with write barriers and their generated persistence accessors.
+        Map<String, byte[]> allClasses = Helpers.mapIncludingHelperBytecode(ClassAccessorGenerator.generate(GraphWriteBarrier.instrument(app.classes)), Helpers.loadDefaultHelperBytecode());
         
         // Construct the per-contract class loader.
         AvmClassLoader classLoader = NodeEnvironment.singleton.createInvocationClassLoader(allClasses);
@@ -72,10 +76,18 @@ public class DAppLoader {
 
         // We now have all the information to describe the LoadedDApp.
         SplitClasses splitClasses = SplitClasses.splitAllSavedClasses(alphabeticalContractClasses);
-        return new LoadedDApp(classLoader, splitClasses.sortedUserClasses, splitClasses.constantClass, app.mainClass, apis, preserveDebuggability);
+        return new LoadedDApp(classLoader, splitClasses.sortedUserClasses, splitClasses.constantClass, app.mainClass, apis, preserveDebuggability, sizeOf(allClasses));
     }
 
 
+    private static long sizeOf(Map<String, byte[]> classes) {
+        long size = 0;
+        for (byte[] bytes : classes.values()) {
+            size += bytes.length;
+        }
+        return size;
+    }
+
     private static class SplitClasses {
         public static SplitClasses splitAllSavedClasses(List<Class<?>> classes) {
             Class<?>[] sortedUserClasses = classes.stream()
@@ -18,11 +18,25 @@ package org.aion.avm.core;
 
 import i.IDBStorage;
 import i.IInstrumentation;
+import org.aion.avm.core.util.ByteArrayWrapper;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Storage of a frame.
+ *
+ * Values read or written in the frame are cached so that following reads
+ * of the same key don't need a round trip. Storage of the contract may be
+ * changed by other frames only while it calls another contract, so the cache
+ * shall be invalidated after each call. The cache is dropped with the frame.
+ */
 public class DBStorage implements IDBStorage {
     private final IExternalState ctx;
+    // null value means there is no value for the key.
+    private final Map<ByteArrayWrapper, byte[]> cache = new HashMap<>();
 
     public DBStorage(IExternalState ctx) {
         this.ctx = ctx;
@@ -46,15 +60,24 @@ public class DBStorage implements IDBStorage {
     }
 
     private void charge(long cost) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(cost);
+        IInstrumentation.current().chargeEnergy(cost);
     }
 
     private void chargeImmediately(long cost) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergyImmediately(cost);
+        IInstrumentation.current().chargeEnergyImmediately(cost);
     }
 
     private boolean tryCharge(long cost) {
-        return IInstrumentation.attachedThreadInstrumentation.get().tryChargeEnergy(cost);
+        return IInstrumentation.current().tryChargeEnergy(cost);
+    }
+
+    private byte[] getStorage(ByteArrayWrapper k, byte[] key) {
+        if (cache.containsKey(k)) {
+            return cache.get(k);
+        }
+        var value = ctx.getStorage(key);
+        cache.put(k, value);
+        return value;
     }
 
     public void setBytes(byte[] k, byte[] v) {
@@ -68,17 +91,30 @@ public class DBStorage implements IDBStorage {
         // pending items.
         this.ctx.limitPendingCallbackLength();
 
+        var ck = new ByteArrayWrapper(k);
+        // If the previous value is cached, charge the same steps as the
+        // previous size callback would do without requesting it.
+        boolean cached = cache.containsKey(ck);
+        var cachedPrev = cache.get(ck);
+        int cachedPrevSize = cachedPrev != null ? cachedPrev.length : 0;
         if (v == null) {
             var rb = stepCost.replaceBase();
 
             if (tryCharge(rb)) {
-                ctx.putStorage(k, null, prevSize -> {
-                    if (prevSize > 0) {
-                        chargeImmediately(stepCost.setStorageDelete(prevSize) - rb);
+                if (cached) {
+                    if (cachedPrevSize > 0) {
+                        chargeImmediately(stepCost.setStorageDelete(cachedPrevSize) - rb);
                     }
-                });
+                    ctx.putStorage(k, null, null);
+                } else {
+                    ctx.putStorage(k, null, prevSize -> {
+                        if (prevSize > 0) {
+                            chargeImmediately(stepCost.setStorageDelete(prevSize) - rb);
+                        }
+                    });
+                }
             } else {
-                var prev = ctx.getStorage(k);
+                var prev = getStorage(ck, k);
                 if (prev != null) {
                     chargeImmediately(stepCost.setStorageDelete(prev.length));
                 } else {
@@ -88,14 +124,22 @@ public class DBStorage implements IDBStorage {
             }
         } else {
             if (tryCharge(stepCost.setStorageSet(v.length))) {
-                ctx.putStorage(k, v, prevSize -> {
-                    if (prevSize > 0) {
+                if (cached) {
+                    if (cachedPrevSize > 0) {
                         chargeImmediately(-stepCost.setBase() + stepCost.replaceBase()
-                                + prevSize * stepCost.delete());
+                                + cachedPrevSize * stepCost.delete());
                     }
-                });
+                    ctx.putStorage(k, v, null);
+                } else {
+                    ctx.putStorage(k, v, prevSize -> {
+                        if (prevSize > 0) {
+                            chargeImmediately(-stepCost.setBase() + stepCost.replaceBase()
+                                    + prevSize * stepCost.delete());
+                        }
+                    });
+                }
             } else {
-                var prev = ctx.getStorage(k);
+                var prev = getStorage(ck, k);
                 if (prev != null) {
                     chargeImmediately(stepCost.setStorageReplace(prev.length, v.length));
                 } else {
@@ -104,10 +148,11 @@ public class DBStorage implements IDBStorage {
                 ctx.putStorage(k, v, null);
             }
         }
+        cache.put(ck, v);
     }
 
     public byte[] getBytes(byte[] key) {
-        var value = ctx.getStorage(key);
+        var value = getStorage(new ByteArrayWrapper(key), key);
         var stepCost = ctx.getStepCost();
         int len = 0;
         if (value != null)
@@ -116,6 +161,24 @@ public class DBStorage implements IDBStorage {
         return value;
     }
 
+    // Steps are charged when the values are actually read by getBytes, so
+    // prefetching doesn't change the step usage.
+    public void prefetch(byte[]... keys) {
+        var missing = new ArrayList<byte[]>(keys.length);
+        for (var key : keys) {
+            if (!cache.containsKey(new ByteArrayWrapper(key))) {
+                missing.add(key);
+            }
+        }
+        if (missing.size() > 1) {
+            ctx.prefetchStorage(missing.toArray(new byte[0][]));
+        }
+    }
+
+    public void invalidateCache() {
+        cache.clear();
+    }
+
     public void flush() {
     }
 }
@@ -18,21 +18,25 @@ package org.aion.avm.core;
 
 import i.FrameContext;
 import i.IDBStorage;
+import i.StorageKeyCache;
 
 public class FrameContextImpl implements FrameContext {
     private final IExternalState externalState;
     private final IDBStorage dbs;
+    private final StorageKeyCache storageKeyCache;
     private int flag;
     private boolean deployFrame;
 
-    FrameContextImpl(IExternalState externalState) {
+    FrameContextImpl(IExternalState externalState, StorageKeyCache storageKeyCache) {
         this.externalState = externalState;
         this.dbs = new DBStorage(externalState);
+        this.storageKeyCache = storageKeyCache;
     }
 
-    FrameContextImpl(IExternalState externalState, boolean deploy) {
+    FrameContextImpl(IExternalState externalState, StorageKeyCache storageKeyCache, boolean deploy) {
         this.externalState = externalState;
         this.dbs = new DBStorage(externalState);
+        this.storageKeyCache = storageKeyCache;
         this.deployFrame = deploy;
     }
 
@@ -40,6 +44,10 @@ public class FrameContextImpl implements FrameContext {
         return dbs;
     }
 
+    public StorageKeyCache getStorageKeyCache() {
+        return storageKeyCache;
+    }
+
     public IExternalState getExternalState() {
         return externalState;
     }
@@ -19,6 +19,7 @@ public interface IExternalState {
 
     long REVISION_PURGE_ENUM_CACHE = 1 << 22;
     long REVISION_FIX_MAP_VALUES = 1 << 24;
+    long REVISION_COMPACT_INSTRUMENTATION = 1 << 25;
 
     /**
      *  Returns code ID
@@ -125,6 +126,16 @@ public interface IExternalState {
      */
     byte[] getStorage(byte[] key);
 
+    /**
+     * Loads the values of the specified keys at once so that following
+     * {@link #getStorage(byte[])} calls for the keys don't need a round trip.
+     * It's only a hint and it doesn't change the result of getStorage.
+     *
+     * @param keys The keys to be loaded.
+     */
+    default void prefetchStorage(byte[][] keys) {
+    }
+
     /**
      * Returns the balance of the specified address.
      *
@@ -205,4 +216,8 @@ public interface IExternalState {
     default boolean fixMapValues() {
         return (getRevision() & REVISION_FIX_MAP_VALUES) != 0;
     }
+
+    default boolean compactInstrumentation() {
+        return (getRevision() & REVISION_COMPACT_INSTRUMENTATION) != 0;
+    }
 }
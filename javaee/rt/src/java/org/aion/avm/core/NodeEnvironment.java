@@ -25,6 +25,7 @@ import p.score.BranchDB;
 import p.score.ByteArrayObjectWriter;
 import p.score.Context;
 import p.score.DictDB;
+import p.score.Hasher;
 import p.score.ObjectReader;
 import p.score.ObjectWriter;
 import p.score.VarDB;
@@ -82,6 +83,7 @@ public class NodeEnvironment {
                     , ByteArrayObjectWriter.class
                     , Context.class
                     , DictDB.class
+                    , Hasher.class
                     , ObjectReader.class
                     , ObjectWriter.class
                     , VarDB.class
@@ -208,7 +210,7 @@ public class NodeEnvironment {
         // create the object size look-up maps
         Map<String, Integer> rtObjectSizeMap = computeRuntimeObjectSizes();
         // This is to ensure the JCLAndAPIHeapInstanceSize is updated with the correct instance size of a newly added JCL or API class
-        RuntimeAssertionError.assertTrue(rtObjectSizeMap.size() == 105);
+        RuntimeAssertionError.assertTrue(rtObjectSizeMap.size() == 106);
 
         Map<String, Integer> shadowObjectSizeMap = new HashMap<>(); // pre-rename; shadow objects and exceptions
         Map<String, Integer> apiObjectSizeMap = new HashMap<>(); // post-rename; API objects
@@ -328,6 +330,10 @@ public class NodeEnvironment {
                 throw RuntimeAssertionError.unreachable("Nobody should be calling this");
             }
             @Override
+            public boolean enterMethodAndCheckLeaves(int frameSize, int leafFrameSize) {
+                throw RuntimeAssertionError.unreachable("Nobody should be calling this");
+            }
+            @Override
             public void exitMethod(int frameSize) {
                 throw RuntimeAssertionError.unreachable("Nobody should be calling this");
             }
@@ -1,5 +1,6 @@
 package org.aion.avm.core.instrument;
 
+import org.objectweb.asm.Label;
 import org.objectweb.asm.util.Printer;
 
 import java.util.Collections;
@@ -8,7 +9,7 @@ import java.util.List;
 
 /**
  * Describes a single basic block within a method.
- * Note that only the opcodeSequence, switchCounts, and allocatedTypes are meant to be immutable.
+ * Note that only the opcodeSequence, switchCounts, allocatedTypes and the control flow information are meant to be immutable.
  * The variable energyCost is mutable, deliberately, to allow for mutation requests.
  */
 public class BasicBlock {
@@ -19,16 +20,43 @@ public class BasicBlock {
      */
     public final List<Integer> switchCases;
     public final List<String> allocatedTypes;
+    /**
+     * The labels which resolve to the start of this block.
+     */
+    public final List<Label> entryLabels;
+    /**
+     * The labels this block may jump to, through a jump or a switch at its end.
+     */
+    public final List<Label> branchTargets;
+    /**
+     * True if the execution may continue into the next block in code order.
+     */
+    public final boolean fallsThrough;
+    /**
+     * True if any opcode in the block may throw an exception (an OutOfEnergyException from the charge itself aside).
+     */
+    public final boolean canThrow;
+    /**
+     * True if the block is the start of an exception handler.
+     */
+    public final boolean isExceptionHandler;
     private long energyCost;
 
-    public BasicBlock(List<Integer> opcodes, List<Integer> switchCases, List<String> allocatedTypes) {
+    public BasicBlock(List<Integer> opcodes, List<Integer> switchCases, List<String> allocatedTypes,
+                      List<Label> entryLabels, List<Label> branchTargets, boolean fallsThrough, boolean canThrow, boolean isExceptionHandler) {
         this.opcodeSequence = Collections.unmodifiableList(opcodes);
         this.switchCases = Collections.unmodifiableList(switchCases);
         this.allocatedTypes = Collections.unmodifiableList(allocatedTypes);
+        this.entryLabels = Collections.unmodifiableList(entryLabels);
+        this.branchTargets = Collections.unmodifiableList(branchTargets);
+        this.fallsThrough = fallsThrough;
+        this.canThrow = canThrow;
+        this.isExceptionHandler = isExceptionHandler;
     }
 
     /**
      * Sets the cost of the block, so that the accounting idiom will be prepended when the block is next serialized.
+     * A cost of zero means that the cost of the block is charged by another block (see ChargeMerger).
      * @param energyCost The energy cost.
      */
     public void setEnergyCost(long energyCost) {
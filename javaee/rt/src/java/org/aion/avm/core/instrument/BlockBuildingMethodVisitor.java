@@ -7,12 +7,16 @@ import org.objectweb.asm.Opcodes;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 /**
  * Collects information regarding BasicBlocks within a method.
  * Specifically, this refers to the opcodes, switch cases, and allocated types within a given block.
+ * The control flow between the blocks (labels, branch targets, fall through, and whether a block may throw) is also
+ * recorded so the charges of the blocks can be merged (see ChargeMerger).
  * 
  * Note that this was adapted from the ClassRewriter.BlockMethodReader.
  */
@@ -21,6 +25,10 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     private List<Integer> currentBuildingBlock;
     private List<Integer> currentBlockSwitches;
     private List<String> currentAllocationList;
+    private List<Label> currentEntryLabels;
+    private List<Label> currentBranchTargets;
+    private boolean currentCanThrow;
+    private final Set<Label> handlerLabels;
 
     public BlockBuildingMethodVisitor() {
         super(Opcodes.ASM7);
@@ -30,6 +38,10 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
         this.currentBuildingBlock = new ArrayList<>();
         this.currentBlockSwitches = new ArrayList<>();
         this.currentAllocationList = new ArrayList<>();
+        this.currentEntryLabels = new ArrayList<>();
+        this.currentBranchTargets = new ArrayList<>();
+        this.currentCanThrow = false;
+        this.handlerLabels = new HashSet<>();
     }
 
     public List<BasicBlock> getBlockList() {
@@ -43,10 +55,18 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
         this.currentBuildingBlock = null;
         this.currentBlockSwitches = null;
         this.currentAllocationList = null;
+        this.currentEntryLabels = null;
+        this.currentBranchTargets = null;
+    }
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+        // Note that these are visited before the code.
+        this.handlerLabels.add(handler);
     }
     @Override
     public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
         this.currentBuildingBlock.add(opcode);
+        this.currentCanThrow = true;
     }
     @Override
     public void visitIincInsn(int var, int increment) {
@@ -55,6 +75,9 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     @Override
     public void visitInsn(int opcode) {
         this.currentBuildingBlock.add(opcode);
+        if (mayThrow(opcode)) {
+            this.currentCanThrow = true;
+        }
         
         // Note that this could be an athrow, in which case we should handle this as a label.
         // (this, like the jump case, shouldn't normally matter since there shouldn't be unreachable code after it).
@@ -65,14 +88,24 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     @Override
     public void visitIntInsn(int opcode, int operand) {
         this.currentBuildingBlock.add(opcode);
+        // NEWARRAY may throw on a negative size.
+        if (Opcodes.NEWARRAY == opcode) {
+            this.currentCanThrow = true;
+        }
     }
     @Override
     public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
         this.currentBuildingBlock.add(Opcodes.INVOKEDYNAMIC);
+        this.currentCanThrow = true;
     }
     @Override
     public void visitJumpInsn(int opcode, Label label) {
         this.currentBuildingBlock.add(opcode);
+        this.currentBranchTargets.add(label);
+        if (Opcodes.JSR == opcode) {
+            // Not expected in our class versions but never merge across a subroutine.
+            this.currentCanThrow = true;
+        }
         // Jump is the end of a block so emit the label.
         // (note that this is also where if statements show up).
         handleLabel();
@@ -80,14 +113,22 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     @Override
     public void visitLabel(Label label) {
         handleLabel();
+        // Any label visited before the first opcode of a block resolves to the start of that block.
+        this.currentEntryLabels.add(label);
     }
     @Override
     public void visitLdcInsn(Object value) {
         this.currentBuildingBlock.add(Opcodes.LDC);
+        // Only the numeric constants are known not to involve anything which may fail (class or string resolution).
+        if (!(value instanceof Integer || value instanceof Long || value instanceof Float || value instanceof Double)) {
+            this.currentCanThrow = true;
+        }
     }
     @Override
     public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
         this.currentBuildingBlock.add(Opcodes.LOOKUPSWITCH);
+        this.currentBranchTargets.add(dflt);
+        Collections.addAll(this.currentBranchTargets, labels);
         // Count the number of labels plus the default.
         this.currentBlockSwitches.add(labels.length + 1);
         
@@ -97,14 +138,18 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     @Override
     public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
         this.currentBuildingBlock.add(opcode);
+        this.currentCanThrow = true;
     }
     @Override
     public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
         this.currentBuildingBlock.add(Opcodes.MULTIANEWARRAY);
+        this.currentCanThrow = true;
     }
     @Override
     public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
         this.currentBuildingBlock.add(Opcodes.TABLESWITCH);
+        this.currentBranchTargets.add(dflt);
+        Collections.addAll(this.currentBranchTargets, labels);
         // Count the number of labels plus the default.
         this.currentBlockSwitches.add(labels.length + 1);
         
@@ -114,6 +159,8 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     @Override
     public void visitTypeInsn(int opcode, String type) {
         this.currentBuildingBlock.add(opcode);
+        // All of NEW, ANEWARRAY, CHECKCAST and INSTANCEOF resolve a class (and most may fail on their own).
+        this.currentCanThrow = true;
         // If this is a new, att the type to the allocation list for the block.
         if (Opcodes.NEW == opcode) {
             this.currentAllocationList.add(type);
@@ -122,6 +169,9 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     @Override
     public void visitVarInsn(int opcode, int var) {
         this.currentBuildingBlock.add(opcode);
+        if (Opcodes.RET == opcode) {
+            this.currentCanThrow = true;
+        }
     }
 
 
@@ -132,11 +182,88 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
         // Seal the previous block (avoid the case where the block is empty).
         if (!this.currentBuildingBlock.isEmpty()) {
             // Add the block to our finished block list.
-            this.buildingList.add(new BasicBlock(this.currentBuildingBlock, this.currentBlockSwitches, this.currentAllocationList));
+            int lastOpcode = this.currentBuildingBlock.get(this.currentBuildingBlock.size() - 1);
+            boolean isExceptionHandler = false;
+            for (Label label : this.currentEntryLabels) {
+                if (this.handlerLabels.contains(label)) {
+                    isExceptionHandler = true;
+                    break;
+                }
+            }
+            this.buildingList.add(new BasicBlock(this.currentBuildingBlock, this.currentBlockSwitches, this.currentAllocationList,
+                    this.currentEntryLabels, this.currentBranchTargets, !endsFlow(lastOpcode), this.currentCanThrow, isExceptionHandler));
             // Start the new block.
             this.currentBuildingBlock = new ArrayList<>();
             this.currentBlockSwitches = new ArrayList<>();
             this.currentAllocationList = new ArrayList<>();
+            this.currentEntryLabels = new ArrayList<>();
+            this.currentBranchTargets = new ArrayList<>();
+            this.currentCanThrow = false;
+        }
+    }
+
+    /**
+     * @return True if the execution never continues to the next opcode after the given one.
+     */
+    private static boolean endsFlow(int opcode) {
+        switch (opcode) {
+            case Opcodes.GOTO:
+            case Opcodes.JSR:
+            case Opcodes.RET:
+            case Opcodes.TABLESWITCH:
+            case Opcodes.LOOKUPSWITCH:
+            case Opcodes.IRETURN:
+            case Opcodes.LRETURN:
+            case Opcodes.FRETURN:
+            case Opcodes.DRETURN:
+            case Opcodes.ARETURN:
+            case Opcodes.RETURN:
+            case Opcodes.ATHROW:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Determines whether a zero operand opcode may throw.
+     * Note that leaving the method (returns) is treated like a throw since the execution doesn't reach any other block.
+     */
+    private static boolean mayThrow(int opcode) {
+        switch (opcode) {
+            case Opcodes.IALOAD:
+            case Opcodes.LALOAD:
+            case Opcodes.FALOAD:
+            case Opcodes.DALOAD:
+            case Opcodes.AALOAD:
+            case Opcodes.BALOAD:
+            case Opcodes.CALOAD:
+            case Opcodes.SALOAD:
+            case Opcodes.IASTORE:
+            case Opcodes.LASTORE:
+            case Opcodes.FASTORE:
+            case Opcodes.DASTORE:
+            case Opcodes.AASTORE:
+            case Opcodes.BASTORE:
+            case Opcodes.CASTORE:
+            case Opcodes.SASTORE:
+            case Opcodes.IDIV:
+            case Opcodes.LDIV:
+            case Opcodes.IREM:
+            case Opcodes.LREM:
+            case Opcodes.IRETURN:
+            case Opcodes.LRETURN:
+            case Opcodes.FRETURN:
+            case Opcodes.DRETURN:
+            case Opcodes.ARETURN:
+            case Opcodes.RETURN:
+            case Opcodes.ARRAYLENGTH:
+            case Opcodes.ATHROW:
+            case Opcodes.MONITORENTER:
+            case Opcodes.MONITOREXIT:
+                return true;
+            default:
+                return false;
         }
     }
 }
@@ -19,7 +19,8 @@ import org.objectweb.asm.Opcodes;
  * which comes after a label (as a BasicBlock is defined as starting after a label).
  *
  * The actual value charged is expected to be set on the BasicBlock elsewhere as this class doesn't know where the
- * number came from, just how to inject the call.
+ * number came from, just how to inject the call.  A block with a zero cost is charged by another block so nothing is
+ * injected for it.
  */
 public class ChargeEnergyInjectionVisitor extends MethodVisitor {
     private final List<BasicBlock> blocks;
@@ -143,14 +144,16 @@ public class ChargeEnergyInjectionVisitor extends MethodVisitor {
             // We were waiting for this so make sure that this block has some associated cost.
             BasicBlock currentBlock = this.blocks.get(this.nextBlockIndexToWrite);
             long currentEnergyCost = currentBlock.getEnergyCost();
-            // We should never encounter a block with a zero/negative cost.
-            RuntimeAssertionError.assertTrue(currentEnergyCost > 0L);
+            // We should never encounter a block with a negative cost (zero means that it was merged into another block).
+            RuntimeAssertionError.assertTrue(currentEnergyCost >= 0L);
             // We track this as a long but report it as an int so prove that this can't overflow.
             RuntimeAssertionError.assertTrue(currentEnergyCost <= (long)Integer.MAX_VALUE);
 
             // Inject the bytecodes.
-            super.visitLdcInsn(Integer.valueOf((int)currentEnergyCost));
-            super.visitMethodInsn(Opcodes.INVOKESTATIC, Helper.RUNTIME_HELPER_NAME, "chargeEnergy", "(I)V", false);
+            if (currentEnergyCost > 0L) {
+                super.visitLdcInsn(Integer.valueOf((int)currentEnergyCost));
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, Helper.RUNTIME_HELPER_NAME, "chargeEnergy", "(I)V", false);
+            }
 
             // Reset the state machine for the next block.
             this.scanningToNewBlockStart = false;
@@ -0,0 +1,298 @@
+package org.aion.avm.core.instrument;
+
+import org.objectweb.asm.Label;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Merges the energy charges of basic blocks into the charge of a dominating block, so fewer Helper.chargeEnergy()
+ * call-outs are executed.  This runs on the blocks of a method after their costs are set and before the charges are
+ * injected.
+ *
+ * The charge of a block B is moved to its immediate dominator A only if every execution which charges A then reaches B
+ * exactly once, and B can't be reached without charging A.  With R being the blocks reachable from A without passing
+ * through B (A included), this means:
+ * -no block in R may throw or return (so an exception can't skip B after A was charged)
+ * -all the successors of the blocks in R are in R or B, and R has no cycle
+ * -all the predecessors of B and of the blocks in R other than A are in R, and none of them is an exception handler
+ * The total charged on every path is hence unchanged:  only the time of some charges moves earlier, over opcodes which
+ * have no effect outside the frame, which is also the only difference if an OutOfEnergyException is thrown.
+ *
+ * This covers straight-line sequences of blocks as well as if/else and switch diamonds (within loop bodies or not)
+ * whose arms are free of such opcodes.
+ */
+public class ChargeMerger {
+    // Larger regions are left as they are, to keep the analysis cheap.
+    private static final int MAX_REGION_SIZE = 64;
+
+    private final List<BasicBlock> blocks;
+    private final int root;
+    private final List<List<Integer>> successors;
+    private final List<List<Integer>> predecessors;
+    // Blocks with a branch target which isn't the start of any block.
+    private final BitSet unresolved;
+
+    private ChargeMerger(List<BasicBlock> blocks) {
+        this.blocks = blocks;
+        int count = blocks.size();
+        // The virtual root enters the method and all the exception handlers.
+        this.root = count;
+
+        Map<Label, Integer> labelToBlock = new HashMap<>();
+        for (int i = 0; i < count; ++i) {
+            for (Label label : blocks.get(i).entryLabels) {
+                labelToBlock.put(label, i);
+            }
+        }
+        this.successors = new ArrayList<>();
+        this.predecessors = new ArrayList<>();
+        this.unresolved = new BitSet();
+        for (int i = 0; i <= count; ++i) {
+            this.successors.add(new ArrayList<>());
+            this.predecessors.add(new ArrayList<>());
+        }
+        addEdge(this.root, 0);
+        for (int i = 0; i < count; ++i) {
+            BasicBlock block = blocks.get(i);
+            if (block.isExceptionHandler) {
+                addEdge(this.root, i);
+            }
+            for (Label target : block.branchTargets) {
+                Integer to = labelToBlock.get(target);
+                // The labels of verified code always resolve but be safe, such a block is never merged over.
+                if (null == to) {
+                    this.unresolved.set(i);
+                } else {
+                    addEdge(i, to);
+                }
+            }
+            if (block.fallsThrough && (i + 1 < count)) {
+                addEdge(i, i + 1);
+            }
+        }
+    }
+
+    private void addEdge(int from, int to) {
+        this.successors.get(from).add(to);
+        this.predecessors.get(to).add(from);
+    }
+
+    /**
+     * Moves the costs of the blocks which can be charged by a dominating block to that block, leaving them with a zero
+     * cost.  The total cost of the blocks is unchanged.
+     *
+     * @param blocks The blocks of a method, in code order, with their costs set.
+     */
+    public static void mergeCharges(List<BasicBlock> blocks) {
+        if (blocks.size() < 2) {
+            return;
+        }
+        long total = 0L;
+        for (BasicBlock block : blocks) {
+            total += block.getEnergyCost();
+        }
+        // A merged charge must still fit the int operand of the charge call.
+        if (total > Integer.MAX_VALUE) {
+            return;
+        }
+        new ChargeMerger(blocks).merge();
+    }
+
+    private void merge() {
+        int count = this.blocks.size();
+        int[] idom = computeImmediateDominators();
+        int[] mergedInto = new int[count];
+        Arrays.fill(mergedInto, -1);
+        for (int b = 0; b < count; ++b) {
+            int a = idom[b];
+            if (a >= 0 && a != this.root && isChargedExactlyOnceFrom(a, b)) {
+                mergedInto[b] = a;
+            }
+        }
+
+        long[] costs = new long[count];
+        for (int i = 0; i < count; ++i) {
+            costs[i] = this.blocks.get(i).getEnergyCost();
+        }
+        for (int b = 0; b < count; ++b) {
+            if (mergedInto[b] >= 0) {
+                // The dominator might have been merged as well, so the charge goes where the dominator's charge went.
+                int target = mergedInto[b];
+                while (mergedInto[target] >= 0) {
+                    target = mergedInto[target];
+                }
+                costs[target] += this.blocks.get(b).getEnergyCost();
+                costs[b] = 0L;
+            }
+        }
+        for (int i = 0; i < count; ++i) {
+            this.blocks.get(i).setEnergyCost(costs[i]);
+        }
+    }
+
+    /**
+     * Computes the immediate dominators with the iterative algorithm of Cooper, Harvey and Kennedy.
+     *
+     * @return The immediate dominator of each block, or -1 for unreachable blocks.
+     */
+    private int[] computeImmediateDominators() {
+        int count = this.blocks.size();
+        int[] order = new int[count + 1];
+        int[] postOrder = new int[count + 1];
+        int size = computeReversePostOrder(order, postOrder);
+
+        int[] idom = new int[count + 1];
+        Arrays.fill(idom, -1);
+        idom[this.root] = this.root;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < size; ++i) {
+                int b = order[i];
+                int newIdom = -1;
+                for (int p : this.predecessors.get(b)) {
+                    if (idom[p] < 0) {
+                        continue;
+                    }
+                    newIdom = (newIdom < 0) ? p : intersect(idom, postOrder, p, newIdom);
+                }
+                if (idom[b] != newIdom) {
+                    idom[b] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+        return Arrays.copyOf(idom, count);
+    }
+
+    private static int intersect(int[] idom, int[] postOrder, int b1, int b2) {
+        while (b1 != b2) {
+            while (postOrder[b1] < postOrder[b2]) {
+                b1 = idom[b1];
+            }
+            while (postOrder[b2] < postOrder[b1]) {
+                b2 = idom[b2];
+            }
+        }
+        return b1;
+    }
+
+    /**
+     * Fills the blocks reachable from the root in reverse post order and the post order number of each reachable block.
+     *
+     * @return The number of reachable blocks, including the root.
+     */
+    private int computeReversePostOrder(int[] order, int[] postOrder) {
+        Arrays.fill(postOrder, -1);
+        boolean[] visited = new boolean[this.blocks.size() + 1];
+        int[] nextSuccessor = new int[this.blocks.size() + 1];
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        int number = 0;
+        stack.push(this.root);
+        visited[this.root] = true;
+        while (!stack.isEmpty()) {
+            int b = stack.peek();
+            List<Integer> next = this.successors.get(b);
+            if (nextSuccessor[b] < next.size()) {
+                int s = next.get(nextSuccessor[b]++);
+                if (!visited[s]) {
+                    visited[s] = true;
+                    stack.push(s);
+                }
+            } else {
+                stack.pop();
+                postOrder[b] = number++;
+            }
+        }
+        for (int b = 0; b < postOrder.length; ++b) {
+            if (postOrder[b] >= 0) {
+                order[number - 1 - postOrder[b]] = b;
+            }
+        }
+        return number;
+    }
+
+    /**
+     * Checks the conditions under which the charge of b can be done by its immediate dominator a (see the class comment).
+     */
+    private boolean isChargedExactlyOnceFrom(int a, int b) {
+        BitSet region = new BitSet();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        region.set(a);
+        queue.add(a);
+        int size = 1;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            List<Integer> next = this.successors.get(u);
+            if (this.blocks.get(u).canThrow || next.isEmpty() || this.unresolved.get(u)) {
+                return false;
+            }
+            for (int v : next) {
+                if (v == b) {
+                    continue;
+                }
+                if (v == a) {
+                    // This is a cycle which can skip b.
+                    return false;
+                }
+                if (!region.get(v)) {
+                    if (++size > MAX_REGION_SIZE) {
+                        return false;
+                    }
+                    region.set(v);
+                    queue.add(v);
+                }
+            }
+        }
+        for (int u = region.nextSetBit(0); u >= 0; u = region.nextSetBit(u + 1)) {
+            if (u != a && (this.blocks.get(u).isExceptionHandler || !allInRegion(this.predecessors.get(u), region))) {
+                return false;
+            }
+        }
+        if (this.blocks.get(b).isExceptionHandler || !allInRegion(this.predecessors.get(b), region)) {
+            return false;
+        }
+        return isAcyclic(region, a, size);
+    }
+
+    private static boolean allInRegion(List<Integer> list, BitSet region) {
+        for (int i : list) {
+            if (!region.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAcyclic(BitSet region, int a, int size) {
+        // Kahn's algorithm over the edges within the region, which is entered only at a.
+        Map<Integer, Integer> inDegree = new HashMap<>();
+        for (int u = region.nextSetBit(0); u >= 0; u = region.nextSetBit(u + 1)) {
+            for (int v : this.successors.get(u)) {
+                if (region.get(v)) {
+                    inDegree.merge(v, 1, Integer::sum);
+                }
+            }
+        }
+        ArrayDeque<Integer> ready = new ArrayDeque<>();
+        ready.add(a);
+        int processed = 0;
+        while (!ready.isEmpty()) {
+            int u = ready.poll();
+            processed += 1;
+            for (int v : this.successors.get(u)) {
+                if (region.get(v) && 0 == inDegree.merge(v, -1, Integer::sum)) {
+                    ready.add(v);
+                }
+            }
+        }
+        return processed == size;
+    }
+}
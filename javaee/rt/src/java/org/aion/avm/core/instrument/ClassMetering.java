@@ -14,16 +14,27 @@ import java.util.Map;
  * Responsible for handling metering of individual code blocks within user code.
  * Internally, this activity is applied on a per-method basis, creating sub-visitors which perform the read and write operations:
  * -BlockBuildingMethodVisitor:  reads the bytecode, finding the basic blocks within each method, and using this to construct a billing total (algorithm internal to this class)
+ * -ChargeMerger:  moves the charges of blocks which are always reached from a dominating block into the charge of that block (optional)
  * -ChargeEnergyInjectionVisitor:  reads the bytecode again, using the basic blocks from the previous step to inject a billing call at the beginning of each block
  */
 public class ClassMetering extends ClassToolchain.ToolChainClassVisitor {
     private Map<String, Integer> objectSizes;
     private final BytecodeFeeScheduler bytecodeFeeScheduler;
+    private final boolean mergeCharges;
 
     public ClassMetering(Map<String, Integer> objectSizes) {
+        this(objectSizes, false);
+    }
+
+    /**
+     * @param objectSizes The instance sizes of the classes which may be allocated.
+     * @param mergeCharges True if the charges of the blocks should be merged where the total charged is the same on every path.
+     */
+    public ClassMetering(Map<String, Integer> objectSizes, boolean mergeCharges) {
         super(Opcodes.ASM7);
 
         this.objectSizes = objectSizes;
+        this.mergeCharges = mergeCharges;
         
         // Note that we construct the fee scheduler, internally.
         this.bytecodeFeeScheduler = new BytecodeFeeScheduler();
@@ -57,6 +68,9 @@ public class ClassMetering extends ClassToolchain.ToolChainClassVisitor {
                     long feeForBlock = calculateBlockFee(block);
                     block.setEnergyCost(feeForBlock);
                 }
+                if (mergeCharges) {
+                    ChargeMerger.mergeCharges(blocks);
+                }
 
                 // We can now build the injection visitor over the real visitor, and accept it in order to add the instrumentation.
                 ChargeEnergyInjectionVisitor instrumentingVisitor = new ChargeEnergyInjectionVisitor(realVisitor, blocks);
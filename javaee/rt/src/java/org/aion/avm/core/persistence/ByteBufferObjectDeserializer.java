@@ -3,8 +3,10 @@ package org.aion.avm.core.persistence;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 
+import a.ObjectArray;
 import i.IObjectDeserializer;
 import i.RuntimeAssertionError;
 
@@ -14,9 +16,25 @@ public class ByteBufferObjectDeserializer implements IObjectDeserializer {
     private final SortedFieldCache cache;
     private final IGlobalResolver resolver;
     private final IPersistenceNameMapper classNameMapper;
-    // Note that this will be null if this is our pre-pass where we are merely walking through the buffer to find the instance types.
+    // Note that this will be null if we are merely walking through the buffer to advance the cursor.
+    // Otherwise, it has the instances created so far.
     private final List<Object> instanceList;
 
+    // The owner of the object references being read:  an instance, a holder array for a single value or null for statics.
+    // The references are read into slotFields (the reference fields, in order) or, if that is null, into the elements of an array owner.
+    // Otherwise, the owner reads the references itself and forwardReference is set if one of them refers to an instance not created yet.
+    private Object slotOwner;
+    private Field[] slotFields;
+    private int slotOrdinal;
+    private boolean forwardReference;
+
+    // The slots which refer to instances not created yet, and the indices of those instances.
+    private Object[] pendingOwners = new Object[16];
+    private Field[] pendingFields = new Field[16];
+    private int[] pendingOrdinals = new int[16];
+    private int[] pendingIndices = new int[16];
+    private int pendingCount;
+
     public ByteBufferObjectDeserializer(ByteBuffer buffer, List<Object> instanceList, SortedFieldCache cache, IGlobalResolver resolver, IPersistenceNameMapper classNameMapper) {
         this.buffer = buffer;
         this.cache = cache;
@@ -96,14 +114,21 @@ public class ByteBufferObjectDeserializer implements IObjectDeserializer {
             }
             case ReferenceConstants.REF_NORMAL: {
                 int instanceIndex = this.buffer.getInt();
-                result = (null != this.instanceList)
-                        ? this.instanceList.get(instanceIndex)
-                        : null;
+                if (null == this.instanceList) {
+                    result = null;
+                } else if (instanceIndex < this.instanceList.size()) {
+                    result = this.instanceList.get(instanceIndex);
+                } else {
+                    // The instance isn't created yet so the slot is filled later (or the owner is read again, if it isn't a slot).
+                    addForwardReference(instanceIndex);
+                    result = null;
+                }
                 break;
             }
             default:
                 throw RuntimeAssertionError.unreachable("Unknown byte");
         }
+        this.slotOrdinal += 1;
         return result;
     }
 
@@ -122,51 +147,187 @@ public class ByteBufferObjectDeserializer implements IObjectDeserializer {
     }
 
 
+    /**
+     * Starts reading the given instance.  Its automatically deserialized fields and, if it is an array, its elements are slots.
+     *
+     * @param instance The instance, or a holder array which receives the single value read next.
+     */
+    public void beginInstance(Object instance) {
+        beginFields(instance, null);
+    }
+
+    /**
+     * Starts reading the fields of the given owner.
+     *
+     * @param owner The instance, or null for static fields.
+     * @param referenceFields The fields read by readObject(), in order.
+     */
+    public void beginFields(Object owner, Field[] referenceFields) {
+        this.slotOwner = owner;
+        this.slotFields = referenceFields;
+        this.slotOrdinal = 0;
+    }
+
+    /**
+     * Fills the slots which referred to instances not created yet, once all the instances are created.
+     */
+    public void fillForwardReferences() {
+        try {
+            for (int i = 0; i < this.pendingCount; i++) {
+                Object owner = this.pendingOwners[i];
+                Field field = this.pendingFields[i];
+                Object value = this.instanceList.get(this.pendingIndices[i]);
+                if (null != field) {
+                    field.set(owner, value);
+                } else if (owner instanceof ObjectArray) {
+                    ((ObjectArray) owner).set(this.pendingOrdinals[i], value);
+                } else {
+                    ((Object[]) owner)[this.pendingOrdinals[i]] = value;
+                }
+                this.pendingOwners[i] = null;
+            }
+        } catch (IllegalAccessException e) {
+            // Reflection errors can't happen since we set this up so we could access it.
+            throw RuntimeAssertionError.unexpected(e);
+        }
+        this.pendingCount = 0;
+        this.slotOwner = null;
+    }
+
+    /**
+     * Returns true if a reference to an instance which isn't created yet was read since the last call, but not into a slot.
+     */
+    public boolean takeForwardReference() {
+        boolean result = this.forwardReference;
+        this.forwardReference = false;
+        return result;
+    }
+
+    public int position() {
+        return this.buffer.position();
+    }
+
+    public void seek(int position) {
+        this.buffer.position(position);
+    }
+
+    /**
+     * Advances the cursor over the data of an instance, without reading it.
+     *
+     * @param layout The layout of the instance (see SortedFieldCache.getStubLayout()).
+     */
+    public void skipInstance(int[] layout) {
+        for (int size : layout) {
+            if (0 == size) {
+                skipObject();
+            } else {
+                this.buffer.position(this.buffer.position() + size);
+            }
+        }
+    }
+
+    private void skipObject() {
+        byte refType = this.buffer.get();
+        switch (refType) {
+            case ReferenceConstants.REF_NULL:
+                break;
+            case ReferenceConstants.REF_CLASS:
+                int length = (0xff & this.buffer.get());
+                this.buffer.position(this.buffer.position() + length);
+                break;
+            case ReferenceConstants.REF_CONSTANT:
+            case ReferenceConstants.REF_NORMAL:
+                this.buffer.position(this.buffer.position() + Integer.BYTES);
+                break;
+            default:
+                throw RuntimeAssertionError.unreachable("Unknown byte");
+        }
+    }
+
+
+    private void addForwardReference(int instanceIndex) {
+        Field field = null;
+        if (null != this.slotFields) {
+            field = this.slotFields[this.slotOrdinal];
+        } else if (!(this.slotOwner instanceof ObjectArray) && !(this.slotOwner instanceof Object[])) {
+            this.forwardReference = true;
+            return;
+        }
+        if (this.pendingCount == this.pendingIndices.length) {
+            int length = this.pendingCount * 2;
+            this.pendingOwners = Arrays.copyOf(this.pendingOwners, length);
+            this.pendingFields = Arrays.copyOf(this.pendingFields, length);
+            this.pendingOrdinals = Arrays.copyOf(this.pendingOrdinals, length);
+            this.pendingIndices = Arrays.copyOf(this.pendingIndices, length);
+        }
+        this.pendingOwners[this.pendingCount] = this.slotOwner;
+        this.pendingFields[this.pendingCount] = field;
+        this.pendingOrdinals[this.pendingCount] = this.slotOrdinal;
+        this.pendingIndices[this.pendingCount] = instanceIndex;
+        this.pendingCount += 1;
+    }
+
     private void internalDeserializeFieldsFromRoot(Class<?> rootClass, Class<?> thisClass, Object instance) {
         if (rootClass != thisClass) {
             // We can deserialize this one, but first see if we need to call a superclass.
             internalDeserializeFieldsFromRoot(rootClass, thisClass.getSuperclass(), instance);
             
-            // Now, serialize the fields in this level.
-            try {
-                Field[] fields = this.cache.getInstanceFields(thisClass);
-                for (Field field : fields) {
-                    // We need to crack the type, here.
-                    Class<?> type = field.getType();
-                    if (boolean.class == type) {
-                        boolean val = this.readBoolean();
-                        field.setBoolean(instance, val);
-                    } else if (byte.class == type) {
-                        byte val = this.readByte();
-                        field.setByte(instance, val);
-                    } else if (short.class == type) {
-                        short val = this.readShort();
-                        field.setShort(instance, val);
-                    } else if (char.class == type) {
-                        char val = this.readChar();
-                        field.setChar(instance, val);
-                    } else if (int.class == type) {
-                        int val = this.readInt();
-                        field.setInt(instance, val);
-                    } else if (float.class == type) {
-                        float val = this.readFloat();
-                        field.setFloat(instance, val);
-                    } else if (long.class == type) {
-                        long val = this.readLong();
-                        field.setLong(instance, val);
-                    } else if (double.class == type) {
-                        double val = this.readDouble();
-                        field.setDouble(instance, val);
-                    } else {
-                        // Object types require further logic.
-                        Object val = this.readObject();
-                        field.set(instance, val);
-                    }
+            // Now, serialize the fields in this level (the references are slots, whatever the instance reads itself).
+            Object outerOwner = this.slotOwner;
+            Field[] outerFields = this.slotFields;
+            int outerOrdinal = this.slotOrdinal;
+            beginFields(instance, this.cache.getReferenceFields(this.cache.getInstanceFields(thisClass)));
+            internalDeserializeFields(thisClass, instance);
+            this.slotOwner = outerOwner;
+            this.slotFields = outerFields;
+            this.slotOrdinal = outerOrdinal;
+        }
+    }
+
+    private void internalDeserializeFields(Class<?> thisClass, Object instance) {
+        IClassAccessor accessor = this.cache.getAccessor(thisClass);
+        if (null != accessor) {
+            accessor.deserializeFields(instance, this);
+            return;
+        }
+        try {
+            Field[] fields = this.cache.getInstanceFields(thisClass);
+            for (Field field : fields) {
+                // We need to crack the type, here.
+                Class<?> type = field.getType();
+                if (boolean.class == type) {
+                    boolean val = this.readBoolean();
+                    field.setBoolean(instance, val);
+                } else if (byte.class == type) {
+                    byte val = this.readByte();
+                    field.setByte(instance, val);
+                } else if (short.class == type) {
+                    short val = this.readShort();
+                    field.setShort(instance, val);
+                } else if (char.class == type) {
+                    char val = this.readChar();
+                    field.setChar(instance, val);
+                } else if (int.class == type) {
+                    int val = this.readInt();
+                    field.setInt(instance, val);
+                } else if (float.class == type) {
+                    float val = this.readFloat();
+                    field.setFloat(instance, val);
+                } else if (long.class == type) {
+                    long val = this.readLong();
+                    field.setLong(instance, val);
+                } else if (double.class == type) {
+                    double val = this.readDouble();
+                    field.setDouble(instance, val);
+                } else {
+                    // Object types require further logic.
+                    Object val = this.readObject();
+                    field.set(instance, val);
                 }
-            } catch (IllegalAccessException e) {
-                // Reflection errors can't happen since we set this up so we could access it.
-                throw RuntimeAssertionError.unexpected(e);
             }
+        } catch (IllegalAccessException e) {
+            // Reflection errors can't happen since we set this up so we could access it.
+            throw RuntimeAssertionError.unexpected(e);
         }
     }
 
@@ -3,8 +3,7 @@ package org.aion.avm.core.persistence;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.IdentityHashMap;
-import java.util.Queue;
+import java.util.Arrays;
 
 import i.IObjectSerializer;
 import i.RuntimeAssertionError;
@@ -17,12 +16,21 @@ public class ByteBufferObjectSerializer implements IObjectSerializer {
     private final IPersistenceNameMapper classNameMapper;
     private final InstanceIndexMapper instanceMapper;
 
-    public ByteBufferObjectSerializer(ByteBuffer buffer, Queue<Object> out_ToProcessQueue, SortedFieldCache cache, IGlobalResolver resolver, IPersistenceNameMapper classNameMapper) {
+    public ByteBufferObjectSerializer(ByteBuffer buffer, SortedFieldCache cache, IGlobalResolver resolver, IPersistenceNameMapper classNameMapper) {
         this.buffer = buffer;
         this.cache = cache;
         this.resolver = resolver;
         this.classNameMapper = classNameMapper;
-        this.instanceMapper = new InstanceIndexMapper(out_ToProcessQueue);
+        this.instanceMapper = new InstanceIndexMapper();
+    }
+
+    /**
+     * Returns the next instance to serialize, in the order they were first written as references.
+     *
+     * @return The instance, or null if all the instances written so far were returned.
+     */
+    public Object nextInstanceToProcess() {
+        return this.instanceMapper.next();
     }
 
     @Override
@@ -119,6 +127,11 @@ public class ByteBufferObjectSerializer implements IObjectSerializer {
             internalSerializeFieldsToRoot(rootClass, thisClass.getSuperclass(), instance);
             
             // Now, serialize the fields in this level.
+            IClassAccessor accessor = this.cache.getAccessor(thisClass);
+            if (null != accessor) {
+                accessor.serializeFields(instance, this);
+                return;
+            }
             try {
                 Field[] fields = this.cache.getInstanceFields(thisClass);
                 for (Field field : fields) {
@@ -172,27 +185,66 @@ public class ByteBufferObjectSerializer implements IObjectSerializer {
     }
 
 
+    /**
+     * Assigns indices to instances in the order they are first seen.  The instances are kept in an array in index order, which
+     * is also the breadth-first order they need to be serialized in, so the array is the work queue as well.
+     * The index is an open addressing identity hash table, so no boxed index is allocated per instance.
+     */
     private static class InstanceIndexMapper {
-        private int nextInstanceIndex;
-        private final IdentityHashMap<Object, Integer> instanceToIndex;
-        private final Queue<Object> sharedToProcessQueue;
+        private Object[] instances;
+        private int[] table;
+        private int size;
+        private int processed;
         
-        public InstanceIndexMapper(Queue<Object> sharedToProcessQueue) {
-            this.nextInstanceIndex = 0;
-            this.instanceToIndex = new IdentityHashMap<>();
-            this.sharedToProcessQueue = sharedToProcessQueue;
+        public InstanceIndexMapper() {
+            this.instances = new Object[64];
+            this.table = new int[128];
+            this.size = 0;
+            this.processed = 0;
         }
         
         public int getIndexForInstance(Object instance) {
-            Integer indexObject = this.instanceToIndex.get(instance);
-            if (null == indexObject) {
-                indexObject = this.nextInstanceIndex;
-                this.nextInstanceIndex += 1;
-                this.instanceToIndex.put(instance, indexObject);
-                // This is the first time we saw this, in breadth-first traversal order, so add it to the queue.
-                this.sharedToProcessQueue.add(instance);
+            int mask = this.table.length - 1;
+            int slot = System.identityHashCode(instance) & mask;
+            while (0 != this.table[slot]) {
+                // Slots hold index + 1 so that 0 is empty.
+                int index = this.table[slot] - 1;
+                if (this.instances[index] == instance) {
+                    return index;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // This is the first time we saw this, in breadth-first traversal order, so add it to the queue.
+            int index = this.size;
+            if (index == this.instances.length) {
+                this.instances = Arrays.copyOf(this.instances, index * 2);
+            }
+            this.instances[index] = instance;
+            this.size += 1;
+            this.table[slot] = index + 1;
+            if (2 * this.size > this.table.length) {
+                rehash();
+            }
+            return index;
+        }
+        
+        public Object next() {
+            return (this.processed < this.size)
+                    ? this.instances[this.processed++]
+                    : null;
+        }
+        
+        private void rehash() {
+            int[] newTable = new int[this.table.length * 2];
+            int mask = newTable.length - 1;
+            for (int index = 0; index < this.size; index++) {
+                int slot = System.identityHashCode(this.instances[index]) & mask;
+                while (0 != newTable[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                newTable[slot] = index + 1;
             }
-            return indexObject;
+            this.table = newTable;
         }
     }
 }
@@ -0,0 +1,305 @@
+package org.aion.avm.core.persistence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import i.IObjectDeserializer;
+import i.IObjectSerializer;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+
+
+/**
+ * Generates {@link IClassAccessor} implementations for the classes of a DApp.
+ *
+ * Fields of a DApp class may be private, so the code touching the fields is added to the class itself as synthetic
+ * static methods, and a separate accessor class in the same package only delegates to them.  The class also gets a
+ * static factory method for its accessor, which {@link SortedFieldCache} uses to find the accessor.
+ *
+ * This is done when the DApp is loaded, so the transformed code stored for the DApp is not changed.
+ */
+public class ClassAccessorGenerator {
+    public static final String ACCESSOR_FACTORY_NAME = "avm$accessor";
+    private static final String ACCESSOR_SUFFIX = "$avm$Accessor";
+    private static final String CONSTANT_FIELD_PREFIX = "const_";
+
+    private static final String SERIALIZE_CONSTANTS = "avm$serializeConstants";
+    private static final String DESERIALIZE_CONSTANTS = "avm$deserializeConstants";
+    private static final String SERIALIZE_STATICS = "avm$serializeStatics";
+    private static final String DESERIALIZE_STATICS = "avm$deserializeStatics";
+    private static final String CLEAN_STATICS = "avm$cleanStatics";
+    private static final String SERIALIZE_FIELDS = "avm$serializeFields";
+    private static final String DESERIALIZE_FIELDS = "avm$deserializeFields";
+    private static final String NEW_INSTANCE = "avm$newInstance";
+    private static final String DESERIALIZATION_CONSTRUCTOR_DESC = "(Ljava/lang/Void;I)V";
+
+    private static final String ACCESSOR_NAME = Type.getInternalName(IClassAccessor.class);
+    private static final String SERIALIZER_NAME = Type.getInternalName(IObjectSerializer.class);
+    private static final String DESERIALIZER_NAME = Type.getInternalName(IObjectDeserializer.class);
+    private static final String SERIALIZER_DESC = "(L" + SERIALIZER_NAME + ";)V";
+    private static final String DESERIALIZER_DESC = "(L" + DESERIALIZER_NAME + ";)V";
+    private static final String ACCESSOR_FACTORY_DESC = "()L" + ACCESSOR_NAME + ";";
+
+    private static final int SYNTHETIC_STATIC = Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC;
+
+    /**
+     * Returns the classes with accessors added.  Interfaces are returned as they are.
+     *
+     * @param classes The transformed classes of a DApp, keyed by dot-style name.
+     * @return The new map including the modified classes and their accessor classes.
+     */
+    public static Map<String, byte[]> generate(Map<String, byte[]> classes) {
+        Map<String, byte[]> result = new HashMap<>();
+        for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+            ClassReader reader = new ClassReader(e.getValue());
+            if (0 != (reader.getAccess() & Opcodes.ACC_INTERFACE)) {
+                result.put(e.getKey(), e.getValue());
+                continue;
+            }
+            ClassNode node = new ClassNode();
+            reader.accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            String accessorName = node.name + ACCESSOR_SUFFIX;
+
+            // All the added methods are straight-line code so we don't need frames, and we can keep the other methods as they are.
+            ClassWriter writer = new ClassWriter(reader, 0);
+            reader.accept(new ClassVisitor(Opcodes.ASM7, writer) {
+                @Override
+                public void visitEnd() {
+                    addFieldMethods(cv, node, accessorName);
+                    super.visitEnd();
+                }
+            }, 0);
+            result.put(e.getKey(), writer.toByteArray());
+            result.put(accessorName.replace('/', '.'), generateAccessor(node.name, accessorName));
+        }
+        return result;
+    }
+
+    private static List<FieldNode> sortedFields(ClassNode node, boolean isStatic, Boolean isConstant) {
+        List<FieldNode> fields = new ArrayList<>();
+        for (FieldNode f : node.fields) {
+            if (isStatic != (0 != (f.access & Opcodes.ACC_STATIC))) {
+                continue;
+            }
+            if (null != isConstant && isConstant != f.name.startsWith(CONSTANT_FIELD_PREFIX)) {
+                continue;
+            }
+            fields.add(f);
+        }
+        fields.sort(Comparator.comparing(f -> f.name));
+        return fields;
+    }
+
+    private static void addFieldMethods(ClassVisitor cv, ClassNode node, String accessorName) {
+        List<FieldNode> constants = sortedFields(node, true, true);
+        List<FieldNode> statics = sortedFields(node, true, false);
+        List<FieldNode> instanceFields = sortedFields(node, false, null);
+        String selfSerializerDesc = "(L" + node.name + ";L" + SERIALIZER_NAME + ";)V";
+        String selfDeserializerDesc = "(L" + node.name + ";L" + DESERIALIZER_NAME + ";)V";
+
+        addSerializeStatics(cv, node.name, SERIALIZE_CONSTANTS, constants);
+        addDeserializeStatics(cv, node.name, DESERIALIZE_CONSTANTS, constants);
+        addSerializeStatics(cv, node.name, SERIALIZE_STATICS, statics);
+        addDeserializeStatics(cv, node.name, DESERIALIZE_STATICS, statics);
+
+        MethodVisitor mv = cv.visitMethod(SYNTHETIC_STATIC, CLEAN_STATICS, "()V", null, null);
+        mv.visitCode();
+        List<FieldNode> allStatics = new ArrayList<>(constants);
+        allStatics.addAll(statics);
+        for (FieldNode f : allStatics) {
+            if (isReference(f.desc)) {
+                mv.visitInsn(Opcodes.ACONST_NULL);
+                mv.visitFieldInsn(Opcodes.PUTSTATIC, node.name, f.name, f.desc);
+            }
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(1, 0);
+        mv.visitEnd();
+
+        mv = cv.visitMethod(SYNTHETIC_STATIC, SERIALIZE_FIELDS, selfSerializerDesc, null, null);
+        mv.visitCode();
+        for (FieldNode f : instanceFields) {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, node.name, f.name, f.desc);
+            invokeWrite(mv, f.desc);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(3, 2);
+        mv.visitEnd();
+
+        mv = cv.visitMethod(SYNTHETIC_STATIC, DESERIALIZE_FIELDS, selfDeserializerDesc, null, null);
+        mv.visitCode();
+        for (FieldNode f : instanceFields) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            invokeRead(mv, f.desc);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, node.name, f.name, f.desc);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(3, 2);
+        mv.visitEnd();
+
+        // Abstract classes and classes without the deserialization constructor are never revived from the graph.
+        boolean instantiable = (0 == (node.access & Opcodes.ACC_ABSTRACT)) && node.methods.stream()
+                .anyMatch((m) -> "<init>".equals(m.name) && DESERIALIZATION_CONSTRUCTOR_DESC.equals(m.desc));
+        mv = cv.visitMethod(SYNTHETIC_STATIC, NEW_INSTANCE, "(I)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        if (instantiable) {
+            mv.visitTypeInsn(Opcodes.NEW, node.name);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitInsn(Opcodes.ACONST_NULL);
+            mv.visitVarInsn(Opcodes.ILOAD, 0);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, node.name, "<init>", DESERIALIZATION_CONSTRUCTOR_DESC, false);
+        } else {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        }
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(4, 1);
+        mv.visitEnd();
+
+        mv = cv.visitMethod(Opcodes.ACC_PUBLIC | SYNTHETIC_STATIC, ACCESSOR_FACTORY_NAME, ACCESSOR_FACTORY_DESC, null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(Opcodes.NEW, accessorName);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, accessorName, "<init>", "()V", false);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(2, 0);
+        mv.visitEnd();
+    }
+
+    private static void addSerializeStatics(ClassVisitor cv, String owner, String name, List<FieldNode> fields) {
+        MethodVisitor mv = cv.visitMethod(SYNTHETIC_STATIC, name, SERIALIZER_DESC, null, null);
+        mv.visitCode();
+        for (FieldNode f : fields) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETSTATIC, owner, f.name, f.desc);
+            invokeWrite(mv, f.desc);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(3, 1);
+        mv.visitEnd();
+    }
+
+    private static void addDeserializeStatics(ClassVisitor cv, String owner, String name, List<FieldNode> fields) {
+        MethodVisitor mv = cv.visitMethod(SYNTHETIC_STATIC, name, DESERIALIZER_DESC, null, null);
+        mv.visitCode();
+        for (FieldNode f : fields) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            invokeRead(mv, f.desc);
+            mv.visitFieldInsn(Opcodes.PUTSTATIC, owner, f.name, f.desc);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(2, 1);
+        mv.visitEnd();
+    }
+
+    private static boolean isReference(String desc) {
+        char c = desc.charAt(0);
+        return 'L' == c || '[' == c;
+    }
+
+    private static void invokeWrite(MethodVisitor mv, String desc) {
+        String method;
+        String methodDesc;
+        switch (desc.charAt(0)) {
+            case 'Z': method = "writeBoolean"; methodDesc = "(Z)V"; break;
+            case 'B': method = "writeByte"; methodDesc = "(B)V"; break;
+            case 'S': method = "writeShort"; methodDesc = "(S)V"; break;
+            case 'C': method = "writeChar"; methodDesc = "(C)V"; break;
+            case 'I': method = "writeInt"; methodDesc = "(I)V"; break;
+            case 'F': method = "writeFloat"; methodDesc = "(F)V"; break;
+            case 'J': method = "writeLong"; methodDesc = "(J)V"; break;
+            case 'D': method = "writeDouble"; methodDesc = "(D)V"; break;
+            default: method = "writeObject"; methodDesc = "(Ljava/lang/Object;)V"; break;
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, SERIALIZER_NAME, method, methodDesc, true);
+    }
+
+    private static void invokeRead(MethodVisitor mv, String desc) {
+        String method;
+        String methodDesc;
+        switch (desc.charAt(0)) {
+            case 'Z': method = "readBoolean"; methodDesc = "()Z"; break;
+            case 'B': method = "readByte"; methodDesc = "()B"; break;
+            case 'S': method = "readShort"; methodDesc = "()S"; break;
+            case 'C': method = "readChar"; methodDesc = "()C"; break;
+            case 'I': method = "readInt"; methodDesc = "()I"; break;
+            case 'F': method = "readFloat"; methodDesc = "()F"; break;
+            case 'J': method = "readLong"; methodDesc = "()J"; break;
+            case 'D': method = "readDouble"; methodDesc = "()D"; break;
+            default: method = "readObject"; methodDesc = "()Ljava/lang/Object;"; break;
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, DESERIALIZER_NAME, method, methodDesc, true);
+        if ("readObject".equals(method)) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getType(desc).getInternalName());
+        }
+    }
+
+    private static byte[] generateAccessor(String owner, String accessorName) {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                accessorName, null, "java/lang/Object", new String[] {ACCESSOR_NAME});
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "newInstance", "(I)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ILOAD, 1);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, NEW_INSTANCE, "(I)Ljava/lang/Object;", false);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(1, 2);
+        mv.visitEnd();
+
+        addDelegate(cw, owner, "serializeConstants", SERIALIZE_CONSTANTS, SERIALIZER_DESC);
+        addDelegate(cw, owner, "deserializeConstants", DESERIALIZE_CONSTANTS, DESERIALIZER_DESC);
+        addDelegate(cw, owner, "serializeStatics", SERIALIZE_STATICS, SERIALIZER_DESC);
+        addDelegate(cw, owner, "deserializeStatics", DESERIALIZE_STATICS, DESERIALIZER_DESC);
+        addDelegate(cw, owner, "cleanStatics", CLEAN_STATICS, "()V");
+        addInstanceDelegate(cw, owner, "serializeFields", SERIALIZE_FIELDS, SERIALIZER_NAME);
+        addInstanceDelegate(cw, owner, "deserializeFields", DESERIALIZE_FIELDS, DESERIALIZER_NAME);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void addDelegate(ClassWriter cw, String owner, String name, String target, String desc) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, name, desc, null, null);
+        mv.visitCode();
+        int args = Type.getArgumentTypes(desc).length;
+        if (1 == args) {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+        }
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, target, desc, false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(args, 1 + args);
+        mv.visitEnd();
+    }
+
+    private static void addInstanceDelegate(ClassWriter cw, String owner, String name, String target, String streamName) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, name, "(Ljava/lang/Object;L" + streamName + ";)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, target, "(L" + owner + ";L" + streamName + ";)V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(2, 3);
+        mv.visitEnd();
+    }
+}
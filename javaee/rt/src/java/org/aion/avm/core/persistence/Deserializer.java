@@ -7,6 +7,7 @@ import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import i.RuntimeAssertionError;
@@ -23,62 +24,53 @@ public class Deserializer {
     }
 
     public static void deserializeEntireGraph(ByteBuffer inputBuffer, List<Object> existingObjectIndex, IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, Class<?>[] sortedRoots, Class<?> constantClass, Object[] mainInstanceBuf) {
+        deserializeEntireGraph(inputBuffer, existingObjectIndex, resolver, cache, classNameMapper, sortedRoots, constantClass, mainInstanceBuf, false);
+    }
+
+    /**
+     * Deserializes the graph but only creates stubs for instances of DApp classes (see SortedFieldCache.getStubLayout()), which are
+     * populated from the graph data when they are first accessed.  Other instances and the statics are loaded as usual.
+     * Since the graph isn't changed by loading it, the returned instances are in the order the serializer would write them.
+     *
+     * @return The instances of the graph, in the order of the graph data.
+     */
+    public static List<Object> deserializeEntireGraphLazily(ByteBuffer inputBuffer, IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, Class<?>[] sortedRoots, Class<?> constantClass, Object[] mainInstanceBuf) {
+        return deserializeEntireGraph(inputBuffer, null, resolver, cache, classNameMapper, sortedRoots, constantClass, mainInstanceBuf, true);
+    }
+
+    private static List<Object> deserializeEntireGraph(ByteBuffer inputBuffer, List<Object> existingObjectIndex, IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, Class<?>[] sortedRoots, Class<?> constantClass, Object[] mainInstanceBuf, boolean lazily) {
         // We define the storage as big-endian.
         RuntimeAssertionError.assertTrue(ByteOrder.BIG_ENDIAN == inputBuffer.order());
         
-        // Deserialization requires that we walk the input data twice, since we need to create all the instances on the first pass and attach them all on the second.
-        // Create the pre-pass deserializer, just to walk consistently.
-        ByteBufferObjectDeserializer prePassDeserializer = new ByteBufferObjectDeserializer(inputBuffer, null, cache, resolver, classNameMapper);
-
-        if (mainInstanceBuf != null) {
-            mainInstanceBuf[0] = prePassDeserializer.readObject();
-        }
-        // Now, we need walk the statics, but only to advance the cursor through the buffer (since we will read the same data, but just won't be able to find the instances).
-        deserializeClassStatics(prePassDeserializer, cache, sortedRoots, constantClass);
-        
-        // Now, walk the rest of the data, deserializing each object, but this is just to find out the instance types and advance through the buffer, consistently.
-        List<Object> instanceList = createAllInstancesFromBuffer(prePassDeserializer, existingObjectIndex, cache, classNameMapper);
-        
-        // Now, we have enough information to build the graph.
-        // Reset the buffer and read it again.
-        inputBuffer.rewind();
-        
-        // Create te real deserializer (this one has the instance list for building the connections from that index).
+        // The data is read in a single walk:  references to instances which aren't created yet are recorded and filled at the end.
+        List<Object> instanceList = new ArrayList<>();
         ByteBufferObjectDeserializer objectDeserializer = new ByteBufferObjectDeserializer(inputBuffer, instanceList, cache, resolver, classNameMapper);
-        
         if (mainInstanceBuf != null) {
+            objectDeserializer.beginInstance(mainInstanceBuf);
             mainInstanceBuf[0] = objectDeserializer.readObject();
         }
-        // Next, we deserialize all the class statics for the user's classes.
         deserializeClassStatics(objectDeserializer, cache, sortedRoots, constantClass);
         
-        // We can now use the real deserializer to populate all instance fields and connections.
-        populateAllInstancesFromBuffer(objectDeserializer, instanceList, cache);
+        LazyInstanceLoader lazyLoader = lazily
+                ? new LazyInstanceLoader(objectDeserializer)
+                : null;
+        createAndPopulateInstancesFromBuffer(objectDeserializer, instanceList, existingObjectIndex, cache, false, lazyLoader);
+        return instanceList;
     }
 
     public static Object deserializeObject(ByteBuffer inputBuffer, IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper) {
         // We define the storage as big-endian.
         RuntimeAssertionError.assertTrue(ByteOrder.BIG_ENDIAN == inputBuffer.order());
 
-        // Create the pre-pass deserializer, just to walk consistently.
-        ByteBufferObjectDeserializer prePassDeserializer = new ByteBufferObjectDeserializer(inputBuffer, null, cache, resolver, classNameMapper);
-
-        Object val = prePassDeserializer.readObject();
-
-        // Now, walk the rest of the data, deserializing each object, but this is just to find out the instance types and advance through the buffer, consistently.
-        List<Object> instanceList = createAllInstancesFromBuffer(prePassDeserializer, null, cache, classNameMapper, true);
-
-        // Now, we have enough information to build the graph.
-        // Reset the buffer and read it again.
-        inputBuffer.rewind();
-
+        // The value is always the first instance, so it is a forward reference (unless it is null or a constant).
+        List<Object> instanceList = new ArrayList<>();
         ByteBufferObjectDeserializer objectDeserializer = new ByteBufferObjectDeserializer(inputBuffer, instanceList, cache, resolver, classNameMapper);
+        Object[] valueBuf = new Object[1];
+        objectDeserializer.beginInstance(valueBuf);
+        valueBuf[0] = objectDeserializer.readObject();
 
-        val = objectDeserializer.readObject();
-
-        // We can now use the real deserializer to populate all instance fields and connections.
-        populateAllInstancesFromBuffer(objectDeserializer, instanceList, cache);
-        return val;
+        createAndPopulateInstancesFromBuffer(objectDeserializer, instanceList, null, cache, true, null);
+        return valueBuf[0];
     }
 
     public static void cleanClassStatics(SortedFieldCache cache, Class<?>[] sortedRoots, Class<?> constantClass) {
@@ -89,6 +81,12 @@ public class Deserializer {
     }
 
     private static void cleanOneClass(SortedFieldCache cache, Class<?> clazz) {
+        IClassAccessor accessor = cache.getAccessor(clazz);
+        if (null != accessor) {
+            accessor.cleanStatics();
+            return;
+        }
+
         Field[] constants = cache.getConstantFields(clazz);
         cleanFieldsForClass(constants);
 
@@ -130,23 +128,30 @@ public class Deserializer {
 
     private static void deserializeConstantClass(ByteBufferObjectDeserializer objectDeserializer, SortedFieldCache cache, Class<?> constantClass) {
         // Note that we don't serialize the class name - the roots are in the same sorted order for reading and writing.
+        IClassAccessor accessor = cache.getAccessor(constantClass);
         Field[] constants = cache.getConstantFields(constantClass);
-        deserializeFieldsForClass(objectDeserializer, constants);
+        objectDeserializer.beginFields(null, cache.getReferenceFields(constants));
+        if (null != accessor) {
+            accessor.deserializeConstants(objectDeserializer);
+        } else {
+            deserializeFieldsForClass(objectDeserializer, constants);
+        }
     }
 
     private static void deserializeOneUserClass(ByteBufferObjectDeserializer objectDeserializer, SortedFieldCache cache, Class<?> clazz) {
         // Note that we don't serialize the class name - the roots are in the same sorted order for reading and writing.
+        IClassAccessor accessor = cache.getAccessor(clazz);
         Field[] fields = cache.getUserStaticFields(clazz);
-        deserializeFieldsForClass(objectDeserializer, fields);
-    }
-
-    private static List<Object> createAllInstancesFromBuffer(ByteBufferObjectDeserializer objectDeserializer, List<Object> existingObjectIndex, SortedFieldCache cache, IPersistenceNameMapper classNameMapper) {
-        return createAllInstancesFromBuffer(objectDeserializer, existingObjectIndex, cache, classNameMapper, false);
+        objectDeserializer.beginFields(null, cache.getReferenceFields(fields));
+        if (null != accessor) {
+            accessor.deserializeStatics(objectDeserializer);
+        } else {
+            deserializeFieldsForClass(objectDeserializer, fields);
+        }
     }
 
-    private static List<Object> createAllInstancesFromBuffer(ByteBufferObjectDeserializer objectDeserializer, List<Object> existingObjectIndex, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, boolean singleObject) {
+    private static void createAndPopulateInstancesFromBuffer(ByteBufferObjectDeserializer objectDeserializer, List<Object> instanceList, List<Object> existingObjectIndex, SortedFieldCache cache, boolean singleObject, LazyInstanceLoader lazyLoader) {
         Method deserializeSelfMethod = cache.getDeserializeSelfMethod();
-        List<Object> instanceList = new ArrayList<>();
         // We want to tell each instance which index we read them as - this is useful in the case of reentrant calls so we can track the
         // instance we can write back into.
         int readIndex = 0;
@@ -156,6 +161,13 @@ public class Deserializer {
         // 2) We need to give any new instances a -1 readIndex, so they correctly show up as new to any meta-caller frames
         boolean isDeserializingIntoCallerObjects = (null != existingObjectIndex);
         
+        // Instances are written in the order they are first referenced, so a reference to an instance which isn't created yet is read as null.
+        // The deserializer records such references in fields and array elements, to fill them after all the instances are created.
+        // Only the instances which read a reference themselves (like Throwable) are read again, from where they start.
+        int[] pendingIndices = new int[16];
+        int[] pendingPositions = new int[16];
+        int pendingCount = 0;
+        
         // We walk the entire buffer, ending when we fall off the end (the exception).
         try {
             boolean keepRunning = true;
@@ -170,36 +182,63 @@ public class Deserializer {
                 }
                 if (keepRunning) {
                     // Note that we might be re-using an old instance (if we are returning from a reentrant call).
-                    // Even if there is a different object instance we want to re-use, we still need to create the instance in order to advance the stream.
                     Object instance = (isDeserializingIntoCallerObjects && (null != existingObjectIndex.get(readIndex)))
                             ? existingObjectIndex.get(readIndex)
                             : cache.getNewInstance(internalClassName, isDeserializingIntoCallerObjects || singleObject ? -1 : readIndex);
-                    deserializeSelfMethod.invoke(instance, null, objectDeserializer);
+                    // Add it before reading it, since it may refer to itself.
                     instanceList.add(instance);
+                    objectDeserializer.beginInstance(instance);
+                    int position = objectDeserializer.position();
+                    int[] stubLayout = (null != lazyLoader)
+                            ? cache.getStubLayout(instance.getClass())
+                            : null;
+                    if (null != stubLayout) {
+                        // We only need to find where the next instance starts.
+                        ((s.java.lang.Object) instance).setInstanceLoader(lazyLoader, position);
+                        objectDeserializer.skipInstance(stubLayout);
+                    } else {
+                        deserializeInstance(deserializeSelfMethod, instance, objectDeserializer);
+                    }
+                    if (objectDeserializer.takeForwardReference()) {
+                        if (pendingCount == pendingIndices.length) {
+                            pendingIndices = Arrays.copyOf(pendingIndices, pendingCount * 2);
+                            pendingPositions = Arrays.copyOf(pendingPositions, pendingCount * 2);
+                        }
+                        pendingIndices[pendingCount] = readIndex;
+                        pendingPositions[pendingCount] = position;
+                        pendingCount += 1;
+                    }
                     readIndex += 1;
                 }
             }
+            
+            // Now, all the instances exist so we can connect them.
+            objectDeserializer.fillForwardReferences();
+            for (int i = 0; i < pendingCount; i++) {
+                Object instance = instanceList.get(pendingIndices[i]);
+                objectDeserializer.seek(pendingPositions[i]);
+                objectDeserializer.beginInstance(instance);
+                deserializeInstance(deserializeSelfMethod, instance, objectDeserializer);
+            }
+            objectDeserializer.beginInstance(null);
+            RuntimeAssertionError.assertTrue(!objectDeserializer.takeForwardReference());
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             // Reflection errors can't happen since we set this up so we could access it.
             throw RuntimeAssertionError.unexpected(e);
         }
-        return instanceList;
     }
 
-    private static void populateAllInstancesFromBuffer(ByteBufferObjectDeserializer objectDeserializer, List<Object> instanceList, SortedFieldCache cache) {
-        Method deserializeSelfMethod = cache.getDeserializeSelfMethod();
-        
-        // We walk the entire instanceList, assuming that it is the full content of the storage.
-        try {
-            for (Object instance : instanceList) {
-                // Read the class name, but just to advance the cursor.
-                objectDeserializer.readClassName();
-                // Now, deserialize the instance.
-                deserializeSelfMethod.invoke(instance, null, objectDeserializer);
+    private static void deserializeInstance(Method deserializeSelfMethod, Object instance, ByteBufferObjectDeserializer objectDeserializer) throws IllegalAccessException, InvocationTargetException {
+        if (instance instanceof s.java.lang.Object) {
+            // Shadow and user objects are called directly.
+            try {
+                ((s.java.lang.Object) instance).deserializeSelf(null, objectDeserializer);
+            } catch (RuntimeException e) {
+                // This is distinct from reflection errors but equally unexpected.
+                throw RuntimeAssertionError.unexpected(e);
             }
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-            // Reflection errors can't happen since we set this up so we could access it.
-            throw RuntimeAssertionError.unexpected(e);
+        } else {
+            deserializeSelfMethod.invoke(instance, null, objectDeserializer);
         }
     }
 
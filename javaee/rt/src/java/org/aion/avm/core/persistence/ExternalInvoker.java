@@ -0,0 +1,130 @@
+package org.aion.avm.core.persistence;
+
+import foundation.icon.ee.util.Converter;
+import foundation.icon.ee.util.Shadower;
+import foundation.icon.ee.util.Unshadower;
+import i.RuntimeAssertionError;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+
+/**
+ * Calls an external method or the constructor of a DApp main class.
+ * The method handle and the conversions of the parameters and the return value are decided when the DApp is loaded, so
+ * a call only runs the converters and the handle, instead of reflective invocation and type switching on every value.
+ */
+final class ExternalInvoker {
+    // (Throwable)InvocationTargetException
+    private static final MethodHandle NEW_TARGET_EXCEPTION = newTargetException();
+
+    // (Object, Object[])Object for a method, (Object[])Object for a constructor.
+    private final MethodHandle handle;
+    private final Converter[] paramConverters;
+    private final Converter resultConverter;
+
+    private ExternalInvoker(MethodHandle handle, Executable e, Converter resultConverter) {
+        this.handle = handle;
+        var paramClasses = e.getParameterTypes();
+        this.paramConverters = new Converter[paramClasses.length];
+        for (int i = 0; i < paramClasses.length; ++i) {
+            this.paramConverters[i] = Shadower.converterFor(paramClasses[i]);
+        }
+        this.resultConverter = resultConverter;
+    }
+
+    public static ExternalInvoker of(Method method) {
+        int n = method.getParameterCount();
+        var type = MethodType.methodType(Object.class, Object.class, Object[].class);
+        MethodHandle h;
+        try {
+            h = wrapTargetException(MethodHandles.publicLookup().unreflect(method))
+                    .asSpreader(Object[].class, n)
+                    .asType(type);
+        } catch (IllegalAccessException e) {
+            h = throwing(e, type);
+        }
+        return new ExternalInvoker(h, method,
+                Unshadower.converterFor(method.getReturnType()));
+    }
+
+    public static ExternalInvoker of(Constructor<?> ctor) {
+        int n = ctor.getParameterCount();
+        var type = MethodType.methodType(Object.class, Object[].class);
+        MethodHandle h;
+        if (Modifier.isAbstract(ctor.getDeclaringClass().getModifiers())) {
+            // Reflective instantiation reports it at the call.
+            var e = new InstantiationException(ctor.getDeclaringClass().getName());
+            return new ExternalInvoker(throwing(e, type), ctor, null);
+        }
+        try {
+            h = wrapTargetException(MethodHandles.publicLookup().unreflectConstructor(ctor))
+                    .asSpreader(Object[].class, n)
+                    .asType(type);
+        } catch (IllegalAccessException e) {
+            h = throwing(e, type);
+        }
+        return new ExternalInvoker(h, ctor, null);
+    }
+
+    private static MethodHandle newTargetException() {
+        try {
+            return MethodHandles.publicLookup().findConstructor(InvocationTargetException.class,
+                    MethodType.methodType(void.class, Throwable.class));
+        } catch (ReflectiveOperationException e) {
+            throw RuntimeAssertionError.unexpected(e);
+        }
+    }
+
+    // Wraps whatever the target throws in InvocationTargetException as reflective invocation does, so that it's told
+    // apart from errors of the handle itself, such as a ClassCastException for a parameter.
+    private static MethodHandle wrapTargetException(MethodHandle target) {
+        var type = target.type();
+        var handler = MethodHandles.filterArguments(
+                MethodHandles.throwException(type.returnType(), InvocationTargetException.class),
+                0, NEW_TARGET_EXCEPTION);
+        handler = MethodHandles.dropArguments(handler, 1, type.parameterList());
+        return MethodHandles.catchException(target, Throwable.class, handler);
+    }
+
+    // Defers the error to the call, where reflective invocation would have reported it.
+    private static MethodHandle throwing(ReflectiveOperationException e, MethodType type) {
+        var thrower = MethodHandles.throwException(Object.class, e.getClass()).bindTo(e);
+        return MethodHandles.dropArguments(thrower, 0, type.parameterList());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the parameters don't match the method.
+     * @throws ArithmeticException if an integer parameter is out of range.
+     */
+    public Object[] shadowParams(Object[] params) {
+        return Shadower.shadowObjects(params, this.paramConverters);
+    }
+
+    /**
+     * @throws InvocationTargetException if the method throws.
+     */
+    public Object invoke(Object target, Object[] shadowParams) throws Throwable {
+        return (Object) this.handle.invokeExact(target, shadowParams);
+    }
+
+    /**
+     * @throws InvocationTargetException if the constructor throws.
+     */
+    public Object newInstance(Object[] shadowParams) throws Throwable {
+        return (Object) this.handle.invokeExact(shadowParams);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the result is not a valid return value.
+     */
+    public Object unshadowResult(Object result) {
+        return this.resultConverter.convert(result);
+    }
+}
@@ -0,0 +1,128 @@
+package org.aion.avm.core.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import i.Helper;
+import org.aion.avm.utilities.Utilities;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+
+/**
+ * Injects write barriers into the classes of a DApp when it is loaded, so the executor can tell if a call may have changed the
+ * object graph and skip serializing it when it didn't.
+ * A call to "markGraphWritten()" on the helper is prepended to:
+ * -PUTSTATIC
+ * -PUTFIELD, unless "this" is the receiver in a constructor (the instance is new, so it can only become part of the graph through
+ *  another write).  Those are the PUTFIELD bytecodes which AutomaticGraphVisitor didn't prepend with "lazyLoad()".
+ * -calls which modify the shadow objects persisted with their contents:  array stores, StringBuilder/StringBuffer methods,
+ *  Throwable.initCause() and any shadow JDK method taking an array argument (Arrays.fill(), System.arraycopy(),
+ *  String.getChars(), ...), since the shadow JDK may write into the underlying array.
+ *
+ * The barriers are not metered and this is done when the DApp is loaded, so the transformed code stored for the DApp is not changed.
+ * Writes done by the deserializer don't go through the DApp code, so they are not marked.
+ */
+public class GraphWriteBarrier {
+    private static final String HELPER_NAME = Helper.RUNTIME_HELPER_NAME;
+    private static final String MARK_NAME = "markGraphWritten";
+    private static final String MARK_DESCRIPTOR = "()V";
+    private static final String INIT_NAME = "<init>";
+    private static final String SHADOW_OBJECT_NAME = Utilities.fullyQualifiedNameToInternalName(s.java.lang.Object.class.getName());
+    private static final String LAZY_LOAD_NAME = "lazyLoad";
+    private static final String SHADOW_PREFIX = "s/";
+    private static final String ARRAY_PREFIX = "a/";
+    private static final String STRING_BUILDER_NAME = Utilities.fullyQualifiedNameToInternalName(s.java.lang.StringBuilder.class.getName());
+    private static final String STRING_BUFFER_NAME = Utilities.fullyQualifiedNameToInternalName(s.java.lang.StringBuffer.class.getName());
+    private static final String APPENDABLE_NAME = Utilities.fullyQualifiedNameToInternalName(s.java.lang.Appendable.class.getName());
+
+    /**
+     * Returns the classes with write barriers injected.
+     *
+     * @param classes The transformed classes of a DApp, keyed by dot-style name.
+     * @return The new map of the modified classes.
+     */
+    public static Map<String, byte[]> instrument(Map<String, byte[]> classes) {
+        Map<String, byte[]> result = new HashMap<>();
+        for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+            ClassReader reader = new ClassReader(e.getValue());
+            // The barrier doesn't change the stack or the locals, so the frames and the max values we read are still valid.
+            ClassWriter writer = new ClassWriter(reader, 0);
+            reader.accept(new ClassVisitor(Opcodes.ASM7, writer) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+                    return (null != mv)
+                            ? new BarrierMethodVisitor(mv, INIT_NAME.equals(name))
+                            : null;
+                }
+            }, 0);
+            result.put(e.getKey(), writer.toByteArray());
+        }
+        return result;
+    }
+
+    private static boolean isGraphMutator(String owner, String name, String descriptor) {
+        if (INIT_NAME.equals(name)) {
+            return false;
+        }
+        if ("set".equals(name) && (owner.startsWith(ARRAY_PREFIX) || owner.startsWith("i/"))) {
+            return true;
+        }
+        if ("avm_initCause".equals(name)) {
+            return true;
+        }
+        if (owner.startsWith(SHADOW_PREFIX) && hasArrayArgument(descriptor)) {
+            return true;
+        }
+        return STRING_BUILDER_NAME.equals(owner) || STRING_BUFFER_NAME.equals(owner) || APPENDABLE_NAME.equals(owner);
+    }
+
+    private static boolean hasArrayArgument(String descriptor) {
+        for (Type t : Type.getArgumentTypes(descriptor)) {
+            if ((Type.OBJECT == t.getSort()) && t.getInternalName().startsWith(ARRAY_PREFIX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class BarrierMethodVisitor extends MethodVisitor {
+        private final boolean isConstructor;
+        // Set when "lazyLoad()" was called after the last field access (that is, it belongs to the next field access).
+        private boolean lazyLoaded;
+
+        public BarrierMethodVisitor(MethodVisitor mv, boolean isConstructor) {
+            super(Opcodes.ASM7, mv);
+            this.isConstructor = isConstructor;
+        }
+
+        private void mark() {
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, HELPER_NAME, MARK_NAME, MARK_DESCRIPTOR, false);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            if ((Opcodes.PUTSTATIC == opcode)
+                    || ((Opcodes.PUTFIELD == opcode) && (!this.isConstructor || this.lazyLoaded))) {
+                mark();
+            }
+            this.lazyLoaded = false;
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            if (SHADOW_OBJECT_NAME.equals(owner) && LAZY_LOAD_NAME.equals(name)) {
+                this.lazyLoaded = true;
+            } else if (isGraphMutator(owner, name, descriptor)) {
+                mark();
+            }
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+    }
+}
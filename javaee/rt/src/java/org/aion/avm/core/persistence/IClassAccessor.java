@@ -0,0 +1,42 @@
+package org.aion.avm.core.persistence;
+
+import i.IObjectDeserializer;
+import i.IObjectSerializer;
+
+
+/**
+ * Reads and writes fields of a DApp class without reflection.
+ * Implementations are generated by {@link ClassAccessorGenerator} when the DApp is loaded.
+ * Fields are visited in the same order as {@link SortedFieldCache} returns them.
+ */
+public interface IClassAccessor {
+    /**
+     * Creates an instance with the deserialization constructor.
+     *
+     * @return The new instance, or null if the class can't be instantiated.
+     */
+    Object newInstance(int readIndex);
+
+    void serializeConstants(IObjectSerializer serializer);
+
+    void deserializeConstants(IObjectDeserializer deserializer);
+
+    void serializeStatics(IObjectSerializer serializer);
+
+    void deserializeStatics(IObjectDeserializer deserializer);
+
+    /**
+     * Clears object references in the constant and the static fields.
+     */
+    void cleanStatics();
+
+    /**
+     * Serializes the instance fields declared by the class, but not the ones declared by its superclasses.
+     */
+    void serializeFields(Object instance, IObjectSerializer serializer);
+
+    /**
+     * Deserializes the instance fields declared by the class, but not the ones declared by its superclasses.
+     */
+    void deserializeFields(Object instance, IObjectDeserializer deserializer);
+}
@@ -0,0 +1,29 @@
+package org.aion.avm.core.persistence;
+
+import i.IInstanceLoader;
+import i.RuntimeAssertionError;
+
+
+/**
+ * Populates the stub instances of a lazily loaded graph from the graph data, when they are first accessed.
+ * Note that all the instances of the graph exist once the graph is loaded, so the stubs are read in one pass.
+ */
+public class LazyInstanceLoader implements IInstanceLoader {
+    // This has the complete instance list of the graph.
+    private final ByteBufferObjectDeserializer deserializer;
+
+    public LazyInstanceLoader(ByteBufferObjectDeserializer deserializer) {
+        this.deserializer = deserializer;
+    }
+
+    @Override
+    public void loadInstance(Object instance, int position) {
+        this.deserializer.seek(position);
+        try {
+            ((s.java.lang.Object) instance).deserializeSelf(null, this.deserializer);
+        } catch (RuntimeException e) {
+            // This is as unexpected as it would be when loading the whole graph.
+            throw RuntimeAssertionError.unexpected(e);
+        }
+    }
+}
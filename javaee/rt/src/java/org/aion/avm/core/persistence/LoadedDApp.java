@@ -8,8 +8,6 @@ import foundation.icon.ee.types.ObjectGraph;
 import foundation.icon.ee.types.Status;
 import foundation.icon.ee.types.UnknownFailureException;
 import foundation.icon.ee.util.MethodUnpacker;
-import foundation.icon.ee.util.Shadower;
-import foundation.icon.ee.util.Unshadower;
 import i.AvmThrowable;
 import i.GenericPredefinedException;
 import i.Helper;
@@ -21,6 +19,7 @@ import i.IRuntimeSetup;
 import i.InternedClasses;
 import i.PackageConstants;
 import i.RuntimeAssertionError;
+import i.StorageKeyCache;
 import i.UncaughtException;
 import org.aion.avm.NameStyle;
 import org.aion.avm.StorageFees;
@@ -32,7 +31,6 @@ import org.aion.avm.core.util.DebugNameResolver;
 import p.score.Context;
 
 import java.io.IOException;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -68,6 +66,9 @@ import static foundation.icon.ee.types.Method.MethodType;
  */
 public class LoadedDApp {
     private static final String METHOD_PREFIX = "avm_";
+    // a reference in the index and its slot in the backing array
+    private static final int OBJECT_INDEX_ENTRY_SIZE = 16;
+    private static final int STORAGE_KEY_CACHE_ENTRIES = 1024;
 
     private static final Method SERIALIZE_SELF;
     private static final Method DESERIALIZE_SELF;
@@ -91,8 +92,8 @@ public class LoadedDApp {
     private final Class<?> constantClass;
     private final String originalMainClassName;
     private final SortedFieldCache fieldCache;
-    private final Map<String, Method> nameToMethod;
-    private Constructor<?> ctor = null;
+    private final Map<String, ExternalInvoker> nameToMethod;
+    private ExternalInvoker ctor = null;
 
     // Other caches of specific pieces of data which are lazily built.
     public final IRuntimeSetup runtimeSetup;
@@ -102,12 +103,18 @@ public class LoadedDApp {
 
     // Note that we track the interned classes here since they have the same lifecycle as the LoadedDApp (including for reentrant calls).
     private final InternedClasses internedClasses;
+    // The storage keys of the DApp's DB items, which are the same for all the transactions.
+    private final StorageKeyCache storageKeyCache = new StorageKeyCache(STORAGE_KEY_CACHE_ENTRIES);
 
     private final ClassRenamer classRenamer;
     private final boolean preserveDebuggability;
 
     private Object mainInstance;
     private DAppRuntimeState stateCache;
+    // The state of the DApp objects when the write barriers were last reset.
+    private DAppRuntimeState snapshot;
+    private final long codeSize;
+    private boolean lazyGraphLoading;
 
     /**
      * Creates the LoadedDApp to represent the classes related to DApp at address.
@@ -119,7 +126,22 @@ public class LoadedDApp {
      * @param preserveDebuggability True if we should preserve debuggability by not renaming classes.
      */
     public LoadedDApp(ClassLoader loader, Class<?>[] userClasses, Class<?> constantClass, String originalMainClassName, byte[] apis, boolean preserveDebuggability) {
+        this(loader, userClasses, constantClass, originalMainClassName, apis, preserveDebuggability, 0);
+    }
+
+    /**
+     * Creates the LoadedDApp to represent the classes related to DApp at address.
+     *
+     * @param loader The class loader to look up shape.
+     * @param userClasses The classes provided by the user.
+     * @param constantClass The class we generated to contain all constants.
+     * @param originalMainClassName The pre-translation name of the user's main class.
+     * @param preserveDebuggability True if we should preserve debuggability by not renaming classes.
+     * @param codeSize The total size of class files defined by the loader.
+     */
+    public LoadedDApp(ClassLoader loader, Class<?>[] userClasses, Class<?> constantClass, String originalMainClassName, byte[] apis, boolean preserveDebuggability, long codeSize) {
         this.loader = loader;
+        this.codeSize = codeSize;
         // Note that the storage system defines the classes as being sorted alphabetically.
         this.sortedUserClasses = Arrays.stream(userClasses)
                 .sorted(Comparator.comparing(Class::getName))
@@ -166,7 +188,10 @@ public class LoadedDApp {
                     continue;
                 }
                 if (m.getName().equals("<init>")) {
-                    ctor = sc.findConstructor(m);
+                    var found = sc.findConstructor(m);
+                    if (found != null) {
+                        ctor = ExternalInvoker.of(found);
+                    }
                 } else {
                     var found = sc.findMethod(m);
                     if (found == null
@@ -174,7 +199,7 @@ public class LoadedDApp {
                             || (found.getModifiers() & Modifier.PUBLIC) == 0) {
                         throw new IllegalFormatException("Bad external method");
                     }
-                    nameToMethod.put(m.getName(), found);
+                    nameToMethod.put(m.getName(), ExternalInvoker.of(found));
                 }
             }
             if (ctor == null) {
@@ -200,6 +225,11 @@ public class LoadedDApp {
             }
         }
         var graph = es.getObjectGraph();
+        if (lazyGraphLoading) {
+            // The instance list is already in the order of the graph, so we don't need to save the state (which would load all the stubs).
+            stateCache = new DAppRuntimeState(loadGraphLazily(graph), graph);
+            return stateCache;
+        }
         var rs = new DAppRuntimeState(null, graph);
         loadRuntimeState(rs);
         // to make object list
@@ -223,13 +253,35 @@ public class LoadedDApp {
         stateCache = state;
     }
 
+    private List<Object> loadGraphLazily(ObjectGraph graph) {
+        ByteBuffer inputBuffer = ByteBuffer.wrap(graph.getGraphData());
+        StandardGlobalResolver resolver = new StandardGlobalResolver(internedClasses, this.loader);
+        StandardNameMapper classNameMapper = new StandardNameMapper(this.classRenamer);
+        var buf = new Object[1];
+        List<Object> objects = Deserializer.deserializeEntireGraphLazily(inputBuffer,
+                resolver, this.fieldCache, classNameMapper,
+                this.sortedUserClasses, this.constantClass, buf);
+        mainInstance = buf[0];
+        return objects;
+    }
+
+    /**
+     * Enables or disables lazy loading of the object graph. If it's
+     * enabled, instances of DApp classes are loaded from the graph data when
+     * they are first accessed, instead of when the graph is loaded. The graph
+     * data and step costs are not changed.
+     */
+    public void setLazyGraphLoading(boolean lazyGraphLoading) {
+        this.lazyGraphLoading = lazyGraphLoading;
+    }
+
     public DAppRuntimeState saveRuntimeState() {
-        var hash = IInstrumentation.attachedThreadInstrumentation.get().peekNextHashCode();
+        var hash = IInstrumentation.current().peekNextHashCode();
         return saveRuntimeState(hash, StorageFees.MAX_GRAPH_SIZE);
     }
 
     public DAppRuntimeState saveRuntimeState(int nextHashCode, int maximumSizeInBytes) {
-        ByteBuffer outputBuffer = ByteBuffer.allocate(maximumSizeInBytes);
+        ByteBuffer outputBuffer = OutputBufferPool.acquire(maximumSizeInBytes);
         List<Object> out_instanceIndex = new ArrayList<>();
         StandardGlobalResolver resolver = new StandardGlobalResolver(null, this.loader);
         StandardNameMapper classNameMapper = new StandardNameMapper(this.classRenamer);
@@ -237,17 +289,67 @@ public class LoadedDApp {
                 null, resolver, this.fieldCache,
                 classNameMapper, this.sortedUserClasses, this.constantClass,
                 this.mainInstance);
-        byte[] finalBytes = new byte[outputBuffer.position()];
-        System.arraycopy(outputBuffer.array(), 0, finalBytes, 0, finalBytes.length);
+        byte[] finalBytes = OutputBufferPool.toByteArray(outputBuffer);
         stateCache = new DAppRuntimeState(out_instanceIndex,
                 new ObjectGraph(nextHashCode, finalBytes));
         return stateCache;
     }
 
+    /**
+     * Marks the given state as the current state of the DApp objects again.
+     * Used when a call is known not to have changed the graph, so the state
+     * doesn't need to be serialized.
+     */
+    public void keepRuntimeState(DAppRuntimeState state) {
+        stateCache = state;
+    }
+
+    /**
+     * Records the given state as the snapshot of the DApp objects, and resets
+     * the write barriers of the DApp. The state must be the current state of
+     * the objects.
+     */
+    public void setSnapshot(DAppRuntimeState state) {
+        snapshot = state;
+        runtimeSetup.setGraphWritten(false);
+    }
+
+    /**
+     * Returns the snapshot if the DApp hasn't written the object graph since
+     * it was taken, so it's still the state of the DApp objects (except the
+     * next hash code). Otherwise, returns null.
+     * Note that a written graph is always serialized again, even if only a
+     * few objects were written, since the steps charged to a reentrant
+     * callee and the graph hash depend on the whole graph data.
+     */
+    public DAppRuntimeState getUnchangedSnapshot() {
+        return runtimeSetup.isGraphWritten() ? null : snapshot;
+    }
+
     public void invalidateStateCache() {
         stateCache = null;
     }
 
+    /**
+     * Returns approximate size of memory retained by this DApp in bytes. It
+     * is the sum of class file sizes, which approximates metadata of the
+     * classes, size of the cached object graph, size of the object index and
+     * size of the cached storage keys.
+     * Heap objects of the DApp are approximated by the object graph.
+     */
+    public long getApproximateSize() {
+        long size = codeSize + storageKeyCache.getApproximateSize();
+        var state = stateCache;
+        if (state != null) {
+            size += state.getGraph().getGraphData().length;
+            var objects = state.getObjects();
+            if (objects != null) {
+                size += (long) objects.size() * OBJECT_INDEX_ENTRY_SIZE;
+            }
+        }
+        return size;
+    }
+
     public boolean hasSameGraphHash(byte[] graphHash) {
         if (stateCache == null) {
             return false;
@@ -280,44 +382,53 @@ public class LoadedDApp {
         }
     }
 
+    // Note that the main class is already initialized by forceInitializeAllClasses() when this is called.
     public void initMainInstance(Object []params) throws AvmThrowable {
+        Object[] sparams = shadowParams(ctor, params);
         try {
-            mainInstance = ctor.newInstance(
-                    Shadower.shadowObjects(params, ctor.getParameterTypes()));
-        } catch (ArithmeticException e) {
-            throw new GenericPredefinedException(Status.InvalidParameter, e);
+            mainInstance = ctor.newInstance(sparams);
         } catch (InvocationTargetException e) {
             handleUncaughtException(e.getTargetException());
         } catch (ExceptionInInitializerError e) {
             handleUncaughtException(e.getException());
         } catch (ReflectiveOperationException e) {
             throw new IllegalFormatException("cannot call constructor", e);
-        } catch (IllegalArgumentException e) {
-            RuntimeAssertionError.unexpected(e);
+        } catch (Throwable t) {
+            // errors of the handle itself such as WrongMethodTypeException
+            throw RuntimeAssertionError.unexpected(t);
         }
     }
 
     public Object callMethod(String methodName, Object[] params) throws AvmThrowable {
         stateCache = null;
+        ExternalInvoker method = nameToMethod.get(methodName);
+        Object[] sparams = shadowParams(method, params);
+        Object sres = null;
         try {
-            Method method = nameToMethod.get(methodName);
-            Object sres = method.invoke(mainInstance,
-                    Shadower.shadowObjects(params, method.getParameterTypes()));
-            try {
-                return Unshadower.unshadow(sres);
-            } catch (IllegalArgumentException e) {
-                throw new UnknownFailureException("invalid return value");
-            }
-        } catch (ArithmeticException e) {
-            throw new GenericPredefinedException(Status.InvalidParameter, e);
+            sres = method.invoke(mainInstance, sparams);
         } catch (InvocationTargetException e) {
             handleUncaughtException(e.getTargetException());
         } catch (ExceptionInInitializerError e) {
             handleUncaughtException(e.getException());
-        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+        } catch (Throwable t) {
+            // errors of the handle itself such as WrongMethodTypeException
+            throw RuntimeAssertionError.unexpected(t);
+        }
+        try {
+            return method.unshadowResult(sres);
+        } catch (IllegalArgumentException e) {
+            throw new UnknownFailureException("invalid return value");
+        }
+    }
+
+    private static Object[] shadowParams(ExternalInvoker invoker, Object[] params) {
+        try {
+            return invoker.shadowParams(params);
+        } catch (ArithmeticException e) {
+            throw new GenericPredefinedException(Status.InvalidParameter, e);
+        } catch (IllegalArgumentException e) {
             throw RuntimeAssertionError.unexpected(e);
         }
-        return null;
     }
 
     /**
@@ -420,4 +531,8 @@ public class LoadedDApp {
     public InternedClasses getInternedClasses() {
         return internedClasses;
     }
+
+    public StorageKeyCache getStorageKeyCache() {
+        return storageKeyCache;
+    }
 }
@@ -0,0 +1,38 @@
+package org.aion.avm.core.persistence;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Keeps an output buffer per thread for serializing object graphs.
+ * Graphs are written into a buffer of the maximum graph size and only the written part is copied out, so the buffer is
+ * reused by the next serialization on the thread instead of being allocated every time.
+ * Serialization doesn't call into user code, so a thread never needs more than one buffer at a time.
+ */
+public class OutputBufferPool {
+    private static final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<>();
+
+    /**
+     * Returns the buffer of the current thread, cleared and limited to the given size.
+     * The buffer is only valid until the next call on the same thread.
+     */
+    public static ByteBuffer acquire(int maximumSizeInBytes) {
+        ByteBuffer buffer = buffers.get();
+        if ((null == buffer) || (buffer.capacity() < maximumSizeInBytes)) {
+            buffer = ByteBuffer.allocate(maximumSizeInBytes);
+            buffers.set(buffer);
+        }
+        buffer.clear();
+        buffer.limit(maximumSizeInBytes);
+        return buffer;
+    }
+
+    /**
+     * Copies the bytes written to the buffer.
+     */
+    public static byte[] toByteArray(ByteBuffer buffer) {
+        byte[] finalBytes = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, finalBytes, 0, finalBytes.length);
+        return finalBytes;
+    }
+}
@@ -11,20 +11,18 @@ import java.util.List;
  */
 public class ReentrantGraph {
     public static ReentrantGraph captureCallerState(IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, int maximumSizeInBytes, int nextHashCode, Class<?>[] sortedRoots, Class<?> constantClass) {
-        ByteBuffer buffer = ByteBuffer.allocate(maximumSizeInBytes);
+        ByteBuffer buffer = OutputBufferPool.acquire(maximumSizeInBytes);
         List<Object> existingObjectIndex = new ArrayList<>();
         Serializer.serializeEntireGraphAndNextHashCode(buffer, existingObjectIndex, null, resolver, cache, classNameMapper, nextHashCode, sortedRoots, constantClass);
-        byte[] finalBytes = new byte[buffer.position()];
-        System.arraycopy(buffer.array(), 0, finalBytes, 0, finalBytes.length);
+        byte[] finalBytes = OutputBufferPool.toByteArray(buffer);
         return new ReentrantGraph(finalBytes, existingObjectIndex, null);
     }
 
     public static ReentrantGraph captureCalleeState(IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, int maximumSizeInBytes, int nextHashCode, Class<?>[] sortedRoots, Class<?> constantClass) {
-        ByteBuffer calleeBuffer = ByteBuffer.allocate(maximumSizeInBytes);
+        ByteBuffer calleeBuffer = OutputBufferPool.acquire(maximumSizeInBytes);
         List<Integer> calleeToCallerMapping = new ArrayList<>();
         Serializer.serializeEntireGraphAndNextHashCode(calleeBuffer, null, calleeToCallerMapping, resolver, cache, classNameMapper, nextHashCode, sortedRoots, constantClass);
-        byte[] calleeBytes = new byte[calleeBuffer.position()];
-        System.arraycopy(calleeBuffer.array(), 0, calleeBytes, 0, calleeBytes.length);
+        byte[] calleeBytes = OutputBufferPool.toByteArray(calleeBuffer);
         return new ReentrantGraph(calleeBytes, null, calleeToCallerMapping);
     }
 
@@ -6,9 +6,7 @@ import java.lang.reflect.Method;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 
 import i.AvmException;
 import i.OutOfEnergyException;
@@ -33,10 +31,9 @@ public class Serializer {
         // In the common case, we are doing neither (these arguments are only used for reentrant calls).
         RuntimeAssertionError.assertTrue((null == out_instanceIndex) || (null == out_calleeToCallerIndexMap));
         
-        // We are going to perform a breadth-first traversal so we need a queue.
-        Queue<Object> toProcessQueue = new LinkedList<>();
         // Create the object serializer (it maintains the state of the serialization and can also be passed in to objects to request that they serialize).
-        ByteBufferObjectSerializer objectSerializer = new ByteBufferObjectSerializer(outputBuffer, toProcessQueue, cache, resolver, classNameMapper);
+        // It also queues the instances for our breadth-first traversal.
+        ByteBufferObjectSerializer objectSerializer = new ByteBufferObjectSerializer(outputBuffer, cache, resolver, classNameMapper);
 
         if (mainInstance != null) {
             objectSerializer.writeObject(mainInstance);
@@ -45,22 +42,21 @@ public class Serializer {
         serializeClassStatics(objectSerializer, cache, sortedRoots, constantClass);
         
         // Finally, we serialize the rest of the graph.
-        serializeGraphFromWorkQueue(out_instanceIndex, out_calleeToCallerIndexMap, objectSerializer, cache, toProcessQueue);
+        serializeGraphFromWorkQueue(out_instanceIndex, out_calleeToCallerIndexMap, objectSerializer, cache);
     }
 
     public static void serializeObject(ByteBuffer outputBuffer, Object val, IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper) {
         // We define the storage as big-endian.
         RuntimeAssertionError.assertTrue(ByteOrder.BIG_ENDIAN == outputBuffer.order());
 
-        // We are going to perform a breadth-first traversal so we need a queue.
-        Queue<Object> toProcessQueue = new LinkedList<>();
         // Create the object serializer (it maintains the state of the serialization and can also be passed in to objects to request that they serialize).
-        ByteBufferObjectSerializer objectSerializer = new ByteBufferObjectSerializer(outputBuffer, toProcessQueue, cache, resolver, classNameMapper);
+        // It also queues the instances for our breadth-first traversal.
+        ByteBufferObjectSerializer objectSerializer = new ByteBufferObjectSerializer(outputBuffer, cache, resolver, classNameMapper);
 
         objectSerializer.writeObject(val);
 
         // Finally, we serialize the rest of the graph.
-        serializeGraphFromWorkQueue(null, null, objectSerializer, cache, toProcessQueue);
+        serializeGraphFromWorkQueue(null, null, objectSerializer, cache);
     }
 
     private static void serializeClassStatics(ByteBufferObjectSerializer objectSerializer, SortedFieldCache cache, Class<?>[] sortedRoots, Class<?> constantClass) {
@@ -79,27 +75,42 @@ public class Serializer {
 
     private static void serializeConstantClass(ByteBufferObjectSerializer objectSerializer, SortedFieldCache cache, Class<?> clazz) {
         // Note that we don't serialize the class name - the roots are in the same sorted order for reading and writing.
-        Field[] constants = cache.getConstantFields(clazz);
-        serializeFieldsForClass(objectSerializer, constants);
+        IClassAccessor accessor = cache.getAccessor(clazz);
+        if (null != accessor) {
+            accessor.serializeConstants(objectSerializer);
+        } else {
+            Field[] constants = cache.getConstantFields(clazz);
+            serializeFieldsForClass(objectSerializer, constants);
+        }
     }
 
     private static void serializeOneUserClass(ByteBufferObjectSerializer objectSerializer, SortedFieldCache cache, Class<?> clazz) {
         // Note that we don't serialize the class name - the roots are in the same sorted order for reading and writing.
-        Field[] fields = cache.getUserStaticFields(clazz);
-        serializeFieldsForClass(objectSerializer, fields);
+        IClassAccessor accessor = cache.getAccessor(clazz);
+        if (null != accessor) {
+            accessor.serializeStatics(objectSerializer);
+        } else {
+            Field[] fields = cache.getUserStaticFields(clazz);
+            serializeFieldsForClass(objectSerializer, fields);
+        }
     }
 
-    private static void serializeGraphFromWorkQueue(List<Object> out_instanceIndex, List<Integer> out_calleeToCallerIndexMap, ByteBufferObjectSerializer objectSerializer, SortedFieldCache cache, Queue<Object> toProcessQueue) {
+    private static void serializeGraphFromWorkQueue(List<Object> out_instanceIndex, List<Integer> out_calleeToCallerIndexMap, ByteBufferObjectSerializer objectSerializer, SortedFieldCache cache) {
         Method serializeSelfMethod = cache.getSerializeSelfMethod();
         Field readIndexField = cache.getReadIndexField();
         
         try {
-            while (!toProcessQueue.isEmpty()) {
-                Object instance = toProcessQueue.remove();
+            Object instance;
+            while (null != (instance = objectSerializer.nextInstanceToProcess())) {
                 // We first need to serialize the class name.
                 String internalClassName = instance.getClass().getName();
                 objectSerializer.writeClassName(internalClassName);
-                serializeSelfMethod.invoke(instance, null, objectSerializer);
+                if (instance instanceof s.java.lang.Object) {
+                    // Shadow and user objects are called directly, which also avoids wrapping their exceptions.
+                    serializeInstance((s.java.lang.Object) instance, objectSerializer);
+                } else {
+                    serializeSelfMethod.invoke(instance, null, objectSerializer);
+                }
                 if (null != out_instanceIndex) {
                     out_instanceIndex.add(instance);
                 } else if (null != out_calleeToCallerIndexMap) {
@@ -127,6 +138,20 @@ public class Serializer {
         }
     }
 
+    private static void serializeInstance(s.java.lang.Object instance, ByteBufferObjectSerializer objectSerializer) {
+        try {
+            instance.serializeSelf(null, objectSerializer);
+        } catch (BufferOverflowException e) {
+            // This is if we run off the end of the buffer, which is an example of out of energy.
+            throw new OutOfEnergyException();
+        } catch (AvmException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // This shouldn't happen but is distinct from reflection errors.
+            throw RuntimeAssertionError.unexpected(e);
+        }
+    }
+
     private static void serializeFieldsForClass(ByteBufferObjectSerializer objectSerializer, Field[] fields) {
         try {
             for (Field field : fields) {
@@ -5,8 +5,11 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 import i.RuntimeAssertionError;
@@ -23,6 +26,10 @@ public class SortedFieldCache {
     private final Map<Class<?>, Field[]> constantFields;
     private final Map<Class<?>, Field[]> staticFields;
     private final Map<Class<?>, Field[]> instanceFields;
+    private final Map<Class<?>, IClassAccessor> accessors;
+    private final Map<Class<?>, Constructor<?>> constructors;
+    private final Map<Class<?>, int[]> stubLayouts;
+    private final Map<Field[], Field[]> referenceFields;
     private final ClassLoader dappClassLoader;
     private final Method serializeSelf;
     private final Method deserializeSelf;
@@ -33,6 +40,10 @@ public class SortedFieldCache {
         this.constantFields = new HashMap<>();
         this.staticFields = new HashMap<>();
         this.instanceFields = new HashMap<>();
+        this.accessors = new HashMap<>();
+        this.constructors = new HashMap<>();
+        this.stubLayouts = new HashMap<>();
+        this.referenceFields = new IdentityHashMap<>();
         this.dappClassLoader = dappClassLoader;
         this.serializeSelf = serializeSelf;
         this.deserializeSelf = deserializeSelf;
@@ -83,6 +94,107 @@ public class SortedFieldCache {
         return result;
     }
 
+    /**
+     * Returns the object reference fields of the given fields, in the same order.  These are the fields which are read by readObject().
+     *
+     * @param fields The fields returned by this cache.
+     * @return The reference fields.
+     */
+    public Field[] getReferenceFields(Field[] fields) {
+        Field[] result = this.referenceFields.get(fields);
+        if (null == result) {
+            result = Arrays.stream(fields)
+                    .filter((field) -> !field.getType().isPrimitive())
+                    .toArray(Field[]::new);
+            this.referenceFields.put(fields, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the accessor generated for the class by {@link ClassAccessorGenerator}.
+     *
+     * @param clazz The class.
+     * @return The accessor, or null if the class has no generated accessor (shadow and test classes) so reflection should be used.
+     */
+    public IClassAccessor getAccessor(Class<?> clazz) {
+        IClassAccessor result = this.accessors.get(clazz);
+        if ((null == result) && !this.accessors.containsKey(clazz)) {
+            try {
+                Method factory = clazz.getDeclaredMethod(ClassAccessorGenerator.ACCESSOR_FACTORY_NAME);
+                // The class itself may not be public.
+                factory.setAccessible(true);
+                result = (IClassAccessor) factory.invoke(null);
+            } catch (NoSuchMethodException e) {
+                // Not generated for this class.
+                result = null;
+            } catch (SecurityException | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                // Reflection errors can't happen since we set this up so we could access it.
+                throw RuntimeAssertionError.unexpected(e);
+            }
+            this.accessors.put(clazz, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the layout of the serialized instances of the class, if they can be loaded lazily.
+     * This is only the case for DApp classes which only extend DApp classes (up to the shadow Object), since all their
+     * fields are automatically deserialized and all their field accesses call "lazyLoad()".
+     * The layout is the size of each run of primitive data in the instance, where 0 means an object reference.
+     *
+     * @param clazz The class.
+     * @return The layout, or null if instances of the class can't be stubs.
+     */
+    public int[] getStubLayout(Class<?> clazz) {
+        int[] result = this.stubLayouts.get(clazz);
+        if ((null == result) && !this.stubLayouts.containsKey(clazz)) {
+            // We start with the hashCode of the shadow Object, which is an int.
+            List<Integer> layout = new ArrayList<>();
+            layout.add(Integer.BYTES);
+            if (addStubLayout(layout, clazz)) {
+                result = layout.stream().mapToInt(Integer::intValue).toArray();
+            }
+            this.stubLayouts.put(clazz, result);
+        }
+        return result;
+    }
+
+    private boolean addStubLayout(List<Integer> layout, Class<?> clazz) {
+        Class<?> superclass = clazz.getSuperclass();
+        if (null == getAccessor(clazz)) {
+            return false;
+        }
+        if ((s.java.lang.Object.class != superclass) && !addStubLayout(layout, superclass)) {
+            return false;
+        }
+        // The fields of the superclass come first, as in the automatic deserialization.
+        for (Field field : getInstanceFields(clazz)) {
+            int size = primitiveSize(field.getType());
+            int last = layout.size() - 1;
+            if ((size > 0) && (layout.get(last) > 0)) {
+                layout.set(last, layout.get(last) + size);
+            } else {
+                layout.add(size);
+            }
+        }
+        return true;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if ((boolean.class == type) || (byte.class == type)) {
+            return Byte.BYTES;
+        } else if ((short.class == type) || (char.class == type)) {
+            return Short.BYTES;
+        } else if ((int.class == type) || (float.class == type)) {
+            return Integer.BYTES;
+        } else if ((long.class == type) || (double.class == type)) {
+            return Long.BYTES;
+        } else {
+            return 0;
+        }
+    }
+
     public Method getSerializeSelfMethod() {
         return this.serializeSelf;
     }
@@ -106,11 +218,22 @@ public class SortedFieldCache {
             }
             this.internalNameClasses.put(internalClassName, clazz);
         }
+        IClassAccessor accessor = getAccessor(clazz);
+        if (null != accessor) {
+            Object instance = accessor.newInstance(readIndex);
+            if (null != instance) {
+                return instance;
+            }
+        }
         // We define the Void class, since we just need to define a constructor that the user can't hook
         // into (and their references to this would be mapped to shadow). 
         try {
-            Constructor<?> constructor = clazz.getConstructor(Void.class, int.class);
-            constructor.setAccessible(true);
+            Constructor<?> constructor = this.constructors.get(clazz);
+            if (null == constructor) {
+                constructor = clazz.getConstructor(Void.class, int.class);
+                constructor.setAccessible(true);
+                this.constructors.put(clazz, constructor);
+            }
             return constructor.newInstance((Void)null, readIndex);
         } catch (NoSuchMethodException | SecurityException | InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             // We can't fail to find this since the type is datastore-safe.
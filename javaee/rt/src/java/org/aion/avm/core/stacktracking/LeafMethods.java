@@ -0,0 +1,130 @@
+package org.aion.avm.core.stacktracking;
+
+import i.Helper;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Finds the leaf methods of a class:  the methods which don't need their own enterMethod/exitMethod since every call to
+ * them is accounted for by the caller.
+ * A leaf method:
+ * -is private, so it can only be called from this class (the class must not have nestmates)
+ * -is not referenced by a method handle (as lambdas and method references are called from outside the class)
+ * -calls no method other than the runtime helper, so it can't go deeper
+ * -has no exception handler and no athrow, so it returns normally or throws an exception which the caller's handlers reset the stack for
+ * The stack depth and size of a caller don't change while its own code runs, so the caller can check whether its leaves fit the stack
+ * once on entry and only account for them at each call if they don't (in which case the call fails exactly as the enterMethod of the
+ * leaf would have).
+ */
+class LeafMethods {
+    // No method is a leaf.
+    static final LeafMethods NONE = new LeafMethods(null, true, Collections.emptyList());
+
+    private final String className;
+    // The frame size of the leaf methods, by name and descriptor.
+    private final Map<String, Integer> frameSizes = new HashMap<>();
+    private final Set<String> staticLeaves = new HashSet<>();
+
+    LeafMethods(String className, boolean hasNestmates, List<MethodNode> methods) {
+        this.className = className;
+        if (hasNestmates) {
+            return;
+        }
+        Set<String> handleTargets = new HashSet<>();
+        for (MethodNode method : methods) {
+            for (AbstractInsnNode insn : method.instructions) {
+                if (insn instanceof InvokeDynamicInsnNode) {
+                    InvokeDynamicInsnNode indy = (InvokeDynamicInsnNode) insn;
+                    addHandleTarget(handleTargets, indy.bsm);
+                    for (Object arg : indy.bsmArgs) {
+                        addHandleTarget(handleTargets, arg);
+                    }
+                } else if (insn instanceof LdcInsnNode) {
+                    addHandleTarget(handleTargets, ((LdcInsnNode) insn).cst);
+                }
+            }
+        }
+        for (MethodNode method : methods) {
+            String key = method.name + method.desc;
+            if (isLeaf(method) && !handleTargets.contains(key)) {
+                this.frameSizes.put(key, method.maxLocals + method.maxStack);
+                if (0 != (method.access & Opcodes.ACC_STATIC)) {
+                    this.staticLeaves.add(key);
+                }
+            }
+        }
+    }
+
+    private void addHandleTarget(Set<String> handleTargets, Object cst) {
+        if (cst instanceof Handle) {
+            Handle handle = (Handle) cst;
+            if (this.className.equals(handle.getOwner())) {
+                handleTargets.add(handle.getName() + handle.getDesc());
+            }
+        }
+    }
+
+    private static boolean isLeaf(MethodNode method) {
+        if ((0 == (method.access & Opcodes.ACC_PRIVATE))
+                || (0 != (method.access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)))
+                || method.name.startsWith("<")
+                || !method.tryCatchBlocks.isEmpty()) {
+            return false;
+        }
+        for (AbstractInsnNode insn : method.instructions) {
+            if (insn instanceof MethodInsnNode) {
+                if (!Helper.RUNTIME_HELPER_NAME.equals(((MethodInsnNode) insn).owner)) {
+                    return false;
+                }
+            } else if ((insn instanceof InvokeDynamicInsnNode) || (Opcodes.ATHROW == insn.getOpcode())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isLeaf(String name, String desc) {
+        return this.frameSizes.containsKey(name + desc);
+    }
+
+    /**
+     * @return The frame size of the leaf method called by this instruction, or -1 if it doesn't call a leaf method.
+     */
+    int leafFrameSize(int opcode, String owner, String name, String desc) {
+        String key = name + desc;
+        Integer frameSize = this.frameSizes.get(key);
+        if (null == frameSize || !this.className.equals(owner)) {
+            return -1;
+        }
+        // The private method is the one called, as long as the kind of the call matches.
+        boolean isStatic = this.staticLeaves.contains(key);
+        return (isStatic == (Opcodes.INVOKESTATIC == opcode)) ? frameSize : -1;
+    }
+
+    /**
+     * @return The largest frame size of the leaf methods called by the method, or -1 if it calls none.
+     */
+    int maxLeafFrameSize(MethodNode method) {
+        int max = -1;
+        for (AbstractInsnNode insn : method.instructions) {
+            if (insn instanceof MethodInsnNode) {
+                MethodInsnNode call = (MethodInsnNode) insn;
+                max = Math.max(max, leafFrameSize(call.getOpcode(), call.owner, call.name, call.desc));
+            }
+        }
+        return max;
+    }
+}
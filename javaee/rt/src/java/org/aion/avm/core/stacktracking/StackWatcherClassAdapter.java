@@ -6,33 +6,99 @@ import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.commons.GeneratorAdapter;
 import org.objectweb.asm.tree.MethodNode;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * This visitor listens to the methods being read and then passes them to the StackWatcherMethodAdapter to be instrumented for stack overflow protection.
  * That other visitor does most of the work while this one is only used to check some of the bounds of the method, first.
+ * If leaf methods (see LeafMethods) are elided, the methods are held until the end of the class, so the leaf methods are known before
+ * instrumenting their callers.  Leaf methods are passed on unchanged, since their callers do their stack accounting.
  */
 public class StackWatcherClassAdapter extends ClassToolchain.ToolChainClassVisitor {
+    private final boolean elideLeaves;
+    private String className;
+    private boolean hasNestmates;
+    private final List<MethodNode> methods = new ArrayList<>();
+
     public StackWatcherClassAdapter() {
+        this(false);
+    }
+
+    /**
+     * @param elideLeaves True if the leaf methods should be left without stack tracking.
+     */
+    public StackWatcherClassAdapter(boolean elideLeaves) {
         super(Opcodes.ASM7);
+        this.elideLeaves = elideLeaves;
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        this.className = name;
+        super.visit(version, access, name, signature, superName, interfaces);
+    }
+
+    @Override
+    public void visitNestHost(String nestHost) {
+        this.hasNestmates = true;
+        super.visitNestHost(nestHost);
+    }
+
+    @Override
+    public void visitNestMember(String nestMember) {
+        this.hasNestmates = true;
+        super.visitNestMember(nestMember);
     }
 
     @Override
     public MethodVisitor visitMethod(final int access, final String name,
             final String desc, final String signature, final String[] exceptions)
     {
-        MethodVisitor mv = cv.visitMethod(access, name, desc, signature, exceptions);
-        GeneratorAdapter ga = new GeneratorAdapter(mv, access, name, desc);
-        StackWatcherMethodAdapter ma = new StackWatcherMethodAdapter(ga, access, name, desc);
-
-        // Wrap the method adapter into a method node to access method information.
-        return new MethodNode(Opcodes.ASM7, access, name, desc, signature, exceptions)
-        {
-            @Override
-            public void visitEnd() {
-                ma.setTryCatchBlockNum(this.tryCatchBlocks.size());
-                ma.setMax(this, this.maxLocals, this.maxStack);
-                this.accept(ma);
+        if (!this.elideLeaves) {
+            MethodVisitor mv = cv.visitMethod(access, name, desc, signature, exceptions);
+            GeneratorAdapter ga = new GeneratorAdapter(mv, access, name, desc);
+            StackWatcherMethodAdapter ma = new StackWatcherMethodAdapter(ga, access, name, desc, LeafMethods.NONE);
+
+            // Wrap the method adapter into a method node to access method information.
+            return new MethodNode(Opcodes.ASM7, access, name, desc, signature, exceptions)
+            {
+                @Override
+                public void visitEnd() {
+                    ma.setTryCatchBlockNum(this.tryCatchBlocks.size());
+                    ma.setMax(this, this.maxLocals, this.maxStack);
+                    this.accept(ma);
+                }
+            };
+        }
+        // Wrap the method into a method node to access method information.
+        MethodNode node = new MethodNode(Opcodes.ASM7, access, name, desc, signature, exceptions);
+        this.methods.add(node);
+        return node;
+    }
+
+    @Override
+    public void visitEnd() {
+        if (!this.elideLeaves) {
+            super.visitEnd();
+            return;
+        }
+        LeafMethods leaves = new LeafMethods(this.className, this.hasNestmates, this.methods);
+        for (MethodNode node : this.methods) {
+            String[] exceptions = node.exceptions.toArray(new String[0]);
+            MethodVisitor mv = cv.visitMethod(node.access, node.name, node.desc, node.signature, exceptions);
+            if (leaves.isLeaf(node.name, node.desc)) {
+                node.accept(mv);
+            } else {
+                GeneratorAdapter ga = new GeneratorAdapter(mv, node.access, node.name, node.desc);
+                StackWatcherMethodAdapter ma = new StackWatcherMethodAdapter(ga, node.access, node.name, node.desc, leaves);
+                ma.setTryCatchBlockNum(node.tryCatchBlocks.size());
+                ma.setMax(node, node.maxLocals, node.maxStack);
+                ma.setMaxLeafFrameSize(leaves.maxLeafFrameSize(node));
+                node.accept(ma);
             }
-        };
+        }
+        super.visitEnd();
     }
 }
@@ -21,6 +21,7 @@ import java.util.ArrayList;
  * -getCurStackDepth
  * -getCurStackSize
  * -enterCatchBlock
+ * -enterMethodAndCheckLeaves
  *
  * The total flow of this is complicated so is worth explaining:
  * 1) Enter method is called on entering method, to increment the stack depth.
@@ -29,6 +30,9 @@ import java.util.ArrayList;
  * 3) If there are any exception handlers in the method, the stack depth is captured into a local variable.
  * 4) In all exception handlers, the stack depth is forced back to the value stored in this local.
  * This means that the depth is reset to the same value when entering the method or returning to it via exception handler.
+ * 5) If the method calls leaf methods (see LeafMethods), which don't call enter and exit method themselves, it enters via
+ * enterMethodAndCheckLeaves, storing whether its leaves fit the stack into a local variable.  The calls to the leaves only call enter
+ * and exit method for them if they don't fit.
  */
 class StackWatcherMethodAdapter extends AdviceAdapter {
     private int stackDepthLocalVariableIndex = -1;
@@ -36,6 +40,9 @@ class StackWatcherMethodAdapter extends AdviceAdapter {
     private int maxLocals = 0;
     private int maxStack = 0;
     private int tryCatchBlockCount = 0;
+    private final LeafMethods leaves;
+    private int maxLeafFrameSize = -1;
+    private int leavesFitLocalVariableIndex = -1;
 
     // These values represent the upper bound of additional locals & stack space our instrumented code
     // uses. The ClassWriter overwrites the max-locals and max-stack in the end since we always specify
@@ -43,6 +50,7 @@ class StackWatcherMethodAdapter extends AdviceAdapter {
     // the stack shape etc. prior to the ClassWriter recomputing these values, and so we safely pass
     // off these upper bounds to satisfy any intermediate checks.
     // See AKI-108 for more details.
+    // One more local is used if the method calls leaf methods.
     private static final int NUM_INSTRUMENTED_LOCALS = 2;
     private static final int NUM_INSTRUMENTED_STACK = 2;
 
@@ -51,12 +59,14 @@ class StackWatcherMethodAdapter extends AdviceAdapter {
 
     //JAVA asm Type for later use.
     private Type typeInt = Type.getType(int.class);
+    private Type typeBoolean = Type.getType(boolean.class);
     private Type typeHelper = Type.getType("L" + Helper.RUNTIME_HELPER_NAME + ";");
 
     public StackWatcherMethodAdapter(final GeneratorAdapter mv,
-            final int access, final String name, final String desc)
+            final int access, final String name, final String desc, LeafMethods leaves)
     {
         super(Opcodes.ASM7, mv, access, name, desc);
+        this.leaves = leaves;
     }
 
     public void setMax(MethodNode node, int l, int s){
@@ -68,21 +78,36 @@ class StackWatcherMethodAdapter extends AdviceAdapter {
     public void visitMaxs(int maxStack, int maxLocals) {
         RuntimeAssertionError.assertTrue(maxStack == this.maxStack);
         RuntimeAssertionError.assertTrue(maxLocals == this.maxLocals);
-        super.visitMaxs(maxStack + NUM_INSTRUMENTED_STACK, maxLocals + NUM_INSTRUMENTED_LOCALS);
+        int instrumentedLocals = (this.maxLeafFrameSize < 0) ? NUM_INSTRUMENTED_LOCALS : NUM_INSTRUMENTED_LOCALS + 1;
+        super.visitMaxs(maxStack + NUM_INSTRUMENTED_STACK, maxLocals + instrumentedLocals);
     }
 
     public void setTryCatchBlockNum(int l){
         this.tryCatchBlockCount = l;
     }
 
+    public void setMaxLeafFrameSize(int s){
+        this.maxLeafFrameSize = s;
+    }
+
     @Override
     public void visitCode(){
         super.visitCode();
 
-        // Push the current stack size to operand stack and invoke AVMStackWatcher.enterMethod(int)
-        Method m1 = Method.getMethod("void enterMethod(int)");
-        visitLdcInsn(this.maxLocals + this.maxStack);
-        invokeStatic(typeHelper, m1);
+        if (this.maxLeafFrameSize < 0) {
+            // Push the current stack size to operand stack and invoke AVMStackWatcher.enterMethod(int)
+            Method m1 = Method.getMethod("void enterMethod(int)");
+            visitLdcInsn(this.maxLocals + this.maxStack);
+            invokeStatic(typeHelper, m1);
+        } else {
+            // Also check the largest leaf frame against the stack and keep the result for the calls to the leaves.
+            Method m1 = Method.getMethod("boolean enterMethodAndCheckLeaves(int, int)");
+            visitLdcInsn(this.maxLocals + this.maxStack);
+            visitLdcInsn(this.maxLeafFrameSize);
+            invokeStatic(typeHelper, m1);
+            this.leavesFitLocalVariableIndex = newLocal(typeBoolean);
+            storeLocal(this.leavesFitLocalVariableIndex, typeBoolean);
+        }
 
         // If current method has at least one try catch block, we need to generate a StackWatcher stamp.
         if (this.tryCatchBlockCount > 0){
@@ -109,6 +134,31 @@ class StackWatcherMethodAdapter extends AdviceAdapter {
     }
 
 
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+        int leafFrameSize = this.leaves.leafFrameSize(opcode, owner, name, descriptor);
+        if (leafFrameSize < 0) {
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            return;
+        }
+        // The leaf doesn't call enterMethod/exitMethod so do it here, unless it was found to fit on entry.
+        Label enterDone = new Label();
+        loadLocal(this.leavesFitLocalVariableIndex, typeBoolean);
+        ifZCmp(NE, enterDone);
+        visitLdcInsn(leafFrameSize);
+        invokeStatic(typeHelper, Method.getMethod("void enterMethod(int)"));
+        mark(enterDone);
+
+        super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+
+        Label exitDone = new Label();
+        loadLocal(this.leavesFitLocalVariableIndex, typeBoolean);
+        ifZCmp(NE, exitDone);
+        visitLdcInsn(leafFrameSize);
+        invokeStatic(typeHelper, Method.getMethod("void exitMethod(int)"));
+        mark(exitDone);
+    }
+
     @Override
     public void visitTryCatchBlock(Label start, Label end, Label handler, String type){
         // visitTryCatchBlock is guaranteed to be called before the visits of its labels.
@@ -40,12 +40,12 @@ public class TransactionTask {
      */
     public void attachInstrumentationForThread() {
         RuntimeAssertionError.assertTrue(null == this.threadOwningTask);
-        this.threadOwningTask = IInstrumentation.attachedThreadInstrumentation.get();
+        this.threadOwningTask = IInstrumentation.current();
         RuntimeAssertionError.assertTrue(null != this.threadOwningTask);
     }
 
     public void detachInstrumentationForThread() {
-        RuntimeAssertionError.assertTrue(IInstrumentation.attachedThreadInstrumentation.get() == this.threadOwningTask);
+        RuntimeAssertionError.assertTrue(IInstrumentation.current() == this.threadOwningTask);
         this.threadOwningTask = null;
     }
 
@@ -33,7 +33,7 @@ public final class Address extends s.java.lang.Object {
      * @param raw The raw bytes representing the address.
      */
     public Address(ByteArray raw) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_constructor);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_constructor);
         if (null == raw) {
             throw new NullPointerException();
         }
@@ -41,7 +41,7 @@ public final class Address extends s.java.lang.Object {
     }
 
     public static Address avm_fromString(s.java.lang.String str) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_fromString);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_fromString);
         if (str == null) {
             throw new NullPointerException();
         }
@@ -63,7 +63,7 @@ public final class Address extends s.java.lang.Object {
     }
 
     public boolean avm_isContract() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_unwrap);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_unwrap);
         lazyLoad();
         return internalArray[0] == 0x1;
     }
@@ -74,7 +74,7 @@ public final class Address extends s.java.lang.Object {
      * @return The raw bytes underneath the address.
      */
     public ByteArray avm_toByteArray() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_unwrap);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_unwrap);
         lazyLoad();
         byte[] copy = copyOfInternal();
         return new ByteArray(copy);
@@ -82,21 +82,21 @@ public final class Address extends s.java.lang.Object {
 
     @Override
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_hashCode);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_hashCode);
 
         return internalHashCode();
     }
 
     @Override
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_equals);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_equals);
 
         return internalEquals(obj);
     }
 
     @Override
     public s.java.lang.String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_toString);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_toString);
         lazyLoad();
         char[] hexChars = toHexChars(this.internalArray);
         return new s.java.lang.String(new java.lang.String(hexChars));
@@ -5,6 +5,7 @@
 
 package p.score;
 
+import a.BooleanArray;
 import a.ByteArray;
 import i.IBlockchainRuntime;
 import i.IInstrumentation;
@@ -25,62 +26,62 @@ public final class Context extends Object {
     // Runtime-facing implementation.
 
     public static ByteArray avm_getTransactionHash() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getTransactionHash);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getTransactionHash);
         return blockchainRuntime.avm_getTransactionHash();
     }
 
     public static int avm_getTransactionIndex() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getTransactionIndex);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getTransactionIndex);
         return blockchainRuntime.avm_getTransactionIndex();
     }
 
     public static long avm_getTransactionTimestamp() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getTransactionTimestamp);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getTransactionTimestamp);
         return blockchainRuntime.avm_getTransactionTimestamp();
     }
 
     public static BigInteger avm_getTransactionNonce() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getTransactionNonce);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getTransactionNonce);
         return blockchainRuntime.avm_getTransactionNonce();
     }
 
     public static Address avm_getAddress() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getAddress);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getAddress);
         return blockchainRuntime.avm_getAddress();
     }
 
     public static Address avm_getCaller() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getCaller);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getCaller);
         return blockchainRuntime.avm_getCaller();
     }
 
     public static Address avm_getOrigin() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getOrigin);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getOrigin);
         return blockchainRuntime.avm_getOrigin();
     }
 
     public static Address avm_getOwner() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getOwner);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getOwner);
         return blockchainRuntime.avm_getOwner();
     }
 
     public static BigInteger avm_getValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getValue);
         return blockchainRuntime.avm_getValue();
     }
 
     public static long avm_getBlockTimestamp() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getBlockTimestamp);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getBlockTimestamp);
         return blockchainRuntime.avm_getBlockTimestamp();
     }
 
     public static long avm_getBlockHeight() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getBlockHeight);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getBlockHeight);
         return blockchainRuntime.avm_getBlockHeight();
     }
 
     public static BigInteger avm_getBalance(Address address) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getBalance);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getBalance);
         return blockchainRuntime.avm_getBalance(address);
     }
 
@@ -128,12 +129,12 @@ public final class Context extends Object {
     }
 
     public static void avm_revert(int code, String message) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_revert);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_revert);
         blockchainRuntime.avm_revert(code, message);
     }
 
     public static void avm_revert(int code) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_revert);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_revert);
         blockchainRuntime.avm_revert(code);
     }
 
@@ -146,45 +147,56 @@ public final class Context extends Object {
     }
 
     public static void avm_require(boolean condition, String message) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_require);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_require);
         blockchainRuntime.avm_require(condition, message);
     }
 
     public static void avm_require(boolean condition) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_require);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_require);
         blockchainRuntime.avm_require(condition);
     }
 
     public static void avm_println(String message) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_println);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_println);
         blockchainRuntime.avm_println(message);
     }
 
     public static ByteArray avm_hash(String alg, ByteArray data) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+        IInstrumentation.current().chargeEnergy(
                 RuntimeMethodFeeSchedule.BlockchainRuntime_avm_hash_base
                     + RuntimeMethodFeeSchedule.BlockchainRuntime_avm_hash_per_bytes * (data != null ? data.length() : 0));
         return blockchainRuntime.avm_hash(alg, data);
     }
 
+    public static Hasher avm_newHasher(String alg) {
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newHasher);
+        return blockchainRuntime.avm_newHasher(alg);
+    }
+
     public static boolean avm_verifySignature(String alg, ByteArray msg,
             ByteArray sig, ByteArray pubKey) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+        IInstrumentation.current().chargeEnergy(
                 RuntimeMethodFeeSchedule.BlockchainRuntime_avm_verifySignature
                         + RuntimeMethodFeeSchedule.BlockchainRuntime_avm_verifySignature_per_bytes * (msg != null ? msg.length() : 0));
         return blockchainRuntime.avm_verifySignature(alg, msg, sig, pubKey);
     }
 
+    public static BooleanArray avm_verifySignatures(String alg, IObjectArray msgs,
+            IObjectArray sigs, IObjectArray pubKeys) {
+        // Charge steps in BlockchainRuntime
+        return blockchainRuntime.avm_verifySignatures(alg, msgs, sigs, pubKeys);
+    }
+
     public static ByteArray avm_recoverKey(String alg, ByteArray msg,
             ByteArray signature, boolean compressed) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+        IInstrumentation.current().chargeEnergy(
                 RuntimeMethodFeeSchedule.BlockchainRuntime_avm_recoverKey
                         + RuntimeMethodFeeSchedule.BlockchainRuntime_avm_recoverKey_per_bytes * (msg != null ? msg.length() : 0));
         return blockchainRuntime.avm_recoverKey(alg, msg, signature, compressed);
     }
 
     public static ByteArray avm_aggregate(String type, ByteArray prevAgg, ByteArray values) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(
+        IInstrumentation.current().chargeEnergy(
                 RuntimeMethodFeeSchedule.BlockchainRuntime_avm_aggregate
                         + RuntimeMethodFeeSchedule.BlockchainRuntime_avm_aggregate_per_bytes * (values != null ? values.length() : 0)
                         + RuntimeMethodFeeSchedule.BlockchainRuntime_avm_aggregate_per_bytes * (prevAgg != null ? prevAgg.length() : 0));
@@ -207,37 +219,37 @@ public final class Context extends Object {
     }
 
     public static Address avm_getAddressFromKey(ByteArray publicKey) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getAddressFromKey);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getAddressFromKey);
         return blockchainRuntime.avm_getAddressFromKey(publicKey);
     }
 
     public static int avm_getFeeSharingProportion() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getFeeSharingProportion);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_getFeeSharingProportion);
         return blockchainRuntime.avm_getFeeSharingProportion();
     }
 
     public static void avm_setFeeSharingProportion(int proportion) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_setFeeSharingProportion);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_setFeeSharingProportion);
         blockchainRuntime.avm_setFeeSharingProportion(proportion);
     }
 
     public static BranchDB avm_newBranchDB(String id, Class<?> vc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newDictDB);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newDictDB);
         return blockchainRuntime.avm_newAnyDB(id, vc);
     }
 
     public static DictDB avm_newDictDB(String id, Class<?> vc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newDictDB);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newDictDB);
         return blockchainRuntime.avm_newAnyDB(id, vc);
     }
 
     public static ArrayDB avm_newArrayDB(String id, Class<?> vc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newArrayDB);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newArrayDB);
         return blockchainRuntime.avm_newAnyDB(id, vc);
     }
 
     public static VarDB avm_newVarDB(String id, Class<?> vc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newVarDB);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newVarDB);
         return blockchainRuntime.avm_newAnyDB(id, vc);
     }
 
@@ -248,13 +260,13 @@ public final class Context extends Object {
 
     public static ObjectReader avm_newByteArrayObjectReader(String codec,
             ByteArray byteArray) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newByteArrayObjectReader);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newByteArrayObjectReader);
         return blockchainRuntime.avm_newByteArrayObjectReader(codec, byteArray);
     }
 
     public static ByteArrayObjectWriter avm_newByteArrayObjectWriter(
             String codec) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newByteArrayObjectWriter);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BlockchainRuntime_avm_newByteArrayObjectWriter);
         return blockchainRuntime.avm_newByteArrayObjectWriter(codec);
     }
 }
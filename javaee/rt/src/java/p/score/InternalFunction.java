@@ -149,8 +149,8 @@ public final class InternalFunction extends s.java.lang.Object implements s.java
             if (cause instanceof RuntimeException) {
                 throw (RuntimeException) cause;
             } else if (cause instanceof e.s.java.lang.Throwable) {
-                var se = IInstrumentation.attachedThreadInstrumentation
-                        .get().unwrapThrowable(cause);
+                var se = IInstrumentation
+                        .current().unwrapThrowable(cause);
                 if (se instanceof s.java.lang.RuntimeException) {
                     throw (e.s.java.lang.Throwable) cause;
                 }
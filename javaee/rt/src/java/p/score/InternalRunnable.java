@@ -99,8 +99,8 @@ public final class InternalRunnable extends s.java.lang.Object implements s.java
             if (cause instanceof RuntimeException) {
                 throw (RuntimeException) cause;
             } else if (cause instanceof e.s.java.lang.Throwable) {
-                var se = IInstrumentation.attachedThreadInstrumentation
-                        .get().unwrapThrowable(cause);
+                var se = IInstrumentation
+                        .current().unwrapThrowable(cause);
                 if (se instanceof s.java.lang.RuntimeException) {
                     throw (e.s.java.lang.Throwable) cause;
                 }
@@ -40,22 +40,18 @@ public class AnyDBImpl extends s.java.lang.Object implements AnyDB {
         return c.toByteArray();
     }
 
-    private static byte[] catEncodedKey(byte[] prefix, int k) {
-        var c = new RLPCoder();
-        c.write(prefix);
-        c.encode(k);
-        return c.toByteArray();
-    }
-
     private IDBStorage getDBStorage() {
         return IInstrumentation.getCurrentFrameContext().getDBStorage();
     }
 
-    private byte[] hashWithCharge(byte[] data) {
+    private static StorageKeyCache getStorageKeyCache() {
+        return IInstrumentation.getCurrentFrameContext().getStorageKeyCache();
+    }
+
+    private static void chargeHash(int len) {
         IInstrumentation.charge(
                 RuntimeMethodFeeSchedule.BlockchainRuntime_avm_hash_base +
-                        RuntimeMethodFeeSchedule.BlockchainRuntime_avm_hash_per_bytes * (data != null ? data.length : 0));
-        return Crypto.sha3_256(data);
+                        RuntimeMethodFeeSchedule.BlockchainRuntime_avm_hash_per_bytes * len);
     }
 
     private byte[] getStorageKey(byte type) {
@@ -69,14 +65,21 @@ public class AnyDBImpl extends s.java.lang.Object implements AnyDB {
         return hash;
     }
 
+    // The hash is charged as if it's always computed, even if the key is cached.
     private byte[] getItemStorageKey(IObject key) {
         prefix[0] = TYPE_DICT_DB;
-        return hashWithCharge(catEncodedKey(prefix, key));
+        var kc = getStorageKeyCache();
+        kc.newData(prefix).encode(key);
+        chargeHash(kc.getDataLength());
+        return kc.getStorageKey();
     }
 
     private byte[] getItemStorageKey(int key) {
         prefix[0] = TYPE_ARRAY_DB;
-        return hashWithCharge(catEncodedKey(prefix, key));
+        var kc = getStorageKeyCache();
+        kc.newData(prefix).encode(key);
+        chargeHash(kc.getDataLength());
+        return kc.getStorageKey();
     }
 
     private byte[] getSubDBID(IObject key) {
@@ -121,7 +124,7 @@ public class AnyDBImpl extends s.java.lang.Object implements AnyDB {
 
     // BranchDB
     public IObject avm_at(IObject key) {
-        IInstrumentation.attachedThreadInstrumentation.get()
+        IInstrumentation.current()
                 .chargeEnergy(RuntimeMethodFeeSchedule.DictDB_avm_at);
         return new AnyDBImpl(getSubDBID(key), leafValue);
     }
@@ -181,11 +184,25 @@ public class AnyDBImpl extends s.java.lang.Object implements AnyDB {
 
     public IObject avm_get(int index) {
         IDBStorage s = getDBStorage();
-        int sz = s.getArrayLength(getStorageKey(TYPE_ARRAY_DB));
-        if (index >= sz || index < 0) {
+        byte[] lengthKey = getStorageKey(TYPE_ARRAY_DB);
+        if (index < 0) {
+            s.getArrayLength(lengthKey);
+            throw new IllegalArgumentException();
+        }
+        // Load the length and the item at once. Hash for the item key is
+        // charged only if it's used as before.
+        prefix[0] = TYPE_ARRAY_DB;
+        var kc = getStorageKeyCache();
+        kc.newData(prefix).encode(index);
+        int itemKeyDataLength = kc.getDataLength();
+        byte[] itemKey = kc.getStorageKey();
+        s.prefetch(lengthKey, itemKey);
+        int sz = s.getArrayLength(lengthKey);
+        if (index >= sz) {
             throw new IllegalArgumentException();
         }
-        return decode(s.getBytes(getItemStorageKey(index)));
+        chargeHash(itemKeyDataLength);
+        return decode(s.getBytes(itemKey));
     }
 
     public int avm_size() {
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package pi;
+
+import a.ByteArray;
+import foundation.icon.ee.types.Status;
+import foundation.icon.ee.util.Crypto;
+import i.GenericPredefinedException;
+import i.IInstrumentation;
+import i.IObjectDeserializer;
+import i.IObjectSerializer;
+import i.RuntimeAssertionError;
+import org.aion.avm.RuntimeMethodFeeSchedule;
+import p.score.Hasher;
+
+import java.util.Objects;
+
+public class HasherImpl
+        extends s.java.lang.Object
+        implements Hasher {
+    private final Crypto.Hasher hasher;
+
+    public HasherImpl(Crypto.Hasher hasher) {
+        this.hasher = hasher;
+    }
+
+    public void avm_update(ByteArray data) {
+        Objects.requireNonNull(data, "Input data can't be NULL");
+        avm_update(data, 0, data.length());
+    }
+
+    public void avm_update(ByteArray data, int off, int len) {
+        Objects.requireNonNull(data, "Input data can't be NULL");
+        Objects.checkFromIndexSize(off, len, data.length());
+        IInstrumentation.charge(
+                RuntimeMethodFeeSchedule.BlockchainRuntime_avm_hash_per_bytes * len
+        );
+        hasher.update(data.getUnderlying(), off, len);
+    }
+
+    public ByteArray avm_digest() {
+        IInstrumentation.charge(
+                RuntimeMethodFeeSchedule.BlockchainRuntime_avm_hash_base
+        );
+        return new ByteArray(hasher.digest());
+    }
+
+    public void deserializeSelf(java.lang.Class<?> firstRealImplementation, IObjectDeserializer deserializer) {
+        RuntimeAssertionError.unimplemented("cannot deserialize HasherImpl");
+    }
+
+    public void serializeSelf(java.lang.Class<?> firstRealImplementation, IObjectSerializer serializer) {
+        throw new GenericPredefinedException(Status.IllegalObjectGraph);
+    }
+}
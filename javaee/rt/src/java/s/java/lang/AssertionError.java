@@ -12,7 +12,7 @@ import i.IObject;
 public class AssertionError extends Error {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public AssertionError() {
@@ -7,7 +7,7 @@ import s.java.io.Serializable;
 public final class Boolean extends Object implements Serializable, Comparable<Boolean> {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public static final Boolean avm_TRUE = new Boolean(true, new ConstantToken(ShadowClassConstantId.Boolean_avm_TRUE));
@@ -29,48 +29,48 @@ public final class Boolean extends Object implements Serializable, Comparable<Bo
     }
 
     public static boolean avm_parseBoolean(String s){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_parseBoolean);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_parseBoolean);
         return internalParseBoolean(s);
     }
 
     public boolean avm_booleanValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_booleanValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_booleanValue);
         return v;
     }
 
     public static Boolean avm_valueOf(boolean b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_valueOf);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_valueOf);
         return b ? avm_TRUE : avm_FALSE;
     }
 
     public static Boolean avm_valueOf(String s) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_valueOf_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_valueOf_1);
         return internalParseBoolean(s) ? avm_TRUE : avm_FALSE;
     }
 
     public static String avm_toString(boolean b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_toString);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_toString);
         return b ? (new String("true")) : (new String("false"));
     }
 
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_toString_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_toString_1);
         return v ? (new String("true")) : (new String("false"));
     }
 
     @Override
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_hashCode);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_hashCode);
         return internalHashCode(this.v);
     }
 
     public static int avm_hashCode(boolean value) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_hashCode_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_hashCode_1);
         return internalHashCode(value);
     }
 
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_equals);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_equals);
         if (obj instanceof Boolean) {
             Boolean other = (Boolean)obj;
             return this.v == other.v;
@@ -79,27 +79,27 @@ public final class Boolean extends Object implements Serializable, Comparable<Bo
     }
 
     public int avm_compareTo(Boolean b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_compareTo);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_compareTo);
         return internalCompare(this.v, b.v);
     }
 
     public static int avm_compare(boolean x, boolean y) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_compare);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_compare);
         return internalCompare(x, y);
     }
 
     public static boolean avm_logicalAnd(boolean a, boolean b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_logicalAnd);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_logicalAnd);
         return a && b;
     }
 
     public static boolean avm_logicalOr(boolean a, boolean b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_logicalOr);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_logicalOr);
         return a || b;
     }
 
     public static boolean avm_logicalXor(boolean a, boolean b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_logicalXor);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Boolean_avm_logicalXor);
         return a ^ b;
     }
 
@@ -6,7 +6,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public final class Byte extends Number implements Comparable<Byte> {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public static final byte avm_MIN_VALUE = java.lang.Byte.MIN_VALUE;
@@ -17,37 +17,37 @@ public final class Byte extends Number implements Comparable<Byte> {
     public static final Class<java.lang.Byte> avm_TYPE = new Class<java.lang.Byte>(java.lang.Byte.TYPE, new ConstantToken(ShadowClassConstantId.Byte_avm_TYPE));
 
     public static String avm_toString(byte b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_toString);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_toString);
         return new String(java.lang.Byte.toString(b));
     }
 
     public static Byte avm_valueOf(byte b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_valueOf);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_valueOf);
         return internalValueOf(b);
     }
 
     public static byte avm_parseByte(String s, int radix) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_parseByte);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_parseByte);
         return internalParseByte(s, radix);
     }
 
     public static byte avm_parseByte(String s) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_parseByte_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_parseByte_1);
         return internalParseByte(s, 10);
     }
 
     public static Byte avm_valueOf(String s, int radix) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_valueOf_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_valueOf_1);
         return internalValueOf(internalParseByte(s, radix));
     }
 
     public static Byte avm_valueOf(String s) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_valueOf_2);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_valueOf_2);
         return internalValueOf(internalParseByte(s, 10));
     }
 
     public static Byte avm_decode(String nm) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_decode);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_decode);
         return new Byte(java.lang.Byte.decode(nm.getUnderlying()).byteValue());
     }
 
@@ -62,61 +62,61 @@ public final class Byte extends Number implements Comparable<Byte> {
     }
 
     public byte avm_byteValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_byteValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_byteValue);
         lazyLoad();
         return v;
     }
 
     public short avm_shortValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_shortValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_shortValue);
         lazyLoad();
         return (short) v;
     }
 
     public int avm_intValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_intValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_intValue);
         lazyLoad();
         return (int) v;
     }
 
     public long avm_longValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_longValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_longValue);
         lazyLoad();
         return (long) v;
     }
 
     public float avm_floatValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_floatValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_floatValue);
         lazyLoad();
         return (float) v;
     }
 
     public double avm_doubleValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_doubleValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_doubleValue);
         lazyLoad();
         return (double) v;
     }
 
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_toString_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_toString_1);
         lazyLoad();
         return new String(java.lang.Byte.toString(this.v));
     }
 
     @Override
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_hashCode);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_hashCode);
         lazyLoad();
         return internalHashCode(this.v);
     }
 
     public static int avm_hashCode(byte value) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_hashCode_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_hashCode_1);
         return internalHashCode(value);
     }
 
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_equals);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_equals);
         boolean isEqual = false;
         if (obj instanceof Byte) {
             Byte other = (Byte)obj;
@@ -128,29 +128,29 @@ public final class Byte extends Number implements Comparable<Byte> {
     }
 
     public int avm_compareTo(Byte anotherByte) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_compareTo);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_compareTo);
         lazyLoad();
         anotherByte.lazyLoad();
         return internalCompare(this.v, anotherByte.v);
     }
 
     public static int avm_compare(byte x, byte y) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_compare);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_compare);
         return internalCompare(x, y);
     }
 
     public static int avm_compareUnsigned(byte x, byte y) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_compareUnsigned);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_compareUnsigned);
         return internalToUnsignedInt(x) - internalToUnsignedInt(y);
     }
 
     public static int avm_toUnsignedInt(byte x) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_toUnsignedInt);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_toUnsignedInt);
         return internalToUnsignedInt(x);
     }
 
     public static long avm_toUnsignedLong(byte x) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_toUnsignedLong);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Byte_avm_toUnsignedLong);
         return ((long) x) & 0xffL;
     }
 
@@ -11,7 +11,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public class EnumConstantNotPresentException extends RuntimeException {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     private Class<? extends Enum> enumType;
@@ -28,13 +28,13 @@ public class EnumConstantNotPresentException extends RuntimeException {
     }
 
     public String avm_constantName() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Throwable_Hierarchy_Base_Fee);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Throwable_Hierarchy_Base_Fee);
         lazyLoad();
         return this.constantName;
     }
 
     public Class<? extends Enum> avm_enumType() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Throwable_Hierarchy_Base_Fee);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Throwable_Hierarchy_Base_Fee);
         lazyLoad();
         return this.enumType;
     }
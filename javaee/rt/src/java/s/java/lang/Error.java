@@ -11,7 +11,7 @@ import i.IInstrumentation;
 public class Error extends Throwable {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public Error() {
@@ -5,7 +5,7 @@ import i.IInstrumentation;
 public final class Math extends Object {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     private Math() {}
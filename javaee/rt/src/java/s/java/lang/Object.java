@@ -11,7 +11,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public class Object extends java.lang.Object implements IObject {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
     public static final int NEW_INSTANCE_READ_INDEX = -1;
 
@@ -20,8 +20,12 @@ public class Object extends java.lang.Object implements IObject {
     // The readIndex is only used in cases of reentrant calls (this is the serialization index of the instance in the caller frame when serialized for the reentrant call).
     public final int readIndex;
 
+    // Only set while this instance is a stub of a lazily loaded graph (the data of the instance is at instanceLoadPosition in the graph).
+    private IInstanceLoader instanceLoader;
+    private int instanceLoadPosition;
+
     public Object() {
-        this.hashCode = IInstrumentation.attachedThreadInstrumentation.get().getNextHashCodeAndIncrement();
+        this.hashCode = IInstrumentation.current().getNextHashCodeAndIncrement();
         this.readIndex = NEW_INSTANCE_READ_INDEX;
     }
 
@@ -50,36 +54,37 @@ public class Object extends java.lang.Object implements IObject {
      * @return The identity hash of the instance.
      */
     public int getIdentityHashCode() {
+        lazyLoad();
         return this.hashCode;
     }
 
     @Override
     public Class<?> avm_getClass() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_getClass);
-        return IInstrumentation.attachedThreadInstrumentation.get().wrapAsClass(this.getClass());
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_getClass);
+        return IInstrumentation.current().wrapAsClass(this.getClass());
     }
 
     @Override
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_hashCode);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_hashCode);
         return internalHashcode();
     }
 
     @Override
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_equals);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_equals);
         // By default, we are only instance-equal.
         return (this == obj);
     }
 
     protected IObject avm_clone() throws CloneNotSupportedException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_clone);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_clone);
         throw new CloneNotSupportedException();
     }
 
     @Override
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_toString);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_toString);
         //using the public facing method since the user can override this
         return new String(ClassNameExtractor.getOriginalClassName(getClass().getName()) + "@" + java.lang.Integer.toHexString(avm_hashCode()));
     }
@@ -103,11 +108,29 @@ public class Object extends java.lang.Object implements IObject {
      * Note that this is final since the protected "deserializeSelf" should be over-ridden.
      */
     public final void lazyLoad() {
-        // This now does nothing - will be removed later if we are certain we don't want the lazy loading.
-        // It was originally how the lazy loading system worked when we had the incremental loading design.
+        // This does nothing unless the instance is a stub.  Note that deserializeSelf() clears the loader.
+        IInstanceLoader loader = this.instanceLoader;
+        if (null != loader) {
+            loader.loadInstance(this, this.instanceLoadPosition);
+        }
+    }
+
+    /**
+     * Makes this instance a stub which is populated by the given loader when it is first accessed.
+     * Only called by the persistence system, on instances which only have automatically deserialized fields.
+     *
+     * @param loader The loader of the graph.
+     * @param position The position of the instance data in the graph.
+     */
+    public final void setInstanceLoader(IInstanceLoader loader, int position) {
+        this.instanceLoader = loader;
+        this.instanceLoadPosition = position;
     }
 
     public void deserializeSelf(java.lang.Class<?> firstRealImplementation, IObjectDeserializer deserializer) {
+        // Any data read here replaces what the stub would have loaded.
+        this.instanceLoader = null;
+
         // We only operate on our hashCode.
         this.hashCode = deserializer.readInt();
         
@@ -118,6 +141,9 @@ public class Object extends java.lang.Object implements IObject {
     }
 
     public void serializeSelf(java.lang.Class<?> firstRealImplementation, IObjectSerializer serializer) {
+        // A stub needs to be loaded before we can write it.
+        lazyLoad();
+
         // We only operate on our hashCode.
         serializer.writeInt(this.hashCode);
         
@@ -10,7 +10,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public final class System extends Object{
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     private System() {
@@ -20,7 +20,7 @@ public final class System extends Object{
                                      IObject dest, int destPos,
                                      int length)
     {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(EnergyCalculator.multiplyLinearValueByMethodFeeLevel1AndAddBase(RuntimeMethodFeeSchedule.System_avm_arraycopy, java.lang.Math.max(length, 0)));
+        IInstrumentation.current().chargeEnergy(EnergyCalculator.multiplyLinearValueByMethodFeeLevel1AndAddBase(RuntimeMethodFeeSchedule.System_avm_arraycopy, java.lang.Math.max(length, 0)));
         if(src == null || dest == null){
             throw new NullPointerException();
         } else if (!((src instanceof Array) && (dest instanceof Array))){
@@ -9,7 +9,7 @@ import i.IInstrumentation;
 public class TypeNotPresentException extends RuntimeException {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     private String typeName;
@@ -25,7 +25,7 @@ public final class StringConcatFactory extends s.java.lang.Object {
 
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public static String avm_concat(java.lang.String recipe, Object[] staticArgs, Object[] dynamicArgs) {
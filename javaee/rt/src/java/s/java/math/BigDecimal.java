@@ -14,11 +14,11 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public class BigDecimal extends Number implements Comparable<BigDecimal>{
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public BigDecimal(String val){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_4);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_4);
 
         java.lang.String underlying = val.getUnderlying();
         if (!isValidString(underlying)) {
@@ -29,7 +29,7 @@ public class BigDecimal extends Number implements Comparable<BigDecimal>{
     }
 
     public BigDecimal(String val, MathContext mc){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_5);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_5);
 
         java.lang.String underlying = val.getUnderlying();
         if (!isValidString(underlying)) {
@@ -40,132 +40,132 @@ public class BigDecimal extends Number implements Comparable<BigDecimal>{
     }
 
     public BigDecimal(double val){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_6);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_6);
         v = new java.math.BigDecimal(val);
     }
 
     public BigDecimal(double val, MathContext mc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_7);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_7);
         v = new java.math.BigDecimal(val, mc.getUnderlying());
     }
 
     public BigDecimal(int val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_12);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_12);
         v = new java.math.BigDecimal(val);
     }
 
     public BigDecimal(int val, MathContext mc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_13);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_13);
         v = new java.math.BigDecimal(val, mc.getUnderlying());
     }
 
     public BigDecimal(long val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_14);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_14);
         v = new java.math.BigDecimal(val);
     }
 
     public BigDecimal(long val, MathContext mc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_15);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_15);
         v = new java.math.BigDecimal(val, mc.getUnderlying());
     }
 
     public static BigDecimal avm_valueOf(long val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_valueOf_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_valueOf_1);
         return new BigDecimal(java.math.BigDecimal.valueOf(val));
     }
 
     public static BigDecimal avm_valueOf(double val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_valueOf_2);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_valueOf_2);
         return new BigDecimal(java.math.BigDecimal.valueOf(val));
     }
 
     public int avm_compareTo(BigDecimal val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_compareTo);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_compareTo);
         lazyLoad();
         val.lazyLoad();
         return v.compareTo(val.v);
     }
 
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_hashCode);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_hashCode);
         lazyLoad();
         return v.hashCode();
     }
 
     public String avm_toString(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toString);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toString);
         lazyLoad();
         return new String(v.toString());
     }
 
     public String avm_toPlainString(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toPlainString);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toPlainString);
         lazyLoad();
         return new String(v.toPlainString());
     }
 
     public BigInteger avm_toBigInteger() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toBigInteger);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toBigInteger);
         lazyLoad();
         return new BigInteger(v.toBigInteger());
     }
 
     public BigInteger avm_toBigIntegerExact() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toBigIntegerExact);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toBigIntegerExact);
         lazyLoad();
         return new BigInteger(v.toBigIntegerExact());
     }
 
     public long avm_longValue(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_longValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_longValue);
         lazyLoad();
         return v.longValue();
     }
 
     public long avm_longValueExact(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_longValueExact);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_longValueExact);
         lazyLoad();
         return v.longValueExact();
     }
 
     public int avm_intValue(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_intValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_intValue);
         lazyLoad();
         return v.intValue();
     }
 
     public int avm_intValueExact() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_intValueExact);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_intValueExact);
         lazyLoad();
         return v.intValueExact();
     }
 
     public short avm_shortValueExact() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_shortValueExact);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_shortValueExact);
         lazyLoad();
         return v.shortValueExact();
     }
 
     public byte avm_byteValueExact() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_byteValueExact);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_byteValueExact);
         lazyLoad();
         return v.byteValueExact();
     }
 
     public float avm_floatValue(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_floatValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_floatValue);
         lazyLoad();
         return v.floatValue();
     }
 
     public double avm_doubleValue(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_doubleValue);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_doubleValue);
         lazyLoad();
         return v.doubleValue();
     }
 
     public boolean avm_equals(IObject x) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_equals);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_equals);
         if (x == this) {
             return true;
         }
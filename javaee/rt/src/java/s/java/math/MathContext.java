@@ -10,7 +10,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public final class MathContext extends Object implements Serializable {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public static final MathContext avm_UNLIMITED =
@@ -26,18 +26,18 @@ public final class MathContext extends Object implements Serializable {
             new MathContext(34, RoundingMode.avm_HALF_EVEN, new ConstantToken(ShadowClassConstantId.MathContext_avm_DECIMAL128));
 
     public MathContext(int setPrecision) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_constructor);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_constructor);
         v = new java.math.MathContext(setPrecision);
     }
 
     public MathContext(int setPrecision,
                        RoundingMode setRoundingMode) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_constructor_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_constructor_1);
         v = new java.math.MathContext(setPrecision, setRoundingMode.getUnderlying());
     }
 
     public MathContext(String val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_constructor_2);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_constructor_2);
         v = new java.math.MathContext(val.getUnderlying());
     }
 
@@ -47,20 +47,20 @@ public final class MathContext extends Object implements Serializable {
     }
 
     public int avm_getPrecision() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_getPrecision);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_getPrecision);
         lazyLoad();
         return this.v.getPrecision();
     }
 
     public RoundingMode avm_getRoundingMode() {
         // This fee matches Enum's avm_valueOf
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_getRoundingMode);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_getRoundingMode);
         lazyLoad();
         return RoundingMode.internalValueOf(new String(this.v.getRoundingMode().name()));
     }
 
     public boolean avm_equals(IObject x){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_equals);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_equals);
         boolean isEqual = false;
         if (x instanceof MathContext) {
             MathContext other = (MathContext) x;
@@ -73,14 +73,14 @@ public final class MathContext extends Object implements Serializable {
 
     public int avm_hashCode() {
         // This fee matches Enum's avm_valueOf
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_hashCode);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_hashCode);
         lazyLoad();
         RoundingMode roundingMode = RoundingMode.internalValueOf(new String(this.v.getRoundingMode().name()));
         return this.v.getPrecision() + roundingMode.internalHashcode() * 59;
     }
 
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_toString);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.MathContext_avm_toString);
         lazyLoad();
         return new String(v.toString());
     }
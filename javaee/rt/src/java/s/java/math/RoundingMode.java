@@ -16,7 +16,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public final class RoundingMode extends Enum<RoundingMode>{
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public static final RoundingMode avm_UP;
@@ -48,18 +48,18 @@ public final class RoundingMode extends Enum<RoundingMode>{
     }
 
     public static IObjectArray avm_values(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.RoundingMode_avm_values);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.RoundingMode_avm_values);
         return (ObjectArray) avm_$VALUES.clone();
     }
 
     public static RoundingMode avm_valueOf(String request){
         // This fee matches Enum's avm_valueOf
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.RoundingMode_avm_valueOf);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.RoundingMode_avm_valueOf);
         return internalValueOf(request);
     }
 
     public static RoundingMode avm_valueOf(int idx){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.RoundingMode_avm_valueOf_1);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.RoundingMode_avm_valueOf_1);
         if (idx > 7 || idx < 0){
             throw new IllegalArgumentException("argument out of range");
         }else{
@@ -13,7 +13,7 @@ import s.java.lang.String;
 public class NoSuchElementException extends RuntimeException {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public NoSuchElementException() {
@@ -13,7 +13,7 @@ import s.java.lang.String;
 public final class TimeUnit extends Enum<TimeUnit> {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.current().bootstrapOnly();
     }
 
     public static final TimeUnit avm_DAYS;
@@ -34,53 +34,53 @@ public final class TimeUnit extends Enum<TimeUnit> {
     }
 
     public long avm_convert(long sourceDuration, TimeUnit sourceUnit) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_convert);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_convert);
         return this.v.convert(sourceDuration, sourceUnit.v);
     }
 
     public long avm_toDays(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toDays);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toDays);
         return this.v.toDays(duration);
     }
 
     public long avm_toHours(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toHours);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toHours);
         return this.v.toHours(duration);
     }
 
     public long avm_toMinutes(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMinutes);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMinutes);
         return this.v.toMinutes(duration);
     }
 
     public long avm_toSeconds(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toSeconds);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toSeconds);
         return this.v.toSeconds(duration);
     }
 
     public long avm_toMillis(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMillis);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMillis);
         return this.v.toMillis(duration);
     }
 
     public long avm_toMicros(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMicros);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMicros);
         return this.v.toMicros(duration);
     }
 
     public long avm_toNanos(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toNanos);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toNanos);
         return this.v.toNanos(duration);
     }
 
     public static IObjectArray avm_values() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_values);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_values);
         return (ObjectArray) avm_$VALUES.clone();
     }
 
     public static TimeUnit avm_valueOf(String request) {
         // This fee matches Enum's avm_valueOf
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_valueOf);
+        IInstrumentation.current().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_valueOf);
         return Enum.internalValueOf(new Class<>(TimeUnit.class), request);
     }
 
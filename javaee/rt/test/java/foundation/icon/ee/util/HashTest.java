@@ -20,7 +20,10 @@ import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
 
 public class HashTest {
     public byte[] hexToBytes(String hexString) {
@@ -48,5 +51,39 @@ public class HashTest {
         testHash("xxhash-128", "test\n", "3ca61fda08187f2d0012a945c6197364");
         testHash("blake2b-128", "test\n", "21ebd7636fdde0f4929e0ed3c0beaf55");
         testHash("blake2b-256", "test\n", "579da00778a5b4567c94630399203935f7d84bb2c457e56537e36a56ff490a4a");
+        testHash("sha3-256", "test\n", "34a0b893b66e312a8b0f7dc4bc4c7930b67f8823513aff5444fb5c64aa060c5a");
+    }
+
+    @Test
+    public void testSameHashForAllInputs() throws Exception {
+        String[] algs = {"sha-256", "sha3-256", "keccak-256", "xxhash-128", "blake2b-128", "blake2b-256"};
+        var data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        for (var alg : algs) {
+            for (int len : new int[]{0, 1, 32, 4096, 5000, 9000}) {
+                int off = 3;
+                var msg = Arrays.copyOfRange(data, off, off + len);
+                var exp = Crypto.hash(alg, msg);
+                Assertions.assertArrayEquals(exp, Crypto.hash(alg, data, off, len), alg);
+                // the engines are reused
+                Assertions.assertArrayEquals(exp, Crypto.hash(alg, msg), alg);
+
+                var heap = ByteBuffer.wrap(data, off, len).slice();
+                Assertions.assertArrayEquals(exp, Crypto.hash(alg, heap), alg);
+                Assertions.assertFalse(heap.hasRemaining());
+
+                var direct = ByteBuffer.allocateDirect(len + 1);
+                direct.put((byte) 0).put(msg).flip().position(1);
+                Assertions.assertArrayEquals(exp, Crypto.hash(alg, direct), alg);
+                Assertions.assertFalse(direct.hasRemaining());
+            }
+        }
+        var msg = "test\n".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(msg), Crypto.sha256(msg));
+        Assertions.assertArrayEquals(Crypto.hash("keccak-256", msg), Crypto.keccack256(msg));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Crypto.sha3_256(msg, 2, msg.length));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Crypto.hash("md5", msg, 0, 1));
     }
 }
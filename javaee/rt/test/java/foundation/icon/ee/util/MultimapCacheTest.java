@@ -23,6 +23,104 @@ public class MultimapCacheTest {
         Assertions.assertEquals(1, mc.size());
     }
 
+    @Test
+    public void testRemove() {
+        var mc = MultimapCache.<String, String>newWeakCache(16, 4);
+        var v1 = new String("v1");
+        var v2 = new String("v2");
+        mc.put("k1", v1);
+        mc.put("k1", v2);
+        Assertions.assertSame(v2, mc.remove("k1", v -> v.equals("v2")));
+        Assertions.assertSame(v1, mc.remove("k1", v -> v.equals("v2")));
+        Assertions.assertNull(mc.remove("k1", v -> true));
+    }
+
+    @Test
+    public void testWeight() {
+        var mc = MultimapCache.<String, byte[]>newSoftCache(16, 1, 100,
+                v -> v.length);
+        var v1 = new byte[40];
+        var v2 = new byte[40];
+        var v3 = new byte[40];
+        mc.put("k1", v1);
+        mc.put("k2", v2);
+        Assertions.assertEquals(80, mc.weight());
+        mc.put("k3", v3);
+        Assertions.assertEquals(80, mc.weight());
+        Assertions.assertEquals(1, mc.getEvictions());
+        Assertions.assertNull(mc.remove("k1", v -> true));
+        Assertions.assertSame(v2, mc.remove("k2", v -> true));
+        Assertions.assertEquals(40, mc.weight());
+        mc.put("k4", new byte[200]);
+        Assertions.assertEquals(0, mc.size());
+        Assertions.assertEquals(0, mc.weight());
+        Assertions.assertEquals(1, mc.getHits());
+        Assertions.assertEquals(1, mc.getMisses());
+        Assertions.assertEquals(3, mc.getEvictions());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        var mc = MultimapCache.<String, Object>newSoftCache(1024, 8);
+        var threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int id = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    var k = "k" + (j % 32);
+                    var v = mc.remove(k, o -> true);
+                    mc.put(k, v != null ? v : new Object());
+                    if (j % 100 == 0) {
+                        mc.put("t" + id, new Object());
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (var th : threads) {
+            th.join();
+        }
+        Assertions.assertTrue(mc.size() <= 1024);
+        for (int i = 0; i < threads.length; i++) {
+            Assertions.assertNotNull(mc.remove("t" + i, o -> true));
+        }
+    }
+
+    @Test
+    public void testBoundOverStripes() {
+        var mc = MultimapCache.<String, Object>newSoftCache(16, 16);
+        var values = new Object[16];
+        for (int i = 0; i < 16; i++) {
+            values[i] = new Object();
+            mc.put("k" + i, values[i]);
+        }
+        Assertions.assertEquals(16, mc.size());
+        Assertions.assertEquals(0, mc.getEvictions());
+
+        // the least recently put entry is evicted whatever stripe holds it
+        mc.put("k0", mc.remove("k0", v -> true));
+        mc.put("k16", new Object());
+        Assertions.assertEquals(16, mc.size());
+        Assertions.assertNull(mc.remove("k1", v -> true));
+        for (int i = 2; i < 16; i++) {
+            Assertions.assertSame(values[i], mc.remove("k" + i, v -> true));
+        }
+        Assertions.assertSame(values[0], mc.remove("k0", v -> true));
+    }
+
+    @Test
+    public void testWeightOverStripes() {
+        var mc = MultimapCache.<String, byte[]>newSoftCache(16, 16, 100,
+                v -> v.length);
+        var v1 = new byte[90];
+        mc.put("k1", v1);
+        Assertions.assertEquals(90, mc.weight());
+        mc.put("k2", new byte[20]);
+        Assertions.assertEquals(20, mc.weight());
+        Assertions.assertNull(mc.remove("k1", v -> true));
+        Assertions.assertEquals(1, mc.getEvictions());
+    }
+
     static void sleep(int millis) {
         try {
             Thread.sleep(millis);
@@ -0,0 +1,45 @@
+package foundation.icon.ee.util;
+
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+public class RecoveredKeyCacheTest {
+    private static byte[] hash(int i) {
+        return Crypto.sha3_256(new byte[]{(byte) i});
+    }
+
+    @Test
+    public void testLRU() {
+        var c = new RecoveredKeyCache(2, 1);
+        var k1 = new byte[]{1};
+        var k2 = new byte[]{2};
+        var k3 = new byte[]{3};
+        c.put(hash(1), k1);
+        c.put(hash(2), k2);
+        Assertions.assertSame(k1, c.get(hash(1)));
+        c.put(hash(3), k3);
+        Assertions.assertNull(c.get(hash(2)));
+        Assertions.assertSame(k1, c.get(hash(1)));
+        Assertions.assertSame(k3, c.get(hash(3)));
+        Assertions.assertEquals(2, c.getEntries());
+        Assertions.assertEquals(3, c.getHits());
+        Assertions.assertEquals(1, c.getMisses());
+        Assertions.assertEquals(1, c.getEvictions());
+    }
+
+    @Test
+    public void testStripes() {
+        var c = new RecoveredKeyCache(64, 3);
+        for (int i = 0; i < 200; i++) {
+            c.put(hash(i), new byte[]{(byte) i});
+        }
+        Assertions.assertTrue(c.getEntries() <= 64);
+        Assertions.assertEquals(200, c.getEntries() + c.getEvictions());
+        for (int i = 0; i < 200; i++) {
+            var k = c.get(hash(i));
+            if (k != null) {
+                Assertions.assertEquals((byte) i, k[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.ee.util;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+public class SignatureTest {
+    private static final int N = 50;
+
+    private final Random random = new Random(1);
+    private final byte[][] msgs = new byte[N][];
+    private final byte[][] sigs = new byte[N][];
+    private final byte[][] pks = new byte[N][];
+
+    public SignatureTest() {
+        for (int i = 0; i < N; i++) {
+            var sk = new byte[Ed25519.SECRET_KEY_SIZE];
+            random.nextBytes(sk);
+            pks[i] = new byte[Ed25519.PUBLIC_KEY_SIZE];
+            Ed25519.generatePublicKey(sk, 0, pks[i], 0);
+            msgs[i] = new byte[i];
+            random.nextBytes(msgs[i]);
+            sigs[i] = new byte[Ed25519.SIGNATURE_SIZE];
+            Ed25519.sign(sk, 0, msgs[i], 0, msgs[i].length, sigs[i], 0);
+        }
+    }
+
+    @Test
+    public void sameAsVerifySignature() {
+        for (int i = 0; i < N; i += 3) {
+            sigs[i][i % Ed25519.SIGNATURE_SIZE] ^= 1;
+        }
+        var res = Crypto.verifySignatures("ed25519", msgs, sigs, pks);
+        Assertions.assertEquals(N, res.length);
+        for (int i = 0; i < N; i++) {
+            Assertions.assertEquals(i % 3 != 0, res[i]);
+            Assertions.assertEquals(
+                    Crypto.verifySignature("ed25519", msgs[i], sigs[i], pks[i]),
+                    res[i]);
+        }
+        Assertions.assertEquals(0, Crypto.verifySignatures("ed25519",
+                new byte[0][], new byte[0][], new byte[0][]).length);
+    }
+
+    @Test
+    public void firstFailureIsThrown() {
+        pks[N - 1] = new byte[1];
+        sigs[N / 2] = new byte[1];
+        sigs[N / 2 + 1] = new byte[1];
+        for (int i = 0; i < 10; i++) {
+            var e = Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> Crypto.verifySignatures("ed25519", msgs, sigs, pks));
+            Assertions.assertEquals("invalid signature length", e.getMessage());
+        }
+        pks[1] = new byte[1];
+        var e = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Crypto.verifySignatures("ed25519", msgs, sigs, pks));
+        Assertions.assertEquals("invalid public key length", e.getMessage());
+    }
+
+    @Test
+    public void invalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Crypto.verifySignatures("md5", msgs, sigs, pks));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Crypto.verifySignatures("ed25519", msgs, sigs, new byte[1][]));
+    }
+
+    @Test
+    public void recoverKeyIsCached() {
+        X9ECParameters params = CustomNamedCurves.getByName("secp256k1");
+        var d = new BigInteger(1, msgs[32]).mod(params.getN());
+        var pk = params.getG().multiply(d).getEncoded(false);
+        var msg = Crypto.sha3_256(msgs[20]);
+        var signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        signer.init(true, new ECPrivateKeyParameters(d, new ECDomainParameters(
+                params.getCurve(), params.getG(), params.getN(), params.getH())));
+        var rs = signer.generateSignature(msg);
+        var sig = new byte[65];
+        BigIntegers.asUnsignedByteArray(rs[0], sig, 0, 32);
+        BigIntegers.asUnsignedByteArray(rs[1], sig, 32, 32);
+        while (!Arrays.equals(pk, Crypto.recoverKey(msg, sig, false))) {
+            sig[64]++;
+            Assertions.assertTrue(sig[64] < 4);
+        }
+
+        var cache = Crypto.getRecoveredKeyCache();
+        long hits = cache.getHits();
+        var key = Crypto.recoverKey(msg, sig, false);
+        Assertions.assertArrayEquals(pk, key);
+        Assertions.assertEquals(hits + 1, cache.getHits());
+        // returned keys are copies
+        key[1] ^= 1;
+        Assertions.assertArrayEquals(pk, Crypto.recoverKey(msg, sig, false));
+        // the encoding is a part of the id
+        var compressed = Crypto.recoverKey(msg, sig, true);
+        Assertions.assertEquals(33, compressed.length);
+        Assertions.assertArrayEquals(Arrays.copyOfRange(pk, 1, 33),
+                Arrays.copyOfRange(compressed, 1, 33));
+        Assertions.assertTrue(Crypto.verifySignature("ecdsa-secp256k1", msg, sig, pk));
+        Assertions.assertTrue(Crypto.verifySignature("ecdsa-secp256k1", msg, sig, compressed));
+    }
+}
@@ -157,4 +157,38 @@ public class RLPCoderTest {
         for (var c : cases)
             c.run();
     }
+
+    private static byte[] encodeBytes(byte[] bs) {
+        var rc = new RLPCoder();
+        rc.encode(new ByteArray(bs));
+        return rc.toByteArray();
+    }
+
+    @Test
+    public void testSameAsEncodedBytes() throws Exception {
+        java.lang.String[] strings = {
+                "", "a", "\u007f", "\u0080", "\u07ff", "\u0800", "\uffff", "key-\u00e9\u4e2d",
+                "\ud83d\ude00", "a\ud83d\ude00b", "\ud83d", "\ude00", "\ude00\ud83d", "x\ud83d",
+                "a".repeat(55), "a".repeat(56), "\u4e2d".repeat(100),
+        };
+        var rc = new RLPCoder();
+        for (var str : strings) {
+            rc.reset();
+            rc.encode(new String(str));
+            var bs = str.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            assertArrayEquals(encodeBytes(bs), rc.toByteArray());
+        }
+
+        long[] values = {
+                0, 1, -1, 0x7f, 0x80, -0x80, -0x81, 0xff, 0x100, 0x7fffffffL, -0x80000000L,
+                java.lang.Long.MAX_VALUE, java.lang.Long.MIN_VALUE,
+        };
+        for (var v : values) {
+            rc.reset();
+            rc.encode(Long.avm_valueOf(v));
+            var bs = java.math.BigInteger.valueOf(v).toByteArray();
+            assertArrayEquals(encodeBytes(bs), rc.toByteArray());
+            assertEquals(rc.toByteArray().length, rc.size());
+        }
+    }
 }
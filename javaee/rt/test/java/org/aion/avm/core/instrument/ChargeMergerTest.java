@@ -0,0 +1,175 @@
+package org.aion.avm.core.instrument;
+
+import i.Helper;
+import org.aion.avm.core.ClassToolchain;
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Compares the merged charges with the charge per block, running the metered methods of {@link MeteringTarget} for
+ * many inputs:  each run must have the same result and be charged the same total.
+ */
+public class ChargeMergerTest {
+    private static final int MIN_ARG = -3;
+    private static final int MAX_ARG = 12;
+
+    public static class Counter {
+        static long charged;
+        static long calls;
+
+        public static void charge(int cost) {
+            charged += cost;
+            calls += 1;
+        }
+    }
+
+    private static final class MeteredLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        MeteredLoader(Map<String, byte[]> classes) {
+            super(ChargeMergerTest.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (null == c) {
+                    byte[] bytes = this.classes.get(name);
+                    if (null == bytes) {
+                        return super.loadClass(name, resolve);
+                    }
+                    c = defineClass(name, bytes, 0, bytes.length);
+                }
+                if (resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+    }
+
+    private static final class Run {
+        final String outcome;
+        final long charged;
+        final long calls;
+
+        Run(String outcome, long charged, long calls) {
+            this.outcome = outcome;
+            this.charged = charged;
+            this.calls = calls;
+        }
+    }
+
+    // The helper which the metered code calls, forwarding to the Counter.
+    private static byte[] helperClass() {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, Helper.RUNTIME_HELPER_NAME, null, "java/lang/Object", null);
+        MethodVisitor mv = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "chargeEnergy", "(I)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ILOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Counter.class), "charge", "(I)V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static Class<?> meteredTarget(boolean mergeCharges) throws Exception {
+        byte[] original;
+        try (InputStream in = ChargeMergerTest.class.getClassLoader()
+                .getResourceAsStream(MeteringTarget.class.getName().replace('.', '/') + ".class")) {
+            original = in.readAllBytes();
+        }
+        byte[] metered = new ClassToolchain.Builder(original, ClassReader.EXPAND_FRAMES | ClassReader.SKIP_DEBUG)
+                .addNextVisitor(new ClassMetering(null, mergeCharges))
+                .addWriter(new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS))
+                .build()
+                .runAndGetBytecode();
+        ClassLoader loader = new MeteredLoader(Map.of(
+                MeteringTarget.class.getName(), metered,
+                Helper.RUNTIME_HELPER_NAME, helperClass()));
+        return loader.loadClass(MeteringTarget.class.getName());
+    }
+
+    private static List<Method> targetMethods(Class<?> target) {
+        List<Method> methods = new ArrayList<>();
+        for (Method m : target.getDeclaredMethods()) {
+            if (Modifier.isPublic(m.getModifiers())) {
+                methods.add(m);
+            }
+        }
+        methods.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return methods;
+    }
+
+    private static List<Object[]> argumentsFor(Method method) {
+        List<Object[]> args = new ArrayList<>();
+        for (int x = MIN_ARG; x <= MAX_ARG; x++) {
+            if (1 == method.getParameterCount()) {
+                args.add(new Object[]{x});
+            } else {
+                for (int y = MIN_ARG; y <= MAX_ARG; y++) {
+                    args.add(new Object[]{x, y});
+                }
+            }
+        }
+        return args;
+    }
+
+    private static Run run(Method method, Object[] args) throws IllegalAccessException {
+        Counter.charged = 0L;
+        Counter.calls = 0L;
+        String outcome;
+        try {
+            outcome = "returned " + method.invoke(null, args);
+        } catch (InvocationTargetException e) {
+            outcome = "threw " + e.getCause().getClass().getName();
+        }
+        return new Run(outcome, Counter.charged, Counter.calls);
+    }
+
+    @Test
+    public void testSameChargeOnEveryPath() throws Exception {
+        List<Method> perBlock = targetMethods(meteredTarget(false));
+        List<Method> merged = targetMethods(meteredTarget(true));
+        Assert.assertEquals(perBlock.size(), merged.size());
+
+        long perBlockCalls = 0L;
+        long mergedCalls = 0L;
+        for (int i = 0; i < perBlock.size(); i++) {
+            Method expectedMethod = perBlock.get(i);
+            Method actualMethod = merged.get(i);
+            Assert.assertEquals(expectedMethod.getName(), actualMethod.getName());
+            for (Object[] args : argumentsFor(expectedMethod)) {
+                Run expected = run(expectedMethod, args);
+                Run actual = run(actualMethod, args);
+                String message = expectedMethod.getName() + Arrays.toString(args);
+                Assert.assertEquals(message, expected.outcome, actual.outcome);
+                Assert.assertTrue(message, expected.charged > 0L);
+                Assert.assertEquals(message, expected.charged, actual.charged);
+                Assert.assertTrue(message, actual.calls <= expected.calls);
+                perBlockCalls += expected.calls;
+                mergedCalls += actual.calls;
+            }
+        }
+        Assert.assertTrue(mergedCalls < perBlockCalls);
+    }
+}
@@ -0,0 +1,186 @@
+package org.aion.avm.core.instrument;
+
+
+/**
+ * Methods with various control flows, metered by ChargeMergerTest.
+ * All the public static methods take int arguments and return an int (or throw).
+ */
+public class MeteringTarget {
+    public static int straight(int x) {
+        int a = x * 3;
+        a ^= a >>> 2;
+        long l = a + 5L;
+        return (int) (l * 7);
+    }
+
+    public static int diamond(int x) {
+        int r;
+        if (x > 0) {
+            r = x * 2;
+        } else {
+            r = -x;
+        }
+        r += 3;
+        return r;
+    }
+
+    public static int conditions(int x, int y) {
+        int r = (x > y) ? x - y : y - x;
+        if (x > 0 && y > 0 || x == y) {
+            r <<= 1;
+        }
+        boolean b = (x & 1) == 0;
+        r += b ? 1 : 2;
+        if (r > 5) {
+            if (r > 8) {
+                r -= 8;
+            } else {
+                r += 8;
+            }
+        }
+        return r;
+    }
+
+    public static int loop(int n) {
+        int s = 0;
+        for (int i = 0; i < n; i++) {
+            if ((i & 1) == 0) {
+                s += i;
+            } else {
+                s -= 1;
+            }
+            s = (s > 20) ? s - 20 : s;
+        }
+        return s;
+    }
+
+    public static int nestedLoop(int n) {
+        int s = 0;
+        int i = 0;
+        while (i < n) {
+            int j = i;
+            do {
+                s += (j % 3 == 0) ? j : 1;
+                j++;
+            } while (j < n);
+            i += 2;
+        }
+        return s;
+    }
+
+    public static int switches(int x) {
+        int r = 1;
+        switch (x) {
+            case 0:
+                r = 10;
+                break;
+            case 1:
+                r = 11;
+            case 2:
+                r += 12;
+                break;
+            case 7:
+                r = x * x;
+                break;
+            default:
+                r = -1;
+        }
+        switch (x * 1000) {
+            case 1000:
+                r++;
+                break;
+            case 5000:
+                r--;
+                break;
+            default:
+                r += 3;
+        }
+        return r;
+    }
+
+    public static int divide(int x, int y) {
+        int r = 1;
+        if (x > y) {
+            r = 2;
+        }
+        try {
+            r += x / y;
+            if (r > 3) {
+                r = 3;
+            }
+        } catch (ArithmeticException e) {
+            r = (x > 0) ? -1 : -2;
+        }
+        r *= 2;
+        return r;
+    }
+
+    public static int escapingDivide(int x, int y) {
+        int r = (x > 0) ? 1 : 2;
+        r += x % y;
+        r = (r > 1) ? r : 1;
+        return r;
+    }
+
+    public static int arrays(int n) {
+        int r = (n > 2) ? 1 : 0;
+        int[] a = new int[n];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = (i > 1) ? i : -i;
+        }
+        r += (a.length > 0) ? a[a.length - 1] : 0;
+        r += a[2];
+        return r;
+    }
+
+    public static int nullable(int x) {
+        Object o = (x > 0) ? "a" : null;
+        int r = (x > 1) ? 1 : 2;
+        r += o.hashCode();
+        return (r > 0) ? r : -r;
+    }
+
+    public static int calls(int x) {
+        int r = x;
+        if (x > 0) {
+            r = helper(r);
+        } else {
+            r--;
+        }
+        r += 1;
+        if (r > 10) {
+            throw new IllegalStateException();
+        }
+        return (r > 5) ? helper(r) : r;
+    }
+
+    public static int caught(int x) {
+        int r = 0;
+        for (int i = 0; i < x; i++) {
+            try {
+                r += (i > 2) ? calls(i) : i;
+            } catch (IllegalStateException e) {
+                r -= 1;
+            } finally {
+                r = (r > 100) ? 0 : r;
+            }
+        }
+        return r;
+    }
+
+    public static int wide(int x, int y) {
+        long l = (x > 0) ? (long) x << 40 : -y;
+        double d = (y > 2) ? 1.5 * y : 0.25;
+        int r = (l > d) ? 1 : 0;
+        r += (Double.compare(d, 1.0) > 0) ? 2 : 3;
+        float f = (float) d;
+        if (f < 2.0f) {
+            r += (int) (l >> 20);
+        }
+        return r;
+    }
+
+    private static int helper(int x) {
+        return (x > 3) ? x + 1 : x * 2;
+    }
+}
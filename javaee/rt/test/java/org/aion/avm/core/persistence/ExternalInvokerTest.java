@@ -0,0 +1,53 @@
+package org.aion.avm.core.persistence;
+
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.lang.reflect.InvocationTargetException;
+
+public class ExternalInvokerTest {
+    public static class Target {
+        public Target() {
+        }
+
+        public Target(boolean fail) {
+            if (fail) {
+                throw new IllegalStateException("ctor");
+            }
+        }
+
+        public boolean echo(boolean v) {
+            return v;
+        }
+
+        public void fail(boolean v) {
+            throw new IllegalStateException("method");
+        }
+    }
+
+    @Test
+    public void targetExceptionIsWrapped() throws Throwable {
+        var fail = ExternalInvoker.of(Target.class.getMethod("fail", boolean.class));
+        var e = Assertions.assertThrows(InvocationTargetException.class,
+                () -> fail.invoke(new Target(), new Object[]{true}));
+        Assertions.assertEquals("method", e.getTargetException().getMessage());
+
+        var ctor = ExternalInvoker.of(Target.class.getConstructor(boolean.class));
+        e = Assertions.assertThrows(InvocationTargetException.class,
+                () -> ctor.newInstance(new Object[]{true}));
+        Assertions.assertEquals("ctor", e.getTargetException().getMessage());
+        Assertions.assertTrue(ctor.newInstance(new Object[]{false}) instanceof Target);
+    }
+
+    @Test
+    public void handleErrorIsNotWrapped() throws Throwable {
+        var echo = ExternalInvoker.of(Target.class.getMethod("echo", boolean.class));
+        Assertions.assertEquals(true, echo.invoke(new Target(), new Object[]{true}));
+        Assertions.assertThrows(ClassCastException.class,
+                () -> echo.invoke(new Target(), new Object[]{"true"}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> echo.invoke(new Target(), new Object[0]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> echo.shadowParams(new Object[]{"true"}));
+    }
+}
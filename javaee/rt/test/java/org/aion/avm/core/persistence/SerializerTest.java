@@ -9,9 +9,12 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.Assert;
 
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
 
 public class SerializerTest {
     // NOTE:  Output is ONLY produced if REPORT is set to true.
@@ -371,6 +374,41 @@ public class SerializerTest {
         report("Deserialized in " + deltaNanosPer + " ns");
     }
 
+    @Test
+    public void testBackwardAndForwardReferences() throws Exception {
+        // Leaves refer back to the root and to themselves, and the root refers forward to the leaves.
+        TargetRoot.root = new TargetRoot();
+        TargetRoot.root.counter = 1;
+        TargetLeaf first = new TargetLeaf();
+        first.counter = 2;
+        first.left = TargetRoot.root;
+        first.right = first;
+        TargetLeaf second = new TargetLeaf();
+        second.counter = 3;
+        second.left = first;
+        second.right = TargetRoot.root;
+        first.next = second;
+        TargetRoot.root.next = first;
+
+        Class<?>[] sortedRoots = new Class<?>[]{TargetRoot.class};
+        byte[] expected = serializeDeserializeAsNew(1, sortedRoots);
+
+        TargetRoot root = TargetRoot.root;
+        TargetLeaf checkFirst = (TargetLeaf) root.next;
+        TargetLeaf checkSecond = (TargetLeaf) checkFirst.next;
+        Assert.assertEquals(1, root.counter);
+        Assert.assertEquals(2, checkFirst.counter);
+        Assert.assertEquals(3, checkSecond.counter);
+        Assert.assertTrue(root == checkFirst.left);
+        Assert.assertTrue(checkFirst == checkFirst.right);
+        Assert.assertTrue(checkFirst == checkSecond.left);
+        Assert.assertTrue(root == checkSecond.right);
+        Assert.assertNull(checkSecond.next);
+
+        // The graph we read must serialize to the same data.
+        Assert.assertArrayEquals(expected, serializeDeserializeAsNew(1, sortedRoots));
+    }
+
     @Test
     public void TestCleanClassStatics() throws Exception {
         int nextHashCode = 1;
@@ -391,6 +429,20 @@ public class SerializerTest {
         Assert.assertTrue(null == sortedRoots[0].getDeclaredField("right").get(null));
     }
 
+    @Test
+    public void testGeneratedAccessorsMatchReflection() throws Exception {
+        AccessorTarget reflective = new AccessorTarget(false);
+        AccessorTarget generated = new AccessorTarget(true);
+        byte[] expected = reflective.serialize();
+        Assert.assertArrayEquals(expected, generated.serialize());
+
+        // Each path must read what the other wrote, creating new instances, and write the same data again.
+        generated.clear();
+        Assert.assertArrayEquals(expected, generated.serializeAfterReading(expected));
+        reflective.clear();
+        Assert.assertArrayEquals(expected, reflective.serializeAfterReading(generated.serialize()));
+    }
+
 
     private byte[] serializeDeserializeAsNew(int nextHashCode, Class<?>[] sortedRoots) {
         ByteBuffer buffer = ByteBuffer.allocate(5_000_000);
@@ -457,6 +509,112 @@ public class SerializerTest {
     private static final class EmptyConstantClass {
     }
 
+    /**
+     * Loads the targets in their own class loader, with or without the accessors generated by ClassAccessorGenerator,
+     * and builds the same graph:  statics, constants, and instances with inherited and private fields.
+     */
+    private static final class AccessorTarget {
+        private static final String[] NAMES = {TargetRoot.class.getName(), TargetLeaf.class.getName(), TargetPrivate.class.getName(), TargetConstants.class.getName()};
+
+        private final SortedFieldCache cache;
+        private final Class<?>[] sortedRoots;
+        private final Class<?> constantClass;
+        private final Class<?> privateClass;
+
+        AccessorTarget(boolean generated) throws Exception {
+            Map<String, byte[]> classes = new HashMap<>();
+            for (String name : NAMES) {
+                try (InputStream in = SerializerTest.class.getClassLoader().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    classes.put(name, in.readAllBytes());
+                }
+            }
+            if (generated) {
+                classes = ClassAccessorGenerator.generate(classes);
+            }
+            ClassLoader loader = new TargetLoader(classes);
+            Class<?> root = loader.loadClass(TargetRoot.class.getName());
+            Class<?> leaf = loader.loadClass(TargetLeaf.class.getName());
+            this.privateClass = loader.loadClass(TargetPrivate.class.getName());
+            this.constantClass = loader.loadClass(TargetConstants.class.getName());
+            this.sortedRoots = new Class<?>[]{root, leaf, this.privateClass};
+            this.cache = new SortedFieldCache(loader,
+                    root.getMethod("serializeSelf", Class.class, IObjectSerializer.class),
+                    root.getMethod("deserializeSelf", Class.class, IObjectDeserializer.class),
+                    root.getField("readIndex"));
+            for (Class<?> clazz : new Class<?>[]{root, leaf, this.privateClass, this.constantClass}) {
+                Assert.assertEquals(generated, null != this.cache.getAccessor(clazz));
+            }
+
+            Object first = this.privateClass.getConstructor().newInstance();
+            Object second = this.privateClass.getConstructor().newInstance();
+            Object third = leaf.getConstructor().newInstance();
+            Method populate = this.privateClass.getMethod("populate", int.class, root);
+            populate.invoke(first, 1, second);
+            populate.invoke(second, 2, null);
+            root.getField("counter").setInt(first, 10);
+            root.getField("counter").setInt(second, 20);
+            root.getField("next").set(first, second);
+            leaf.getField("left").set(first, third);
+            leaf.getField("right").set(second, first);
+            root.getField("root").set(null, first);
+            leaf.getField("D").setDouble(null, 1.5);
+            this.privateClass.getMethod("populateStatics", long.class, root).invoke(null, 42L, second);
+            this.constantClass.getMethod("populate", root, root).invoke(null, third, root.getConstructor().newInstance());
+        }
+
+        byte[] serialize() {
+            ByteBuffer buffer = ByteBuffer.allocate(1_000);
+            Serializer.serializeEntireGraphAndNextHashCode(buffer, null, null, new TestGlobalResolver(), this.cache, new TestNameMapper(), 1, this.sortedRoots, this.constantClass);
+            byte[] bytes = new byte[buffer.position()];
+            System.arraycopy(buffer.array(), 0, bytes, 0, bytes.length);
+            return bytes;
+        }
+
+        void clear() throws Exception {
+            Deserializer.cleanClassStatics(this.cache, this.sortedRoots, this.constantClass);
+            this.sortedRoots[1].getField("D").setDouble(null, 0.0);
+            this.privateClass.getMethod("populateStatics", long.class, this.sortedRoots[0]).invoke(null, 0L, null);
+        }
+
+        byte[] serializeAfterReading(byte[] bytes) throws Exception {
+            int hashCode = Deserializer.deserializeEntireGraphAndNextHashCode(ByteBuffer.wrap(bytes), null, new TestGlobalResolver(), this.cache, new TestNameMapper(), this.sortedRoots, this.constantClass);
+            Assert.assertEquals(1, hashCode);
+            Object root = this.sortedRoots[0].getField("root").get(null);
+            Assert.assertSame(this.privateClass, root.getClass());
+            // Instances are created by the accessor or by the deserialization constructor, and both set the read index.
+            // The constants are written first, so the root is the third instance.
+            Assert.assertEquals(2, this.sortedRoots[0].getField("readIndex").getInt(root));
+            return serialize();
+        }
+    }
+
+    private static final class TargetLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        TargetLoader(Map<String, byte[]> classes) {
+            super(SerializerTest.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (null == c) {
+                    byte[] bytes = this.classes.get(name);
+                    if (null == bytes) {
+                        return super.loadClass(name, resolve);
+                    }
+                    c = defineClass(name, bytes, 0, bytes.length);
+                }
+                if (resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+    }
+
     private static void report(String output) {
         if (REPORT) {
             System.out.println(output);
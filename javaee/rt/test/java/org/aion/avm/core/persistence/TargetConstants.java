@@ -0,0 +1,12 @@
+package org.aion.avm.core.persistence;
+
+
+public class TargetConstants {
+    private static TargetRoot const_first;
+    private static TargetRoot const_second;
+
+    public static void populate(TargetRoot first, TargetRoot second) {
+        const_first = first;
+        const_second = second;
+    }
+}
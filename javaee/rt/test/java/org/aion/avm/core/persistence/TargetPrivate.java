@@ -0,0 +1,39 @@
+package org.aion.avm.core.persistence;
+
+
+public class TargetPrivate extends TargetLeaf {
+    private static long staticLong;
+    private static TargetRoot staticRef;
+    private boolean z;
+    private byte b;
+    private short s;
+    private char c;
+    private int i;
+    private float f;
+    private long j;
+    private double d;
+    private TargetRoot ref;
+
+    public TargetPrivate() {
+    }
+    public TargetPrivate(Void ignore, int readIndex) {
+        super(ignore, readIndex);
+    }
+
+    public void populate(int seed, TargetRoot ref) {
+        this.z = (0 == (seed & 1));
+        this.b = (byte) seed;
+        this.s = (short) (seed * 3);
+        this.c = (char) ('a' + seed);
+        this.i = seed * 7;
+        this.f = seed / 2.0f;
+        this.j = seed * 1_000_000_007L;
+        this.d = seed / 3.0;
+        this.ref = ref;
+    }
+
+    public static void populateStatics(long value, TargetRoot ref) {
+        staticLong = value;
+        staticRef = ref;
+    }
+}
@@ -66,6 +66,10 @@ public class TestInstrumentation implements IInstrumentation {
         throw RuntimeAssertionError.unreachable("Not expected in this test");
     }
     @Override
+    public boolean enterMethodAndCheckLeaves(int frameSize, int leafFrameSize) {
+        throw RuntimeAssertionError.unreachable("Not expected in this test");
+    }
+    @Override
     public void exitMethod(int frameSize) {
         throw RuntimeAssertionError.unreachable("Not expected in this test");
     }
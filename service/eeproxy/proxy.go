@@ -37,6 +37,7 @@ const (
 	msgSETOBJGRAPH = 14
 	msgSETFEEPCT   = 15
 	msgCONTAINS    = 16
+	msgGETVALUES   = 17
 )
 
 type proxyState int
@@ -442,6 +443,24 @@ func (p *proxy) HandleMessage(c ipc.Connection, msg uint, data []byte) error {
 		}
 		return p.conn.Send(msgGETVALUE, &m)
 
+	case msgGETVALUES:
+		var keys [][]byte
+		if _, err := codec.MP.UnmarshalFromBytes(data, &keys); err != nil {
+			return err
+		}
+		m := make([]getValueMessage, len(keys))
+		for i, key := range keys {
+			value, err := p.frame.ctx.GetValue(key)
+			if err != nil {
+				p.log.Tracef("Proxy[%p].GetValues key=<%x> err=%+v", p, key, err)
+				return err
+			}
+			m[i].Success = value != nil
+			m[i].Value = value
+			p.log.Tracef("Proxy[%p].GetValues key=<%x> value=<%x>", p, key, value)
+		}
+		return p.conn.Send(msgGETVALUES, m)
+
 	case msgSETVALUE:
 		var m setValueMessage
 		if _, err := codec.MP.UnmarshalFromBytes(data, &m); err != nil {
@@ -698,6 +717,7 @@ func newProxy(m proxyManager, c ipc.Connection, l log.Logger, t string, v uint16
 	c.SetHandler(msgSETOBJGRAPH, p)
 	c.SetHandler(msgSETFEEPCT, p)
 	c.SetHandler(msgCONTAINS, p)
+	c.SetHandler(msgGETVALUES, p)
 
 	if err := m.onReady(p); err != nil {
 		p.state = stateStopped